@@ -0,0 +1,45 @@
+package com.tecknobit.glider.configuration;
+
+import com.tecknobit.glider.helpers.RandomnessProvider;
+import com.tecknobit.glider.helpers.RandomnessProvider.RandomnessMode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@code RandomnessConfiguration} class is useful to apply the configured properties to the
+ * {@link RandomnessProvider}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Configuration
+public class RandomnessConfiguration {
+
+    /**
+     * {@code mode} the mode used to provide the random instances
+     */
+    @Value("${glider.randomness.mode:THREAD_LOCAL}")
+    private RandomnessMode mode;
+
+    /**
+     * {@code poolSize} the size of the pool used by the {@link RandomnessMode#POOLED_DRBG} mode
+     */
+    @Value("${glider.randomness.pool-size:" + RandomnessProvider.DEFAULT_POOL_SIZE + "}")
+    private int poolSize;
+
+    /**
+     * {@code reseedInterval} the time in milliseconds after which an instance of the pool is reseeded
+     */
+    @Value("${glider.randomness.reseed-interval:" + RandomnessProvider.DEFAULT_RESEED_INTERVAL + "}")
+    private long reseedInterval;
+
+    /**
+     * Method used to configure the randomness provider when the application starts
+     */
+    @PostConstruct
+    public void configureRandomness() {
+        RandomnessProvider provider = RandomnessProvider.getInstance();
+        provider.configure(mode, poolSize, reseedInterval);
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.tecknobit.glider.configuration;
+
+import com.tecknobit.glider.helpers.LockBoxStore.StoreType;
+import com.tecknobit.glider.helpers.ServerVault;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The {@code VaultConfiguration} class is useful to apply the configured properties to the {@link ServerVault}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Configuration
+public class VaultConfiguration {
+
+    /**
+     * {@code LOGGER} the logger used to report the import of the lock boxes
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(VaultConfiguration.class);
+
+    /**
+     * {@code keysCacheSize} the max number of the private keys kept in memory by the vault
+     */
+    @Value("${glider.vault.keys-cache.max-size:" + ServerVault.DEFAULT_KEYS_CACHE_SIZE + "}")
+    private int keysCacheSize;
+
+    /**
+     * {@code keysCacheTtl} the time in milliseconds a private key is kept in memory by the vault
+     */
+    @Value("${glider.vault.keys-cache.ttl:" + ServerVault.DEFAULT_KEYS_CACHE_TTL + "}")
+    private long keysCacheTtl;
+
+    /**
+     * {@code storeType} the type of the store where the lock boxes are persisted
+     */
+    @Value("${glider.vault.store.type:FILE}")
+    private StoreType storeType;
+
+    /**
+     * {@code importLockBoxes} whether import in the {@link StoreType#MAPPED} store the lock boxes stored one per file
+     */
+    @Value("${glider.vault.store.import-lock-boxes:true}")
+    private boolean importLockBoxes;
+
+    /**
+     * {@code parallelDecryptionThreshold} the min number of the passwords of a list decrypted in parallel
+     */
+    @Value("${glider.vault.decryption.parallel-threshold:" + ServerVault.DEFAULT_PARALLEL_DECRYPTION_THRESHOLD + "}")
+    private int parallelDecryptionThreshold;
+
+    /**
+     * {@code decryptionPoolSize} the number of the threads of the pool shared by the parallel decryptions
+     */
+    @Value("${glider.vault.decryption.pool-size:" + ServerVault.DEFAULT_DECRYPTION_POOL_SIZE + "}")
+    private int decryptionPoolSize;
+
+    /**
+     * {@code requestParallelism} the max number of the threads used to decrypt a single list
+     */
+    @Value("${glider.vault.decryption.request-parallelism:" + ServerVault.DEFAULT_REQUEST_PARALLELISM + "}")
+    private int requestParallelism;
+
+    /**
+     * {@code keyGeneration} the generation of the private keys which the keys of the users are rotated to
+     */
+    @Value("${glider.vault.rotation.key-generation:0}")
+    private int keyGeneration;
+
+    /**
+     * {@code masterKeystore} the path name of the keystore of the master key, the default one when empty
+     */
+    @Value("${glider.vault.master-key.keystore:}")
+    private String masterKeystore;
+
+    /**
+     * {@code masterKeyPassword} the password of the keystore of the master key
+     */
+    @Value("${glider.vault.master-key.password:}")
+    private String masterKeyPassword;
+
+    /**
+     * {@code masterKeyAlias} the alias of the entry of the master key in its keystore
+     */
+    @Value("${glider.vault.master-key.alias:" + ServerVault.DEFAULT_MASTER_KEY_ALIAS + "}")
+    private String masterKeyAlias;
+
+    /**
+     * {@code createMasterKey} whether create the keystore with a new master key when it does not exist
+     */
+    @Value("${glider.vault.master-key.create-if-missing:true}")
+    private boolean createMasterKey;
+
+    /**
+     * Method used to configure the vault when the application starts
+     *
+     * @throws Exception when the master key cannot be loaded or an error occurred during the setup of the lock boxes
+     */
+    @PostConstruct
+    public void configureVault() throws Exception {
+        if (masterKeyPassword.isBlank())
+            throw new IllegalStateException("The password of the master key must be set with the " +
+                    "glider.vault.master-key.password property");
+        ServerVault vault = ServerVault.getInstance();
+        vault.configureKeysCache(keysCacheSize, keysCacheTtl);
+        File keystore = new File(masterKeystore.isBlank() ? ServerVault.DEFAULT_MASTER_KEYSTORE_PATHNAME
+                : masterKeystore);
+        int importedLockBoxes = vault.configureLockBoxStore(storeType, importLockBoxes);
+        if (importedLockBoxes > 0)
+            LOGGER.info("Imported {} lock boxes in the lock box store", importedLockBoxes);
+        vault.configureMasterKey(keystore, masterKeyPassword.toCharArray(), masterKeyAlias, createMasterKey);
+        int wrappedLockBoxes = vault.wrapLockBoxes();
+        if (wrappedLockBoxes > 0)
+            LOGGER.info("Wrapped with the master key {} lock boxes", wrappedLockBoxes);
+        vault.configureParallelDecryption(parallelDecryptionThreshold, decryptionPoolSize, requestParallelism);
+        vault.configureKeyGeneration(keyGeneration);
+    }
+
+    /**
+     * Method used to close the store of the lock boxes when the application stops
+     *
+     * @throws IOException when an error occurred during the closing
+     */
+    @PreDestroy
+    public void closeVault() throws IOException {
+        ServerVault.getInstance().closeLockBoxStore();
+    }
+
+}
@@ -0,0 +1,316 @@
+package com.tecknobit.glider.helpers;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code BoundedCache} class is used to keep in memory a bounded number of values, evicting the least recently
+ * used ones when the max size is reached and the ones older than the configured time-to-live
+ *
+ * @param <K> The type of the keys of the cache
+ * @param <V> The type of the values of the cache
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * The {@code CacheLoader} interface is used to load a value not available in the cache
+     *
+     * @param <K> The type of the keys of the cache
+     * @param <V> The type of the values of the cache
+     */
+    @FunctionalInterface
+    public interface CacheLoader<K, V> {
+
+        /**
+         * Method used to load the value related to the key
+         *
+         * @param key The key of the value to load
+         * @return the loaded value as {@link V}
+         * @throws Exception when an error occurred during the loading
+         */
+        V load(K key) throws Exception;
+
+    }
+
+    /**
+     * The {@code EvictionListener} interface is used to be notified when a value leaves the cache
+     *
+     * @param <K> The type of the keys of the cache
+     * @param <V> The type of the values of the cache
+     */
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+
+        /**
+         * Method invoked when a value has been evicted or invalidated
+         *
+         * @param key   The key of the evicted value
+         * @param value The evicted value
+         */
+        void onEviction(K key, V value);
+
+    }
+
+    /**
+     * The {@code CacheStats} record class is the {@link DTO} used to share the counters of the cache
+     *
+     * @param hits      The number of the lookups served by the cache
+     * @param misses    The number of the lookups which required to load the value
+     * @param evictions The number of the values evicted due the size or the time-to-live limits
+     * @param size      The current number of values held by the cache
+     * @param maxSize   The max number of values the cache can hold
+     */
+    @DTO
+    public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+    }
+
+    /**
+     * The {@code CacheEntry} record class is used to keep a value with its insertion time
+     *
+     * @param value      The value cached
+     * @param insertedAt When the value has been inserted in the cache
+     * @param <V>        The type of the value
+     */
+    private record CacheEntry<V>(V value, long insertedAt) {
+    }
+
+    /**
+     * {@code entries} the values held by the cache, ordered from the least recently used
+     */
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    /**
+     * {@code maxSize} the max number of values the cache can hold
+     */
+    private final int maxSize;
+
+    /**
+     * {@code timeToLive} the time in milliseconds after which a value is considered expired
+     */
+    private final long timeToLive;
+
+    /**
+     * {@code evictionListener} the listener to notify when a value leaves the cache
+     */
+    private final EvictionListener<K, V> evictionListener;
+
+    /**
+     * {@code hits} the number of the lookups served by the cache
+     */
+    private final AtomicLong hits;
+
+    /**
+     * {@code misses} the number of the lookups which required to load the value
+     */
+    private final AtomicLong misses;
+
+    /**
+     * {@code evictions} the number of the values evicted due the size or the time-to-live limits
+     */
+    private final AtomicLong evictions;
+
+    /**
+     * Constructor to init the {@link BoundedCache} class
+     *
+     * @param maxSize    The max number of values the cache can hold
+     * @param timeToLive The time in milliseconds after which a value is considered expired
+     */
+    public BoundedCache(int maxSize, long timeToLive) {
+        this(maxSize, timeToLive, null);
+    }
+
+    /**
+     * Constructor to init the {@link BoundedCache} class
+     *
+     * @param maxSize          The max number of values the cache can hold
+     * @param timeToLive       The time in milliseconds after which a value is considered expired
+     * @param evictionListener The listener to notify when a value leaves the cache
+     */
+    public BoundedCache(int maxSize, long timeToLive, EvictionListener<K, V> evictionListener) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("The max size of the cache must be positive");
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.evictionListener = evictionListener;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        evictions = new AtomicLong();
+    }
+
+    /**
+     * Method used to get a cached value
+     *
+     * @param key The key of the value
+     * @return the cached value as {@link V}, null if not cached or expired
+     */
+    public V get(K key) {
+        V value = lookup(key);
+        if (value == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Method used to get a cached value or load and cache it if not available
+     *
+     * @param key    The key of the value
+     * @param loader The loader to use when the value is not cached
+     * @return the value as {@link V}
+     * @throws Exception when an error occurred during the loading
+     */
+    public V get(K key, CacheLoader<K, V> loader) throws Exception {
+        V value = lookup(key);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        value = loader.load(key);
+        if (value != null)
+            put(key, value);
+        return value;
+    }
+
+    /**
+     * Method used to lookup a value removing it if expired
+     *
+     * @param key The key of the value
+     * @return the cached value as {@link V}, null if not cached or expired
+     */
+    private V lookup(K key) {
+        CacheEntry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null)
+                return null;
+            if (!isExpired(entry, System.currentTimeMillis()))
+                return entry.value();
+            entries.remove(key);
+        }
+        evictions.incrementAndGet();
+        notifyEviction(key, entry.value());
+        return null;
+    }
+
+    /**
+     * Method used to cache a value
+     *
+     * @param key   The key of the value
+     * @param value The value to cache
+     */
+    public void put(K key, V value) {
+        CacheEntry<V> replaced;
+        Map<K, V> evicted = new LinkedHashMap<>();
+        synchronized (entries) {
+            replaced = entries.put(key, new CacheEntry<>(value, System.currentTimeMillis()));
+            Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                Map.Entry<K, CacheEntry<V>> eldest = iterator.next();
+                evicted.put(eldest.getKey(), eldest.getValue().value());
+                iterator.remove();
+            }
+        }
+        if (replaced != null && replaced.value() != value)
+            notifyEviction(key, replaced.value());
+        evictions.addAndGet(evicted.size());
+        evicted.forEach(this::notifyEviction);
+    }
+
+    /**
+     * Method used to remove a value from the cache
+     *
+     * @param key The key of the value to remove
+     */
+    public void invalidate(K key) {
+        CacheEntry<V> entry;
+        synchronized (entries) {
+            entry = entries.remove(key);
+        }
+        if (entry != null)
+            notifyEviction(key, entry.value());
+    }
+
+    /**
+     * Method used to remove all the values from the cache
+     */
+    public void invalidateAll() {
+        Map<K, V> invalidated = new LinkedHashMap<>();
+        synchronized (entries) {
+            entries.forEach((key, entry) -> invalidated.put(key, entry.value()));
+            entries.clear();
+        }
+        invalidated.forEach(this::notifyEviction);
+    }
+
+    /**
+     * Method used to remove all the expired values from the cache
+     */
+    public void evictExpired() {
+        Map<K, V> expired = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, CacheEntry<V>> entry = iterator.next();
+                if (isExpired(entry.getValue(), now)) {
+                    expired.put(entry.getKey(), entry.getValue().value());
+                    iterator.remove();
+                }
+            }
+        }
+        evictions.addAndGet(expired.size());
+        expired.forEach(this::notifyEviction);
+    }
+
+    /**
+     * Method used to check whether an entry is expired
+     *
+     * @param entry The entry to check
+     * @param now   The current timestamp
+     * @return whether the entry is expired as {@code boolean}
+     */
+    private boolean isExpired(CacheEntry<V> entry, long now) {
+        return timeToLive > 0 && now - entry.insertedAt() > timeToLive;
+    }
+
+    /**
+     * Method used to notify the {@link #evictionListener}, if set, about a value which left the cache
+     *
+     * @param key   The key of the value
+     * @param value The value left the cache
+     */
+    private void notifyEviction(K key, V value) {
+        if (evictionListener != null)
+            evictionListener.onEviction(key, value);
+    }
+
+    /**
+     * Method used to get the current number of values held by the cache
+     *
+     * @return the current number of values as {@code int}
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Method used to get the counters of the cache
+     *
+     * @return the counters of the cache as {@link CacheStats}
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), size(), maxSize);
+    }
+
+}
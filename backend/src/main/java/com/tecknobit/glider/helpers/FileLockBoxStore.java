@@ -0,0 +1,134 @@
+package com.tecknobit.glider.helpers;
+
+import kotlin.Pair;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper.COMMA;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The {@code FileLockBoxStore} class is used to store each lock box in its own text file, named as the lock box, which
+ * contains the secret key and the initialization vector separated by a comma
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class FileLockBoxStore implements LockBoxStore {
+
+    /**
+     * {@code TEMPORARY_LOCK_BOX_SUFFIX} the suffix of the temporary files written while a lock box is stored
+     */
+    private static final String TEMPORARY_LOCK_BOX_SUFFIX = ".tmp";
+
+    /**
+     * {@code DOT} the character never contained by the names of the lock boxes
+     */
+    private static final String DOT = ".";
+
+    /**
+     * {@code vaultFolder} the folder where the lock boxes are stored
+     */
+    private final File vaultFolder;
+
+    /**
+     * Constructor to init the store
+     *
+     * @param vaultFolder The folder where the lock boxes are stored
+     */
+    public FileLockBoxStore(File vaultFolder) {
+        this.vaultFolder = vaultFolder;
+    }
+
+    /**
+     * Method used to store a lock box, the returned lock box is persisted even if the application crashes. The lock
+     * box is written in a temporary file and then moved, so replacing an existing lock box never leaves it partial
+     *
+     * @param lockBoxName The name of the lock box
+     * @param secretKey   The wrapped secret key of the user encoded in Base64
+     * @param ivSpec      The initialization vector of the user encoded in Base64
+     * @throws IOException when an error occurred during the storing
+     */
+    @Override
+    public void storeLockBox(String lockBoxName, String secretKey, String ivSpec) throws IOException {
+        File temporaryLockBox = new File(vaultFolder, lockBoxName + TEMPORARY_LOCK_BOX_SUFFIX);
+        try (FileOutputStream lockBoxStream = new FileOutputStream(temporaryLockBox);
+             Writer lockBoxWriter = new OutputStreamWriter(lockBoxStream)) {
+            lockBoxWriter.write(secretKey);
+            lockBoxWriter.write(COMMA);
+            lockBoxWriter.write(ivSpec);
+            lockBoxWriter.flush();
+            lockBoxStream.getFD().sync();
+        }
+        Files.move(temporaryLockBox.toPath(), new File(vaultFolder, lockBoxName).toPath(), ATOMIC_MOVE,
+                REPLACE_EXISTING);
+    }
+
+    /**
+     * Method used to retrieve a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @return the secret key and the initialization vector encoded in Base64 as {@link Pair} of {@link String},
+     * {@code null} if the lock box does not exist
+     * @throws IOException when an error occurred during the retrieving
+     */
+    @Override
+    public Pair<String, String> retrieveLockBox(String lockBoxName) throws IOException {
+        File lockBox = new File(vaultFolder, lockBoxName);
+        if (!lockBox.exists())
+            return null;
+        return readLockBox(lockBox);
+    }
+
+    /**
+     * Method used to delete a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @return whether the lock box has been deleted as {@code boolean}
+     */
+    @Override
+    public boolean deleteLockBox(String lockBoxName) {
+        return new File(vaultFolder, lockBoxName).delete();
+    }
+
+    /**
+     * Method used to get the names of all the stored lock boxes, the other files of the vault folder, whose names
+     * always contain a dot, are skipped
+     *
+     * @return the names of the lock boxes as {@link Set} of {@link String}
+     */
+    @Override
+    public Set<String> getLockBoxesNames() {
+        Set<String> lockBoxesNames = new HashSet<>();
+        File[] lockBoxes = vaultFolder.listFiles(file -> file.isFile() && !file.getName().contains(DOT));
+        if (lockBoxes != null)
+            for (File lockBox : lockBoxes)
+                lockBoxesNames.add(lockBox.getName());
+        return lockBoxesNames;
+    }
+
+    /**
+     * Method used to close the store, the files do not keep any resource opened
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Method used to read the content of a lock box file
+     *
+     * @param lockBox The file of the lock box
+     * @return the secret key and the initialization vector encoded in Base64 as {@link Pair} of {@link String}
+     * @throws IOException when an error occurred during the reading
+     */
+    public static Pair<String, String> readLockBox(File lockBox) throws IOException {
+        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(lockBox))) {
+            String[] rawData = bufferedReader.readLine().split(COMMA);
+            return new Pair<>(rawData[0], rawData[1]);
+        }
+    }
+
+}
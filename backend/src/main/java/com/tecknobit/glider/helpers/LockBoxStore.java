@@ -0,0 +1,72 @@
+package com.tecknobit.glider.helpers;
+
+import kotlin.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * The {@code LockBoxStore} interface is used to persist the lock boxes of the users, each lock box holds the private
+ * key of a user, wrapped by the {@link MasterKey}, and is identified by the name computed by the {@link ServerVault}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public interface LockBoxStore extends Closeable {
+
+    /**
+     * {@code StoreType} the available implementations of the store
+     */
+    enum StoreType {
+
+        /**
+         * {@code FILE} each lock box is stored in its own text file, see {@link FileLockBoxStore}
+         */
+        FILE,
+
+        /**
+         * {@code MAPPED} all the lock boxes are stored as fixed size records of a single memory-mapped file, see
+         * {@link MappedLockBoxStore}
+         */
+        MAPPED
+
+    }
+
+    /**
+     * Method used to store a lock box, the returned lock box is persisted even if the application crashes
+     *
+     * @param lockBoxName The name of the lock box
+     * @param secretKey   The wrapped secret key of the user encoded in Base64
+     * @param ivSpec      The initialization vector of the user encoded in Base64
+     * @throws IOException when an error occurred during the storing
+     */
+    void storeLockBox(String lockBoxName, String secretKey, String ivSpec) throws IOException;
+
+    /**
+     * Method used to retrieve a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @return the secret key and the initialization vector encoded in Base64 as {@link Pair} of {@link String},
+     * {@code null} if the lock box does not exist
+     * @throws IOException when an error occurred during the retrieving
+     */
+    Pair<String, String> retrieveLockBox(String lockBoxName) throws IOException;
+
+    /**
+     * Method used to delete a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @return whether the lock box has been deleted as {@code boolean}
+     * @throws IOException when an error occurred during the deletion
+     */
+    boolean deleteLockBox(String lockBoxName) throws IOException;
+
+    /**
+     * Method used to get the names of all the stored lock boxes
+     *
+     * @return the names of the lock boxes as {@link Set} of {@link String}
+     * @throws IOException when an error occurred during the listing
+     */
+    Set<String> getLockBoxesNames() throws IOException;
+
+}
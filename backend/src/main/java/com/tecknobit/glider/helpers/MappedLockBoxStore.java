@@ -0,0 +1,652 @@
+package com.tecknobit.glider.helpers;
+
+import kotlin.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * The {@code MappedLockBoxStore} class is used to store all the lock boxes as fixed size binary records of a single
+ * memory-mapped file, so the vault does not need a file for each user. An in-memory index maps the name of each lock
+ * box to its record, the records of the deleted lock boxes are wiped and recycled by the next lock boxes stored. <br>
+ * Each record is protected by a checksum and a lock box is never overwritten in place: the new record is written and
+ * forced on disk before the previous one is released, so a crash leaves either the previous or the new lock box
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class MappedLockBoxStore implements LockBoxStore {
+
+    /**
+     * {@code STORE_MAGIC} the value which identifies the files of the store
+     */
+    private static final long STORE_MAGIC = 0x474C44524C4B4258L;
+
+    /**
+     * {@code STORE_VERSION} the version of the format of the records
+     */
+    private static final int STORE_VERSION = 1;
+
+    /**
+     * {@code RECORD_SIZE} the size in bytes of each record, the first record of the file is the header of the store
+     */
+    private static final int RECORD_SIZE = 128;
+
+    /**
+     * {@code SEGMENT_RECORDS} the number of the records of each mapped segment of the file
+     */
+    private static final int SEGMENT_RECORDS = 8192;
+
+    /**
+     * {@code SEGMENT_SIZE} the size in bytes of each mapped segment of the file
+     */
+    private static final int SEGMENT_SIZE = SEGMENT_RECORDS * RECORD_SIZE;
+
+    /**
+     * {@code MAX_NAME_LENGTH} the max length of the name of a lock box
+     */
+    private static final int MAX_NAME_LENGTH = 64;
+
+    /**
+     * {@code MAX_KEY_LENGTH} the max length in bytes of a secret key
+     */
+    private static final int MAX_KEY_LENGTH = 32;
+
+    /**
+     * {@code IV_LENGTH} the length in bytes of an initialization vector
+     */
+    private static final int IV_LENGTH = 16;
+
+    /**
+     * {@code USED_RECORD} the state of a record used by a lock box, the free records are filled with zeros
+     */
+    private static final byte USED_RECORD = 1;
+
+    /**
+     * {@code NAME_LENGTH_OFFSET} the offset of the length of the name in a record
+     */
+    private static final int NAME_LENGTH_OFFSET = 1;
+
+    /**
+     * {@code NAME_OFFSET} the offset of the name in a record
+     */
+    private static final int NAME_OFFSET = NAME_LENGTH_OFFSET + 1;
+
+    /**
+     * {@code KEY_LENGTH_OFFSET} the offset of the length of the secret key in a record
+     */
+    private static final int KEY_LENGTH_OFFSET = NAME_OFFSET + MAX_NAME_LENGTH;
+
+    /**
+     * {@code KEY_OFFSET} the offset of the secret key in a record
+     */
+    private static final int KEY_OFFSET = KEY_LENGTH_OFFSET + 1;
+
+    /**
+     * {@code IV_OFFSET} the offset of the initialization vector in a record
+     */
+    private static final int IV_OFFSET = KEY_OFFSET + MAX_KEY_LENGTH;
+
+    /**
+     * {@code SEQUENCE_OFFSET} the offset of the sequence number in a record, used to pick the newest record when a
+     * crash left two records of the same lock box
+     */
+    private static final int SEQUENCE_OFFSET = IV_OFFSET + IV_LENGTH;
+
+    /**
+     * {@code CHECKSUM_OFFSET} the offset of the checksum in a record
+     */
+    private static final int CHECKSUM_OFFSET = SEQUENCE_OFFSET + Long.BYTES;
+
+    /**
+     * {@code LOCK_BOX_NAME_SEPARATOR} the character never contained by the names of the lock boxes, used to skip the
+     * other files of the vault folder during the import
+     */
+    private static final char LOCK_BOX_NAME_SEPARATOR = '.';
+
+    /**
+     * {@code storeFile} the file of the store
+     */
+    private final File storeFile;
+
+    /**
+     * {@code channel} the channel of the {@link #storeFile}
+     */
+    private final FileChannel channel;
+
+    /**
+     * {@code fileLock} the lock which prevents other processes to open the same store
+     */
+    private final FileLock fileLock;
+
+    /**
+     * {@code segments} the mapped segments of the {@link #storeFile}
+     */
+    private final List<MappedByteBuffer> segments;
+
+    /**
+     * {@code index} the slot of the record of each lock box
+     */
+    private final Map<String, Integer> index;
+
+    /**
+     * {@code freeSlots} the slots of the records not used by any lock box
+     */
+    private final Deque<Integer> freeSlots;
+
+    /**
+     * {@code lock} the lock which guards the records and the {@link #index}
+     */
+    private final ReentrantReadWriteLock lock;
+
+    /**
+     * {@code sequence} the sequence number of the last record written
+     */
+    private long sequence;
+
+    /**
+     * Constructor to open the store, creating it if not exists
+     *
+     * @param storeFile The file of the store
+     * @throws IOException when an error occurred during the opening
+     */
+    public MappedLockBoxStore(File storeFile) throws IOException {
+        this.storeFile = storeFile;
+        File parentFolder = storeFile.getAbsoluteFile().getParentFile();
+        if (parentFolder != null)
+            parentFolder.mkdirs();
+        channel = FileChannel.open(storeFile.toPath(), CREATE, READ, WRITE);
+        try {
+            FileLock storeLock;
+            try {
+                storeLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                storeLock = null;
+            }
+            fileLock = storeLock;
+            if (fileLock == null)
+                throw new IOException("The lock box store is already opened by another process");
+            segments = new ArrayList<>();
+            index = new HashMap<>();
+            freeSlots = new ArrayDeque<>();
+            lock = new ReentrantReadWriteLock();
+            loadStore();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method used to map the segments of the store, validate its header and build the {@link #index}
+     *
+     * @throws IOException when the file is not a valid store
+     */
+    private void loadStore() throws IOException {
+        long storeSize = channel.size();
+        if (storeSize == 0) {
+            MappedByteBuffer header = mapSegment();
+            header.putLong(0, STORE_MAGIC);
+            header.putInt(Long.BYTES, STORE_VERSION);
+            header.putInt(Long.BYTES + Integer.BYTES, RECORD_SIZE);
+            header.force(0, RECORD_SIZE);
+            addSegmentSlots(0);
+            return;
+        }
+        long segmentsCount = (storeSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        for (long j = 0; j < segmentsCount; j++)
+            mapSegment();
+        MappedByteBuffer header = segments.get(0);
+        if (header.getLong(0) != STORE_MAGIC || header.getInt(Long.BYTES) != STORE_VERSION
+                || header.getInt(Long.BYTES + Integer.BYTES) != RECORD_SIZE)
+            throw new IOException("The file " + storeFile + " is not a valid lock box store");
+        Map<String, Long> sequences = new HashMap<>();
+        byte[] record = new byte[RECORD_SIZE];
+        int slotsCount = getSlotsCount();
+        for (int slot = 0; slot < slotsCount; slot++) {
+            readRecord(slot, record);
+            if (record[0] != USED_RECORD)
+                continue;
+            if (!isValidRecord(record)) {
+                wipeRecord(slot);
+                continue;
+            }
+            String lockBoxName = new String(record, NAME_OFFSET, record[NAME_LENGTH_OFFSET], US_ASCII);
+            long recordSequence = readLong(record, SEQUENCE_OFFSET);
+            sequence = Math.max(sequence, recordSequence);
+            Integer previousSlot = index.get(lockBoxName);
+            if (previousSlot != null) {
+                if (sequences.get(lockBoxName) > recordSequence) {
+                    wipeRecord(slot);
+                    continue;
+                }
+                wipeRecord(previousSlot);
+            }
+            index.put(lockBoxName, slot);
+            sequences.put(lockBoxName, recordSequence);
+        }
+        Set<Integer> usedSlots = new HashSet<>(index.values());
+        for (int slot = 0; slot < slotsCount; slot++)
+            if (!usedSlots.contains(slot))
+                freeSlots.addLast(slot);
+        channel.force(false);
+    }
+
+    /**
+     * Method used to store a lock box, the returned lock box is persisted even if the application crashes
+     *
+     * @param lockBoxName The name of the lock box
+     * @param secretKey   The wrapped secret key of the user encoded in Base64
+     * @param ivSpec      The initialization vector of the user encoded in Base64
+     * @throws IOException when an error occurred during the storing
+     */
+    @Override
+    public void storeLockBox(String lockBoxName, String secretKey, String ivSpec) throws IOException {
+        byte[] record = createRecord(lockBoxName, secretKey, ivSpec);
+        lock.writeLock().lock();
+        try {
+            putRecord(lockBoxName, record, true);
+        } finally {
+            lock.writeLock().unlock();
+            Arrays.fill(record, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to retrieve a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @return the secret key and the initialization vector encoded in Base64 as {@link Pair} of {@link String},
+     * {@code null} if the lock box does not exist
+     * @throws IOException when the record of the lock box is corrupted
+     */
+    @Override
+    public Pair<String, String> retrieveLockBox(String lockBoxName) throws IOException {
+        byte[] record = new byte[RECORD_SIZE];
+        lock.readLock().lock();
+        try {
+            Integer slot = index.get(lockBoxName);
+            if (slot == null)
+                return null;
+            readRecord(slot, record);
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            if (!isValidRecord(record))
+                throw new IOException("The record of the lock box is corrupted");
+            Base64.Encoder encoder = Base64.getEncoder();
+            byte[] secretKey = Arrays.copyOfRange(record, KEY_OFFSET, KEY_OFFSET + record[KEY_LENGTH_OFFSET]);
+            byte[] ivSpec = Arrays.copyOfRange(record, IV_OFFSET, IV_OFFSET + IV_LENGTH);
+            Pair<String, String> privateKey = new Pair<>(encoder.encodeToString(secretKey),
+                    encoder.encodeToString(ivSpec));
+            Arrays.fill(secretKey, (byte) 0);
+            Arrays.fill(ivSpec, (byte) 0);
+            return privateKey;
+        } finally {
+            Arrays.fill(record, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to delete a lock box, its record is wiped and recycled by the next lock box stored
+     *
+     * @param lockBoxName The name of the lock box
+     * @return whether the lock box has been deleted as {@code boolean}
+     */
+    @Override
+    public boolean deleteLockBox(String lockBoxName) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = index.remove(lockBoxName);
+            if (slot == null)
+                return false;
+            wipeRecord(slot);
+            freeSlots.addFirst(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method used to import the lock boxes stored one per file by the {@link FileLockBoxStore}. The imported files are
+     * deleted only after all the records have been forced on disk, so an interrupted import can be safely repeated: the
+     * files of the lock boxes already stored are deleted just when their content is equal to the stored record
+     *
+     * @param vaultFolder The folder of the lock box files
+     * @return the number of the imported lock boxes as {@code int}
+     * @throws IOException when an error occurred during the import or a lock box is already stored with a different
+     * content, in this case no file is deleted
+     */
+    public int importLockBoxes(File vaultFolder) throws IOException {
+        File[] lockBoxes = vaultFolder.listFiles(file -> file.isFile()
+                && file.getName().indexOf(LOCK_BOX_NAME_SEPARATOR) < 0);
+        if (lockBoxes == null || lockBoxes.length == 0)
+            return 0;
+        int importedLockBoxes = 0;
+        lock.writeLock().lock();
+        try {
+            for (File lockBox : lockBoxes) {
+                String lockBoxName = lockBox.getName();
+                Pair<String, String> privateKey = FileLockBoxStore.readLockBox(lockBox);
+                byte[] record = createRecord(lockBoxName, privateKey.getFirst(), privateKey.getSecond());
+                try {
+                    Integer slot = index.get(lockBoxName);
+                    if (slot == null) {
+                        putRecord(lockBoxName, record, false);
+                        importedLockBoxes++;
+                    } else if (!hasSameContent(slot, record))
+                        throw new IOException("The lock box " + lockBoxName + " is already stored with a different " +
+                                "content");
+                } finally {
+                    Arrays.fill(record, (byte) 0);
+                }
+            }
+            for (MappedByteBuffer segment : segments)
+                segment.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (File lockBox : lockBoxes)
+            lockBox.delete();
+        return importedLockBoxes;
+    }
+
+    /**
+     * Method used to check whether a stored record has the same content of a new record. Must be invoked holding the
+     * lock
+     *
+     * @param slot   The slot of the stored record
+     * @param record The new record, without the sequence number and the checksum
+     * @return whether the records have the same name, key and initialization vector as {@code boolean}
+     */
+    private boolean hasSameContent(int slot, byte[] record) {
+        byte[] storedRecord = new byte[RECORD_SIZE];
+        try {
+            readRecord(slot, storedRecord);
+            return isValidRecord(storedRecord)
+                    && Arrays.equals(storedRecord, 0, SEQUENCE_OFFSET, record, 0, SEQUENCE_OFFSET);
+        } finally {
+            Arrays.fill(storedRecord, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to get the number of the stored lock boxes
+     *
+     * @return the number of the stored lock boxes as {@code int}
+     */
+    public int getLockBoxesCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method used to get the names of all the stored lock boxes
+     *
+     * @return the names of the lock boxes as {@link Set} of {@link String}
+     */
+    @Override
+    public Set<String> getLockBoxesNames() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Method used to force the pending changes on disk and close the store
+     *
+     * @throws IOException when an error occurred during the closing
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer segment : segments)
+                segment.force();
+            fileLock.release();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method used to write the record of a lock box in a free slot and then release the slot of its previous record,
+     * if any. Must be invoked holding the write lock
+     *
+     * @param lockBoxName The name of the lock box
+     * @param record      The record to write, without the sequence number and the checksum
+     * @param force       Whether force the record on disk before releasing the previous one
+     * @throws IOException when an error occurred during the writing
+     */
+    private void putRecord(String lockBoxName, byte[] record, boolean force) throws IOException {
+        if (freeSlots.isEmpty())
+            addSegment();
+        int slot = freeSlots.pollFirst();
+        writeLong(record, SEQUENCE_OFFSET, ++sequence);
+        CRC32 checksum = new CRC32();
+        checksum.update(record, 0, CHECKSUM_OFFSET);
+        writeInt(record, CHECKSUM_OFFSET, (int) checksum.getValue());
+        MappedByteBuffer segment = getSegment(slot);
+        int recordOffset = getRecordOffset(slot);
+        segment.put(recordOffset, record);
+        if (force)
+            segment.force(recordOffset, RECORD_SIZE);
+        Integer previousSlot = index.put(lockBoxName, slot);
+        if (previousSlot != null) {
+            wipeRecord(previousSlot);
+            freeSlots.addFirst(previousSlot);
+        }
+    }
+
+    /**
+     * Method used to create the record of a lock box
+     *
+     * @param lockBoxName The name of the lock box
+     * @param secretKey   The wrapped secret key of the user encoded in Base64
+     * @param ivSpec      The initialization vector of the user encoded in Base64
+     * @return the record without the sequence number and the checksum as array of {@code byte}
+     */
+    private byte[] createRecord(String lockBoxName, String secretKey, String ivSpec) {
+        byte[] name = lockBoxName.getBytes(US_ASCII);
+        if (name.length > MAX_NAME_LENGTH)
+            throw new IllegalArgumentException("The name of the lock box is too long");
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] key = decoder.decode(secretKey);
+        byte[] iv = decoder.decode(ivSpec);
+        try {
+            if (key.length > MAX_KEY_LENGTH || iv.length != IV_LENGTH)
+                throw new IllegalArgumentException("The private key has an unsupported size");
+            byte[] record = new byte[RECORD_SIZE];
+            record[0] = USED_RECORD;
+            record[NAME_LENGTH_OFFSET] = (byte) name.length;
+            System.arraycopy(name, 0, record, NAME_OFFSET, name.length);
+            record[KEY_LENGTH_OFFSET] = (byte) key.length;
+            System.arraycopy(key, 0, record, KEY_OFFSET, key.length);
+            System.arraycopy(iv, 0, record, IV_OFFSET, IV_LENGTH);
+            return record;
+        } finally {
+            Arrays.fill(key, (byte) 0);
+            Arrays.fill(iv, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to check whether a record is complete and not corrupted
+     *
+     * @param record The record to check
+     * @return whether the record is valid as {@code boolean}
+     */
+    private boolean isValidRecord(byte[] record) {
+        if (record[0] != USED_RECORD)
+            return false;
+        int nameLength = record[NAME_LENGTH_OFFSET];
+        int keyLength = record[KEY_LENGTH_OFFSET];
+        if (nameLength <= 0 || nameLength > MAX_NAME_LENGTH || keyLength <= 0 || keyLength > MAX_KEY_LENGTH)
+            return false;
+        CRC32 checksum = new CRC32();
+        checksum.update(record, 0, CHECKSUM_OFFSET);
+        return (int) checksum.getValue() == readInt(record, CHECKSUM_OFFSET);
+    }
+
+    /**
+     * Method used to read a record
+     *
+     * @param slot   The slot of the record
+     * @param record The array where read the record
+     */
+    private void readRecord(int slot, byte[] record) {
+        getSegment(slot).get(getRecordOffset(slot), record);
+    }
+
+    /**
+     * Method used to wipe a record, erasing the key it held, and force it on disk
+     *
+     * @param slot The slot of the record
+     */
+    private void wipeRecord(int slot) {
+        MappedByteBuffer segment = getSegment(slot);
+        int recordOffset = getRecordOffset(slot);
+        segment.put(recordOffset, new byte[RECORD_SIZE]);
+        segment.force(recordOffset, RECORD_SIZE);
+    }
+
+    /**
+     * Method used to extend the store with a new segment and add its slots to the {@link #freeSlots}
+     *
+     * @throws IOException when an error occurred during the mapping
+     */
+    private void addSegment() throws IOException {
+        int firstSlot = getSlotsCount();
+        mapSegment();
+        addSegmentSlots(firstSlot);
+    }
+
+    /**
+     * Method used to add to the {@link #freeSlots} the slots of the last mapped segment
+     *
+     * @param firstSlot The first slot of the segment
+     */
+    private void addSegmentSlots(int firstSlot) {
+        int slotsCount = getSlotsCount();
+        for (int slot = firstSlot; slot < slotsCount; slot++)
+            freeSlots.addLast(slot);
+    }
+
+    /**
+     * Method used to map the next segment of the {@link #storeFile}, extending the file when needed
+     *
+     * @return the mapped segment as {@link MappedByteBuffer}
+     * @throws IOException when an error occurred during the mapping
+     */
+    private MappedByteBuffer mapSegment() throws IOException {
+        MappedByteBuffer segment = channel.map(READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE);
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Method used to get the number of the slots of the mapped segments, the header excluded
+     *
+     * @return the number of the slots as {@code int}
+     */
+    private int getSlotsCount() {
+        return segments.size() * SEGMENT_RECORDS - 1;
+    }
+
+    /**
+     * Method used to get the segment which contains a slot
+     *
+     * @param slot The slot of the record
+     * @return the segment as {@link MappedByteBuffer}
+     */
+    private MappedByteBuffer getSegment(int slot) {
+        return segments.get((slot + 1) / SEGMENT_RECORDS);
+    }
+
+    /**
+     * Method used to get the offset of a slot inside its segment
+     *
+     * @param slot The slot of the record
+     * @return the offset as {@code int}
+     */
+    private int getRecordOffset(int slot) {
+        return ((slot + 1) % SEGMENT_RECORDS) * RECORD_SIZE;
+    }
+
+    /**
+     * Method used to read a big-endian {@code long} from a record
+     *
+     * @param record The record to read
+     * @param offset The offset of the value
+     * @return the value as {@code long}
+     */
+    private static long readLong(byte[] record, int offset) {
+        long value = 0;
+        for (int j = 0; j < Long.BYTES; j++)
+            value = (value << 8) | (record[offset + j] & 0xFF);
+        return value;
+    }
+
+    /**
+     * Method used to write a big-endian {@code long} in a record
+     *
+     * @param record The record to write
+     * @param offset The offset of the value
+     * @param value  The value to write
+     */
+    private static void writeLong(byte[] record, int offset, long value) {
+        for (int j = Long.BYTES - 1; j >= 0; j--) {
+            record[offset + j] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Method used to read a big-endian {@code int} from a record
+     *
+     * @param record The record to read
+     * @param offset The offset of the value
+     * @return the value as {@code int}
+     */
+    private static int readInt(byte[] record, int offset) {
+        int value = 0;
+        for (int j = 0; j < Integer.BYTES; j++)
+            value = (value << 8) | (record[offset + j] & 0xFF);
+        return value;
+    }
+
+    /**
+     * Method used to write a big-endian {@code int} in a record
+     *
+     * @param record The record to write
+     * @param offset The offset of the value
+     * @param value  The value to write
+     */
+    private static void writeInt(byte[] record, int offset, int value) {
+        for (int j = Integer.BYTES - 1; j >= 0; j--) {
+            record[offset + j] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+}
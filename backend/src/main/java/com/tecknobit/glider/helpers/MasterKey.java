@@ -0,0 +1,196 @@
+package com.tecknobit.glider.helpers;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.KeyStore.PasswordProtection;
+import java.security.KeyStore.SecretKeyEntry;
+import java.security.KeyStoreException;
+import java.util.Arrays;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The {@code MasterKey} class is used to wrap the private keys of the users before they are stored in the lock boxes,
+ * so the lock boxes never expose the raw keys. The master key is loaded once from a PKCS12 keystore and held by a
+ * single {@link SecretKeySpec}, created at the load and kept for the whole lifetime of the process: the wrapping and
+ * the unwrapping reuse it, so no other copy of the master key is created on the heap. That copy cannot be wiped, the
+ * {@link #destroy()} method just releases it
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class MasterKey {
+
+    /**
+     * {@code KEYSTORE_TYPE} the type of the keystore which holds the master key
+     */
+    private static final String KEYSTORE_TYPE = "PKCS12";
+
+    /**
+     * {@code KEY_ALGORITHM} the algorithm of the master key
+     */
+    private static final String KEY_ALGORITHM = "AES";
+
+    /**
+     * {@code KEY_SIZE} the size in bits of the master key
+     */
+    private static final int KEY_SIZE = 256;
+
+    /**
+     * {@code WRAP_TRANSFORMATION} the transformation used to wrap the keys, the AES key wrap of the RFC 3394 which
+     * also verifies the integrity of the wrapped keys
+     */
+    private static final String WRAP_TRANSFORMATION = "AES/KW/NoPadding";
+
+    /**
+     * {@code KEYSTORE_PERMISSIONS} the permissions of the keystore files created, readable just by the owner
+     */
+    private static final String KEYSTORE_PERMISSIONS = "rw-------";
+
+    /**
+     * {@code WRAPPED_KEY_OVERHEAD} the number of bytes added by the wrapping to the size of a key
+     */
+    public static final int WRAPPED_KEY_OVERHEAD = 8;
+
+    /**
+     * {@code secretKey} the specification of the master key, {@code null} when the master key has been destroyed
+     */
+    private volatile SecretKeySpec secretKey;
+
+    /**
+     * Constructor to init the master key, the specified material is copied, so it can be wiped by the caller
+     *
+     * @param secretKey The material of the master key
+     */
+    private MasterKey(byte[] secretKey) {
+        this.secretKey = new SecretKeySpec(secretKey, KEY_ALGORITHM);
+    }
+
+    /**
+     * Method used to load the master key from its keystore
+     *
+     * @param keystore        The file of the keystore
+     * @param password        The password of the keystore and of its entry
+     * @param alias           The alias of the entry of the master key
+     * @param createIfMissing Whether create the keystore with a new master key when it does not exist
+     * @return the master key as {@link MasterKey}
+     * @throws IOException              when the keystore cannot be read or created
+     * @throws GeneralSecurityException when the keystore does not contain a valid master key
+     */
+    public static MasterKey load(File keystore, char[] password, String alias,
+                                 boolean createIfMissing) throws IOException, GeneralSecurityException {
+        if (!keystore.exists()) {
+            if (!createIfMissing)
+                throw new FileNotFoundException("The keystore of the master key does not exist");
+            createKeystore(keystore, password, alias);
+        }
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        try (InputStream keystoreStream = new FileInputStream(keystore)) {
+            keyStore.load(keystoreStream, password);
+        }
+        KeyStore.Entry entry = keyStore.getEntry(alias, new PasswordProtection(password));
+        if (!(entry instanceof SecretKeyEntry secretKeyEntry))
+            throw new KeyStoreException("The keystore does not contain the master key " + alias);
+        byte[] secretKey = secretKeyEntry.getSecretKey().getEncoded();
+        try {
+            return new MasterKey(secretKey);
+        } finally {
+            Arrays.fill(secretKey, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to create a keystore with a new master key, the keystore is written in a temporary file and then
+     * moved, so an interrupted creation never leaves a partial keystore
+     *
+     * @param keystore The file of the keystore
+     * @param password The password of the keystore and of its entry
+     * @param alias    The alias of the entry of the master key
+     * @throws IOException              when the keystore cannot be written
+     * @throws GeneralSecurityException when the master key cannot be created
+     */
+    private static void createKeystore(File keystore, char[] password,
+                                       String alias) throws IOException, GeneralSecurityException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance(KEY_ALGORITHM);
+        keyGenerator.init(KEY_SIZE);
+        SecretKey masterKey = keyGenerator.generateKey();
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        keyStore.load(null, password);
+        keyStore.setEntry(alias, new SecretKeyEntry(masterKey), new PasswordProtection(password));
+        Path keystorePath = keystore.toPath().toAbsolutePath();
+        Files.createDirectories(keystorePath.getParent());
+        Path temporaryKeystore = keystorePath.resolveSibling(keystorePath.getFileName() + ".tmp");
+        try (FileOutputStream keystoreStream = new FileOutputStream(temporaryKeystore.toFile())) {
+            restrictPermissions(temporaryKeystore);
+            keyStore.store(keystoreStream, password);
+            keystoreStream.getFD().sync();
+        }
+        Files.move(temporaryKeystore, keystorePath, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /**
+     * Method used to make a file readable just by its owner, when the file system supports the POSIX permissions
+     *
+     * @param file The file to restrict
+     * @throws IOException when the permissions cannot be changed
+     */
+    private static void restrictPermissions(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString(KEYSTORE_PERMISSIONS));
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    /**
+     * Method used to wrap a key with the master key
+     *
+     * @param key The raw key to wrap
+     * @return the wrapped key as array of {@code byte}
+     * @throws GeneralSecurityException when an error occurred during the wrapping
+     */
+    public byte[] wrapKey(byte[] key) throws GeneralSecurityException {
+        return createCipher(Cipher.ENCRYPT_MODE).doFinal(key);
+    }
+
+    /**
+     * Method used to unwrap a key wrapped with the master key, the caller must wipe the raw key after the use
+     *
+     * @param wrappedKey The wrapped key
+     * @return the raw key as array of {@code byte}
+     * @throws GeneralSecurityException when the key has not been wrapped with this master key or has been altered
+     */
+    public byte[] unwrapKey(byte[] wrappedKey) throws GeneralSecurityException {
+        return createCipher(Cipher.DECRYPT_MODE).doFinal(wrappedKey);
+    }
+
+    /**
+     * Method used to create a cipher initialized with the master key
+     *
+     * @param mode The mode of the cipher
+     * @return the cipher as {@link Cipher}
+     * @throws GeneralSecurityException when the cipher cannot be created or the master key has been destroyed
+     */
+    private Cipher createCipher(int mode) throws GeneralSecurityException {
+        SecretKeySpec masterKey = secretKey;
+        if (masterKey == null)
+            throw new GeneralSecurityException("The master key has been destroyed");
+        Cipher cipher = Cipher.getInstance(WRAP_TRANSFORMATION);
+        cipher.init(mode, masterKey);
+        return cipher;
+    }
+
+    /**
+     * Method used to destroy the master key, releasing its specification so it cannot be used anymore
+     */
+    public void destroy() {
+        secretKey = null;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.tecknobit.glider.helpers;
+
+import javax.security.auth.Destroyable;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The {@code OffHeapSecretKey} class is used to keep the material of a secret key outside the heap, so it is not
+ * copied around by the garbage collector and can be wiped as soon as the key is no longer needed. The material is
+ * wiped by the {@link #destroy()} method or, at the latest, when the key becomes unreachable
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public final class OffHeapSecretKey implements Destroyable {
+
+    /**
+     * {@code KEYS_WIPER} the cleaner which wipes the material of the keys no longer reachable
+     */
+    private static final Cleaner KEYS_WIPER = Cleaner.create();
+
+    /**
+     * {@code keyMaterial} the direct buffer which holds the material of the key
+     */
+    private final ByteBuffer keyMaterial;
+
+    /**
+     * {@code wiping} the action which wipes the {@link #keyMaterial}, executed just once
+     */
+    private final Cleaner.Cleanable wiping;
+
+    /**
+     * {@code lock} the lock which prevents to read the material while it is being wiped
+     */
+    private final StampedLock lock;
+
+    /**
+     * {@code destroyed} whether the key has been destroyed
+     */
+    private volatile boolean destroyed;
+
+    /**
+     * Constructor to init the key, the specified material is copied, so it can be wiped by the caller
+     *
+     * @param key The material of the key
+     */
+    public OffHeapSecretKey(byte[] key) {
+        keyMaterial = ByteBuffer.allocateDirect(key.length);
+        keyMaterial.put(0, key);
+        wiping = KEYS_WIPER.register(this, new KeyWiper(keyMaterial));
+        lock = new StampedLock();
+    }
+
+    /**
+     * Method used to get a copy of the material of the key, the caller must wipe it after the use
+     *
+     * @return the material of the key as array of {@code byte}, {@code null} if the key has been destroyed
+     */
+    public byte[] getEncoded() {
+        byte[] key = new byte[keyMaterial.capacity()];
+        long stamp = lock.tryOptimisticRead();
+        if (!destroyed) {
+            keyMaterial.get(0, key);
+            if (lock.validate(stamp))
+                return key;
+        }
+        stamp = lock.readLock();
+        try {
+            if (destroyed) {
+                Arrays.fill(key, (byte) 0);
+                return null;
+            }
+            keyMaterial.get(0, key);
+            return key;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Method used to destroy the key wiping its material
+     */
+    @Override
+    public void destroy() {
+        long stamp = lock.writeLock();
+        try {
+            destroyed = true;
+            wiping.clean();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Method used to check whether the key has been destroyed
+     *
+     * @return whether the key has been destroyed as {@code boolean}
+     */
+    @Override
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * The {@code KeyWiper} record class is the action used to wipe the material of a key, it must not reference the
+     * key itself, otherwise the key would never become unreachable
+     *
+     * @param keyMaterial The direct buffer which holds the material of the key
+     */
+    private record KeyWiper(ByteBuffer keyMaterial) implements Runnable {
+
+        /**
+         * Method used to fill the material with zeros
+         */
+        @Override
+        public void run() {
+            for (int j = 0; j < keyMaterial.capacity(); j++)
+                keyMaterial.put(j, (byte) 0);
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.tecknobit.glider.helpers;
+
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.security.DrbgParameters.Capability.RESEED_ONLY;
+
+/**
+ * The {@code RandomnessProvider} class is used to provide the {@link SecureRandom} instances used to generate the
+ * passwords, following the {@link RandomnessMode} configured
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class RandomnessProvider {
+
+    /**
+     * {@code RandomnessMode} the available strategies to provide the {@link SecureRandom} instances
+     */
+    public enum RandomnessMode {
+
+        /**
+         * {@code PLATFORM} a new instance of the platform default {@link SecureRandom} is created for each request
+         */
+        PLATFORM,
+
+        /**
+         * {@code THREAD_LOCAL} each thread owns its own instance of the platform default {@link SecureRandom}, seeded
+         * only once when the thread requests it for the first time
+         */
+        THREAD_LOCAL,
+
+        /**
+         * {@code POOLED_DRBG} a fixed pool of DRBG instances shared by all the threads, each instance is periodically
+         * reseeded
+         */
+        POOLED_DRBG
+
+    }
+
+    /**
+     * {@code DRBG_ALGORITHM} the algorithm of the deterministic random bits generators
+     */
+    private static final String DRBG_ALGORITHM = "DRBG";
+
+    /**
+     * {@code DRBG_STRENGTH} the security strength of the deterministic random bits generators
+     */
+    private static final int DRBG_STRENGTH = 256;
+
+    /**
+     * {@code DEFAULT_MODE} the default mode used to provide the instances
+     */
+    public static final RandomnessMode DEFAULT_MODE = RandomnessMode.THREAD_LOCAL;
+
+    /**
+     * {@code DEFAULT_POOL_SIZE} the default size of the pool used by the {@link RandomnessMode#POOLED_DRBG} mode
+     */
+    public static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * {@code DEFAULT_RESEED_INTERVAL} the default time in milliseconds after which an instance of the pool is reseeded
+     */
+    public static final long DEFAULT_RESEED_INTERVAL = 60 * 60 * 1000;
+
+    /**
+     * {@code provider} the singleton instance of the provider
+     */
+    private static final RandomnessProvider provider = new RandomnessProvider();
+
+    /**
+     * {@code threadRandoms} the instances owned by each thread for the {@link RandomnessMode#THREAD_LOCAL} mode
+     */
+    private static final ThreadLocal<SecureRandom> threadRandoms = ThreadLocal.withInitial(SecureRandom::new);
+
+    /**
+     * {@code mode} the mode currently used to provide the instances
+     */
+    private volatile RandomnessMode mode;
+
+    /**
+     * {@code pool} the pool of the instances for the {@link RandomnessMode#POOLED_DRBG} mode
+     */
+    private volatile PooledRandom[] pool;
+
+    /**
+     * {@code reseedInterval} the time in milliseconds after which an instance of the pool is reseeded
+     */
+    private volatile long reseedInterval;
+
+    /**
+     * Constructor to instantiate the object
+     */
+    private RandomnessProvider() {
+        configure(DEFAULT_MODE, DEFAULT_POOL_SIZE, DEFAULT_RESEED_INTERVAL);
+    }
+
+    /**
+     * Method used to configure the provider
+     *
+     * @param mode           The mode to use to provide the instances
+     * @param poolSize       The size of the pool used by the {@link RandomnessMode#POOLED_DRBG} mode
+     * @param reseedInterval The time in milliseconds after which an instance of the pool is reseeded
+     */
+    public void configure(RandomnessMode mode, int poolSize, long reseedInterval) {
+        if (poolSize <= 0)
+            throw new IllegalArgumentException("The pool size must be positive");
+        this.reseedInterval = reseedInterval;
+        if (mode == RandomnessMode.POOLED_DRBG) {
+            PooledRandom[] pool = new PooledRandom[poolSize];
+            for (int j = 0; j < poolSize; j++)
+                pool[j] = new PooledRandom(createDrbg(), new AtomicLong(System.currentTimeMillis()));
+            this.pool = pool;
+        } else
+            pool = null;
+        this.mode = mode;
+    }
+
+    /**
+     * Method used to get the instance to use to generate random values
+     *
+     * @return the instance as {@link SecureRandom}
+     */
+    public SecureRandom getSecureRandom() {
+        return switch (mode) {
+            case PLATFORM -> new SecureRandom();
+            case THREAD_LOCAL -> threadRandoms.get();
+            case POOLED_DRBG -> getPooledRandom();
+        };
+    }
+
+    /**
+     * Method used to get an instance from the pool, reseeding it when the {@link #reseedInterval} is elapsed
+     *
+     * @return the instance as {@link SecureRandom}
+     */
+    private SecureRandom getPooledRandom() {
+        PooledRandom[] currentPool = pool;
+        PooledRandom pooledRandom = currentPool[ThreadLocalRandom.current().nextInt(currentPool.length)];
+        long lastReseed = pooledRandom.lastReseed().get();
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastReseed >= reseedInterval
+                && pooledRandom.lastReseed().compareAndSet(lastReseed, currentTime)) {
+            pooledRandom.secureRandom().reseed();
+        }
+        return pooledRandom.secureRandom();
+    }
+
+    /**
+     * Method used to get the mode currently used to provide the instances
+     *
+     * @return the mode as {@link RandomnessMode}
+     */
+    public RandomnessMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Method used to create a new DRBG instance seeded by the platform entropy source
+     *
+     * @return the instance as {@link SecureRandom}
+     */
+    private static SecureRandom createDrbg() {
+        try {
+            return SecureRandom.getInstance(DRBG_ALGORITHM, DrbgParameters.instantiation(DRBG_STRENGTH, RESEED_ONLY,
+                    null));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Method used to obtain the instance of the provider
+     *
+     * @return the provider instance as {@link RandomnessProvider}
+     */
+    public static RandomnessProvider getInstance() {
+        return provider;
+    }
+
+    /**
+     * The {@code PooledRandom} record class is used to keep an instance of the pool with the time of its last reseed
+     *
+     * @param secureRandom The instance of the pool
+     * @param lastReseed   The time of the last reseed of the instance
+     */
+    private record PooledRandom(SecureRandom secureRandom, AtomicLong lastReseed) {
+    }
+
+}
@@ -4,27 +4,43 @@ import com.tecknobit.apimanager.apis.APIRequest;
 import com.tecknobit.apimanager.apis.encryption.aes.AESServerCipher;
 import com.tecknobit.equinoxcore.annotations.FutureEquinoxApi;
 import com.tecknobit.equinoxcore.annotations.Wrapper;
+import com.tecknobit.glider.helpers.LockBoxStore.StoreType;
 import com.tecknobit.glider.services.passwords.entities.Password;
-import com.tecknobit.glidercore.enums.PasswordType;
+import com.tecknobit.glidercore.enums.KeychainView;
 import kotlin.Pair;
 import kotlin.Triple;
 
-import java.io.BufferedReader;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import static com.tecknobit.apimanager.apis.APIRequest.SHA256_ALGORITHM;
-import static com.tecknobit.apimanager.apis.encryption.BaseCipher.Algorithm.CTR_ALGORITHM;
 import static com.tecknobit.apimanager.apis.encryption.aes.AESServerCipher.AESKeySize.k128;
-import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper.COMMA;
 import static com.tecknobit.equinoxbackend.resourcesutils.ResourcesManager.RESOURCES_PATH;
+import static com.tecknobit.glidercore.enums.KeychainView.FULL;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * The {@code ServerVault} class is used to handle the cipher of the password data such tail, scopes and the password
- * value. Each user has his/her own AES key created during the signup request
+ * value. Each user has his/her own AES key created during the signup request, stored in the lock boxes wrapped by
+ * the {@link MasterKey}
  *
  * @author N7ghtm4r3 - Tecknobit
  */
@@ -47,6 +63,33 @@ public class ServerVault {
      */
     private static final String VAULT_PATHNAME = RESOURCES_PATH + VAULT_FOLDER + "/";
 
+    /**
+     * {@code LOCK_BOXES_STORE_FILE} the name of the file of the {@link MappedLockBoxStore}, placed in the vault folder
+     */
+    public static final String LOCK_BOXES_STORE_FILE = "lockboxes.store";
+
+    /**
+     * {@code DEFAULT_MASTER_KEYSTORE_PATHNAME} the default path name of the keystore of the {@link MasterKey}, placed
+     * outside the vault folder
+     */
+    public static final String DEFAULT_MASTER_KEYSTORE_PATHNAME = RESOURCES_PATH + "master-key.p12";
+
+    /**
+     * {@code DEFAULT_MASTER_KEY_ALIAS} the default alias of the entry of the {@link MasterKey} in its keystore
+     */
+    public static final String DEFAULT_MASTER_KEY_ALIAS = "glider-master-key";
+
+    /**
+     * {@code USER_KEY_LENGTH} the length in bytes of the private keys of the users
+     */
+    private static final int USER_KEY_LENGTH = 16;
+
+    /**
+     * {@code WRAPPED_USER_KEY_LENGTH} the length in bytes of the private keys of the users wrapped by the
+     * {@link MasterKey}, the lock boxes with a shorter key are legacy ones which still hold the raw key
+     */
+    private static final int WRAPPED_USER_KEY_LENGTH = USER_KEY_LENGTH + MasterKey.WRAPPED_KEY_OVERHEAD;
+
     /**
      * {@code INVALID_PATHNAME_CHARACTERS_REGEX} regex used to clear the pathname of the lock box from invalid characters
      */
@@ -58,15 +101,398 @@ public class ServerVault {
      */
     private static final String INVALID_PATHNAME_CHARACTER_REPLACER = "a";
 
+    /**
+     * {@code INVALID_PATHNAME_CHARACTERS_PATTERN} the compiled {@link #INVALID_PATHNAME_CHARACTERS_REGEX}
+     */
+    private static final Pattern INVALID_PATHNAME_CHARACTERS_PATTERN = Pattern.compile(INVALID_PATHNAME_CHARACTERS_REGEX);
+
+    /**
+     * {@code DEFAULT_KEYS_CACHE_SIZE} the default max number of the private keys kept in memory
+     */
+    public static final int DEFAULT_KEYS_CACHE_SIZE = 1000;
+
+    /**
+     * {@code DEFAULT_KEYS_CACHE_TTL} the default time in milliseconds a private key is kept in memory
+     */
+    public static final long DEFAULT_KEYS_CACHE_TTL = 10 * 60 * 1000;
+
+    /**
+     * {@code DEFAULT_PARALLEL_DECRYPTION_THRESHOLD} the default min number of the passwords of a list decrypted in
+     * parallel
+     */
+    public static final int DEFAULT_PARALLEL_DECRYPTION_THRESHOLD = 1000;
+
+    /**
+     * {@code DEFAULT_DECRYPTION_POOL_SIZE} the default number of the threads of the pool shared by the parallel
+     * decryptions, {@code 0} means a thread for each available processor
+     */
+    public static final int DEFAULT_DECRYPTION_POOL_SIZE = 0;
+
+    /**
+     * {@code DEFAULT_REQUEST_PARALLELISM} the default max number of the threads used to decrypt a single list
+     */
+    public static final int DEFAULT_REQUEST_PARALLELISM = 4;
+
+    /**
+     * {@code MIN_DECRYPTION_CHUNK_SIZE} the min number of the passwords decrypted by a single task, so the small lists
+     * are not split in tasks which cost more than the decryption itself
+     */
+    private static final int MIN_DECRYPTION_CHUNK_SIZE = 128;
+
+    /**
+     * {@code DECRYPTION_THREAD_NAME} the prefix of the name of the threads of the decryption pool
+     */
+    private static final String DECRYPTION_THREAD_NAME = "vault-decryption-";
+
+    /**
+     * {@code CIPHER_TRANSFORMATION} the transformation used to encrypt the password data, the same used by the
+     * {@link AESServerCipher}, so the values encrypted by it are still readable
+     */
+    private static final String CIPHER_TRANSFORMATION = "AES/CTR/NoPadding";
+
+    /**
+     * {@code KEY_ALGORITHM} the algorithm of the private keys of the users
+     */
+    private static final String KEY_ALGORITHM = "AES";
+
+    /**
+     * {@code RAW_CIPHERTEXT_FORMAT} the first byte of the values stored as raw ciphertext, the legacy values are Base64
+     * text, so they never start with it
+     */
+    public static final byte RAW_CIPHERTEXT_FORMAT = 0x01;
+
+    /**
+     * {@code KEYED_CIPHERTEXT_FORMAT} the first byte of the values stored as raw ciphertext encrypted with a rotated
+     * key, the marker is followed by the generation of the key
+     */
+    public static final byte KEYED_CIPHERTEXT_FORMAT = 0x02;
+
+    /**
+     * {@code KEYED_CIPHERTEXT_HEADER_SIZE} the size of the header of the values stored with the
+     * {@link #KEYED_CIPHERTEXT_FORMAT}, made up of the marker and the generation of the key
+     */
+    public static final int KEYED_CIPHERTEXT_HEADER_SIZE = 1 + Integer.BYTES;
+
+    /**
+     * {@code KEY_GENERATION_SEPARATOR} the separator between the name of the lock box and the generation of the key
+     * stored in it, the keys of the generation {@code 0} are stored in the lock box without any suffix
+     */
+    private static final String KEY_GENERATION_SEPARATOR = "-";
+
+    /**
+     * {@code DECRYPTION_BUFFER_SIZE} the initial size of the buffer of each thread where the values are decrypted
+     */
+    private static final int DECRYPTION_BUFFER_SIZE = 256;
+
+    /**
+     * {@code threadCiphers} the cipher instance reused by each thread, initialized again for each value
+     */
+    private static final ThreadLocal<Cipher> threadCiphers = ThreadLocal.withInitial(ServerVault::createCipher);
+
+    /**
+     * {@code threadBuffers} the buffer reused by each thread to decrypt the values, grown when a value does not fit
+     */
+    private static final ThreadLocal<byte[]> threadBuffers =
+            ThreadLocal.withInitial(() -> new byte[DECRYPTION_BUFFER_SIZE]);
+
+    /**
+     * {@code KEYWORDS_INDEX_MAC_ALGORITHM} the algorithm used to compute the tokens of the keywords index
+     */
+    private static final String KEYWORDS_INDEX_MAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * {@code KEYWORDS_INDEX_KEY_CONTEXT} the context used to derive the key of the keywords index from the private key
+     * of the user, so the private key is never used directly as MAC key
+     */
+    private static final byte[] KEYWORDS_INDEX_KEY_CONTEXT = "glider-keywords-index".getBytes(UTF_8);
+
+    /**
+     * {@code KEYWORD_TOKEN_LENGTH} the number of the bytes of the MAC kept as token
+     */
+    private static final int KEYWORD_TOKEN_LENGTH = 16;
+
     /**
      * {@code vault} the singleton instance of the vault
      */
     private static final ServerVault vault = new ServerVault();
 
+    /**
+     * {@code keysCache} the cache of the private keys of the users, keyed by the digest of their tokens
+     */
+    private volatile BoundedCache<String, UserKeys> keysCache;
+
+    /**
+     * {@code masterKey} the master key which wraps the private keys stored in the lock boxes
+     */
+    private volatile MasterKey masterKey;
+
+    /**
+     * {@code keysEpoch} the counter of the changes of the keys of the users, used to not cache the keys loaded while a
+     * rotation of them was changing them
+     */
+    private final AtomicLong keysEpoch;
+
+    /**
+     * {@code keyGeneration} the generation of the keys to use, the keys of an older generation are rotated by the
+     * {@link #rotateUserKey(String)} method
+     */
+    private volatile int keyGeneration;
+
+    /**
+     * {@code lockBoxStore} the store where the lock boxes of the users are persisted
+     */
+    private volatile LockBoxStore lockBoxStore;
+
+    /**
+     * {@code parallelDecryptionThreshold} the min number of the passwords of a list decrypted in parallel
+     */
+    private volatile int parallelDecryptionThreshold;
+
+    /**
+     * {@code requestParallelism} the max number of the threads used to decrypt a single list, so a huge keychain cannot
+     * take all the threads of the {@link #decryptionPool}
+     */
+    private volatile int requestParallelism;
+
+    /**
+     * {@code decryptionPool} the bounded work-stealing pool shared by the parallel decryptions
+     */
+    private volatile ForkJoinPool decryptionPool;
+
     /**
      * Constructor to instantiate the object
      */
     private ServerVault() {
+        keysCache = new BoundedCache<>(DEFAULT_KEYS_CACHE_SIZE, DEFAULT_KEYS_CACHE_TTL,
+                (lockBoxName, userKeys) -> userKeys.destroy());
+        keysEpoch = new AtomicLong();
+        lockBoxStore = new FileLockBoxStore(new File(VAULT_PATHNAME));
+        configureParallelDecryption(DEFAULT_PARALLEL_DECRYPTION_THRESHOLD, DEFAULT_DECRYPTION_POOL_SIZE,
+                DEFAULT_REQUEST_PARALLELISM);
+    }
+
+    /**
+     * Method used to configure the cache of the private keys, the already cached keys will be discarded. The cached
+     * keys are kept outside the heap and wiped as soon as they leave the cache
+     *
+     * @param maxSize    The max number of the private keys kept in memory
+     * @param timeToLive The time in milliseconds a private key is kept in memory
+     */
+    public void configureKeysCache(int maxSize, long timeToLive) {
+        BoundedCache<String, UserKeys> previousCache = keysCache;
+        keysCache = new BoundedCache<>(maxSize, timeToLive, (lockBoxName, userKeys) -> userKeys.destroy());
+        previousCache.invalidateAll();
+    }
+
+    /**
+     * Method used to configure the store of the lock boxes, the previous store is closed
+     *
+     * @param storeType       The type of the store to use
+     * @param importLockBoxes Whether import in the {@link StoreType#MAPPED} store the lock boxes stored one per file
+     * @return the number of the imported lock boxes as {@code int}
+     * @throws IOException when an error occurred during the opening of the store or the import
+     */
+    public int configureLockBoxStore(StoreType storeType, boolean importLockBoxes) throws IOException {
+        File vaultFolder = new File(VAULT_PATHNAME);
+        int importedLockBoxes = 0;
+        LockBoxStore store;
+        if (storeType == StoreType.MAPPED) {
+            MappedLockBoxStore mappedStore = new MappedLockBoxStore(new File(vaultFolder, LOCK_BOXES_STORE_FILE));
+            if (importLockBoxes) {
+                try {
+                    importedLockBoxes = mappedStore.importLockBoxes(vaultFolder);
+                } catch (IOException e) {
+                    mappedStore.close();
+                    throw e;
+                }
+            }
+            store = mappedStore;
+        } else
+            store = new FileLockBoxStore(vaultFolder);
+        LockBoxStore previousStore = lockBoxStore;
+        lockBoxStore = store;
+        previousStore.close();
+        return importedLockBoxes;
+    }
+
+    /**
+     * Method used to configure the master key which wraps the private keys of the users, the keys already cached are
+     * discarded and the previous master key is wiped. The lock box store must be already configured, because a new
+     * master key is never created when the store already holds lock boxes wrapped by another master key, they could
+     * not be unwrapped anymore
+     *
+     * @param keystore        The file of the keystore of the master key
+     * @param password        The password of the keystore and of its entry
+     * @param alias           The alias of the entry of the master key
+     * @param createIfMissing Whether create the keystore with a new master key when it does not exist and the lock
+     *                        box store does not hold any wrapped lock box
+     * @throws IOException              when the keystore cannot be read or created
+     * @throws GeneralSecurityException when the keystore does not contain a valid master key
+     */
+    public void configureMasterKey(File keystore, char[] password, String alias,
+                                   boolean createIfMissing) throws IOException, GeneralSecurityException {
+        if (createIfMissing && !keystore.exists() && hasWrappedLockBoxes()) {
+            throw new IllegalStateException("The keystore of the master key " + keystore + " does not exist, but " +
+                    "the lock box store already holds wrapped lock boxes: restore the keystore or check its path");
+        }
+        MasterKey previousMasterKey = masterKey;
+        masterKey = MasterKey.load(keystore, password, alias, createIfMissing);
+        keysEpoch.incrementAndGet();
+        keysCache.invalidateAll();
+        if (previousMasterKey != null)
+            previousMasterKey.destroy();
+    }
+
+    /**
+     * Method used to wrap with the master key the private keys still stored raw in the lock boxes, each lock box is
+     * replaced just after its wrapped key has been verified, so an interrupted wrapping can be safely repeated
+     *
+     * @return the number of the wrapped lock boxes as {@code int}
+     * @throws Exception when an error occurred during the wrapping
+     */
+    public int wrapLockBoxes() throws Exception {
+        MasterKey masterKey = requireMasterKey();
+        Base64.Decoder decoder = Base64.getDecoder();
+        Base64.Encoder encoder = Base64.getEncoder();
+        int wrappedLockBoxes = 0;
+        for (String lockBoxName : lockBoxStore.getLockBoxesNames()) {
+            Pair<String, String> lockBox = lockBoxStore.retrieveLockBox(lockBoxName);
+            if (lockBox == null)
+                continue;
+            byte[] secretKey = decoder.decode(lockBox.getFirst());
+            if (secretKey.length == WRAPPED_USER_KEY_LENGTH)
+                continue;
+            byte[] wrappedKey = masterKey.wrapKey(secretKey);
+            byte[] unwrappedKey = masterKey.unwrapKey(wrappedKey);
+            try {
+                if (!Arrays.equals(secretKey, unwrappedKey))
+                    throw new GeneralSecurityException("Unable to verify the wrapped key of a lock box");
+            } finally {
+                Arrays.fill(secretKey, (byte) 0);
+                Arrays.fill(unwrappedKey, (byte) 0);
+            }
+            lockBoxStore.storeLockBox(lockBoxName, encoder.encodeToString(wrappedKey), lockBox.getSecond());
+            wrappedLockBoxes++;
+        }
+        return wrappedLockBoxes;
+    }
+
+    /**
+     * Method used to check whether the {@link #lockBoxStore} holds any lock box wrapped by a master key
+     *
+     * @return whether any wrapped lock box is stored as {@code boolean}
+     * @throws IOException when an error occurred during the reading of the lock boxes
+     */
+    private boolean hasWrappedLockBoxes() throws IOException {
+        Base64.Decoder decoder = Base64.getDecoder();
+        for (String lockBoxName : lockBoxStore.getLockBoxesNames()) {
+            Pair<String, String> lockBox = lockBoxStore.retrieveLockBox(lockBoxName);
+            if (lockBox == null)
+                continue;
+            byte[] secretKey = decoder.decode(lockBox.getFirst());
+            int secretKeyLength = secretKey.length;
+            Arrays.fill(secretKey, (byte) 0);
+            if (secretKeyLength == WRAPPED_USER_KEY_LENGTH)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method used to close the store of the lock boxes when the application stops
+     *
+     * @throws IOException when an error occurred during the closing
+     */
+    public void closeLockBoxStore() throws IOException {
+        keysCache.invalidateAll();
+        lockBoxStore.close();
+    }
+
+    /**
+     * Method used to configure the parallel decryption of the lists of passwords, the decryptions already running
+     * complete on the previous pool
+     *
+     * @param threshold          The min number of the passwords of a list decrypted in parallel
+     * @param poolSize           The number of the threads of the pool shared by the parallel decryptions, {@code 0} to
+     *                           use a thread for each available processor
+     * @param requestParallelism The max number of the threads used to decrypt a single list, {@code 1} to always
+     *                           decrypt sequentially
+     */
+    public void configureParallelDecryption(int threshold, int poolSize, int requestParallelism) {
+        if (poolSize < 0 || requestParallelism <= 0)
+            throw new IllegalArgumentException("The pool size cannot be negative and the request parallelism must " +
+                    "be positive");
+        if (poolSize == 0)
+            poolSize = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool previousPool = decryptionPool;
+        decryptionPool = new ForkJoinPool(poolSize, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName(DECRYPTION_THREAD_NAME + worker.getPoolIndex());
+            worker.setDaemon(true);
+            return worker;
+        }, null, false);
+        parallelDecryptionThreshold = threshold;
+        this.requestParallelism = Math.min(requestParallelism, poolSize);
+        if (previousPool != null)
+            previousPool.shutdown();
+    }
+
+    /**
+     * Method used to configure the generation of the keys to use, the new users receive a key of this generation and
+     * the keys of an older generation can be rotated with the {@link #rotateUserKey(String)} method. The lock box
+     * store must be already configured, because the generation cannot be lower than the newest one stored, otherwise
+     * the newer keys would never be read again
+     *
+     * @param keyGeneration The generation of the keys to use, it can only be increased
+     * @throws IOException when an error occurred during the listing of the lock boxes
+     */
+    public void configureKeyGeneration(int keyGeneration) throws IOException {
+        if (keyGeneration < 0)
+            throw new IllegalArgumentException("The key generation cannot be negative");
+        int storedKeyGeneration = getStoredKeyGeneration();
+        if (keyGeneration < storedKeyGeneration)
+            throw new IllegalStateException("The key generation cannot be decreased, the lock box store already " +
+                    "contains keys of the generation " + storedKeyGeneration);
+        this.keyGeneration = keyGeneration;
+    }
+
+    /**
+     * Method used to get the newest generation of the keys stored in the {@link #lockBoxStore}
+     *
+     * @return the newest generation of the stored keys as {@code int}, {@code 0} if the store is empty
+     * @throws IOException when an error occurred during the listing of the lock boxes
+     */
+    private int getStoredKeyGeneration() throws IOException {
+        int storedKeyGeneration = 0;
+        for (String lockBoxName : lockBoxStore.getLockBoxesNames()) {
+            int separatorIndex = lockBoxName.lastIndexOf(KEY_GENERATION_SEPARATOR);
+            if (separatorIndex == -1)
+                continue;
+            try {
+                storedKeyGeneration = Math.max(storedKeyGeneration,
+                        Integer.parseInt(lockBoxName.substring(separatorIndex + 1)));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return storedKeyGeneration;
+    }
+
+    /**
+     * Method used to get the {@link #keyGeneration} instance
+     *
+     * @return the {@link #keyGeneration} instance as {@code int}
+     */
+    public int getKeyGeneration() {
+        return keyGeneration;
+    }
+
+    /**
+     * Method used to get the counters of the cache of the private keys
+     *
+     * @return the counters of the cache as {@link BoundedCache.CacheStats}
+     */
+    public BoundedCache.CacheStats getKeysCacheStats() {
+        return keysCache.getStats();
     }
 
     /**
@@ -76,27 +502,142 @@ public class ServerVault {
      * @throws Exception when an error occurred during the key creation
      */
     public void createUserPrivateKey(String token) throws Exception {
-        String secretKey = AESServerCipher.createBase64SecretKey(k128);
+        String lockBoxName = computeLockBoxName(token);
+        UserKey userKey = storePrivateKey(lockBoxName, keyGeneration);
+        keysEpoch.incrementAndGet();
+        keysCache.put(lockBoxName, new UserKeys(userKey, null));
+    }
+
+    /**
+     * Method used to create and store a private key of the user
+     *
+     * @param lockBoxName The name of the lock box of the user
+     * @param generation The generation of the key
+     *
+     * @return the private key as {@link UserKey}
+     *
+     * @throws Exception when an error occurred during the key creation
+     */
+    private UserKey storePrivateKey(String lockBoxName, int generation) throws Exception {
+        byte[] secretKey = Base64.getDecoder().decode(AESServerCipher.createBase64SecretKey(k128));
         String ivSpec = AESServerCipher.createBase64IvParameterSpec();
-        storePrivateKey(token, secretKey, ivSpec);
+        try {
+            byte[] wrappedKey = requireMasterKey().wrapKey(secretKey);
+            lockBoxStore.storeLockBox(getGenerationLockBoxName(lockBoxName, generation),
+                    Base64.getEncoder().encodeToString(wrappedKey), ivSpec);
+            return new UserKey(generation, wrappedKey, new OffHeapSecretKey(secretKey),
+                    new IvParameterSpec(Base64.getDecoder().decode(ivSpec)));
+        } finally {
+            Arrays.fill(secretKey, (byte) 0);
+        }
     }
 
     /**
-     * Method used to store the private key of the user
+     * Method used to start the rotation of the private key of the user when it is older than the
+     * {@link #keyGeneration}. The new key is used to encrypt all the new data, while the previous one is kept to read
+     * the data not re-encrypted yet, until the rotation is completed with the {@link #completeKeyRotation(String)}
+     * method
      *
      * @param token The token of the user
-     * @param secretKey The secret key generated
-     * @param ivSpec The initialization vector generated
+     *
+     * @return whether the private key of the user is being rotated as {@code boolean}
      *
      * @throws Exception when an error occurred during the key creation
      */
-    private void storePrivateKey(String token, String secretKey, String ivSpec) throws Exception {
-        String lockBoxPathname = computeLockBoxPathName(token);
-        try (FileWriter lockBoxWriter = new FileWriter(lockBoxPathname)) {
-            lockBoxWriter.write(secretKey);
-            lockBoxWriter.write(COMMA);
-            lockBoxWriter.write(ivSpec);
+    public boolean rotateUserKey(String token) throws Exception {
+        String lockBoxName = computeLockBoxName(token);
+        UserKeys userKeys = getPrivateKey(token);
+        if (userKeys.previous() != null)
+            return true;
+        int targetGeneration = keyGeneration;
+        if (userKeys.current().generation() >= targetGeneration)
+            return false;
+        UserKey userKey = storePrivateKey(lockBoxName, targetGeneration);
+        keysEpoch.incrementAndGet();
+        keysCache.put(lockBoxName, new UserKeys(userKey, copyUserKey(userKeys.current())));
+        return true;
+    }
+
+    /**
+     * Method used to complete the rotation of the private key of the user, deleting the previous key. It must be
+     * invoked just when all the data of the user have been re-encrypted with the current key
+     *
+     * @param token The token of the user
+     *
+     * @throws Exception when an error occurred during the deletion of the previous key
+     */
+    public void completeKeyRotation(String token) throws Exception {
+        String lockBoxName = computeLockBoxName(token);
+        UserKeys userKeys = getPrivateKey(token);
+        UserKey previousKey = userKeys.previous();
+        if (previousKey == null)
+            return;
+        keysEpoch.incrementAndGet();
+        keysCache.put(lockBoxName, new UserKeys(copyUserKey(userKeys.current()), null));
+        lockBoxStore.deleteLockBox(getGenerationLockBoxName(lockBoxName, previousKey.generation()));
+    }
+
+    /**
+     * Method used to get the header of the values encrypted with the current private key of the user, the values
+     * which do not start with it must be re-encrypted during a rotation
+     *
+     * @param token The token of the user
+     *
+     * @return the header as array of {@code byte}
+     *
+     * @throws Exception when an error occurred during the retrieving of the key
+     */
+    public byte[] getCurrentKeyHeader(String token) throws Exception {
+        return createHeader(getPrivateKey(token).current().generation());
+    }
+
+    /**
+     * Method used to re-encrypt the data of a list of passwords with the current private key of the user
+     *
+     * @param token The token of the user
+     * @param passwords The passwords to re-encrypt, still encrypted with any key of the user
+     *
+     * @return the data re-encrypted as {@link List} of {@link Triple} of array of {@code byte}, as tail, password
+     * value and scopes, in the same order of the specified passwords
+     *
+     * @throws Exception when an error occurred during the re-encryption
+     */
+    public List<Triple<byte[], byte[], byte[]>> reencryptPasswords(String token,
+                                                                   List<Password> passwords) throws Exception {
+        CipherKeys cipherKeys = openKeys(getPrivateKey(token));
+        CipherKey cipherKey = cipherKeys.current();
+        List<Triple<byte[], byte[], byte[]>> encryptedData = new ArrayList<>(passwords.size());
+        for (Password password : passwords) {
+            encryptedData.add(new Triple<>(
+                    reencrypt(cipherKeys, cipherKey, password.getEncryptedTail()),
+                    reencrypt(cipherKeys, cipherKey, password.getEncryptedPassword()),
+                    reencrypt(cipherKeys, cipherKey, password.getEncryptedScopes())
+            ));
         }
+        return encryptedData;
+    }
+
+    /**
+     * Method used to encrypt with the previous private key of the user the tails of a list of passwords, so their
+     * uniqueness can be checked also with the passwords not re-encrypted yet during a rotation
+     *
+     * @param token The token of the user
+     * @param tails The tails to encrypt
+     *
+     * @return the tails encrypted as {@link List} of array of {@code byte}, in the same order of the specified tails,
+     * empty if the key of the user is not being rotated
+     *
+     * @throws Exception when an error occurred during the encryption
+     */
+    public List<byte[]> encryptPreviousTails(String token, List<String> tails) throws Exception {
+        UserKey previousKey = getPrivateKey(token).previous();
+        if (previousKey == null)
+            return List.of();
+        CipherKey cipherKey = openKey(previousKey);
+        List<byte[]> encryptedTails = new ArrayList<>(tails.size());
+        for (String tail : tails)
+            encryptedTails.add(encrypt(cipherKey, tail));
+        return encryptedTails;
     }
 
     /**
@@ -109,19 +650,68 @@ public class ServerVault {
      *
      * @throws Exception when an error occurred during the encryption
      *
-     * @return the data encrypted as {@link Triple} of {@link String}
+     * @return the data encrypted as {@link Triple} of array of {@code byte}
      */
-    public Triple<String, String, String> encryptPasswordData(String token, String tail, String password,
+    public Triple<byte[], byte[], byte[]> encryptPasswordData(String token, String tail, String password,
                                                               String scopes) throws Exception {
-        AESServerCipher cipher = getCipherInstance(token);
+        CipherKey cipherKey = openKey(getPrivateKey(token).current());
         if (scopes == null)
             scopes = " ";
-        String encryptedTail = cipher.encryptBase64(tail);
-        String encryptedPassword = cipher.encryptBase64(password);
-        String encryptedScopes = cipher.encryptBase64(scopes);
+        byte[] encryptedTail = encrypt(cipherKey, tail);
+        byte[] encryptedPassword = encrypt(cipherKey, password);
+        byte[] encryptedScopes = encrypt(cipherKey, scopes);
         return new Triple<>(encryptedTail, encryptedPassword, encryptedScopes);
     }
 
+    /**
+     * Method used to encrypt the data of a list of passwords using the same private key
+     *
+     * @param token The token of the user
+     * @param passwordsData The data of the passwords to encrypt, each one as tail, password value and scopes
+     *
+     * @throws Exception when an error occurred during the encryption
+     *
+     * @return the data encrypted as {@link List} of {@link Triple} of array of {@code byte}, in the same order of the
+     * specified data
+     */
+    public List<Triple<byte[], byte[], byte[]>> encryptPasswordsData(String token,
+                                                                     List<Triple<String, String, String>> passwordsData) throws Exception {
+        CipherKey cipherKey = openKey(getPrivateKey(token).current());
+        List<Triple<byte[], byte[], byte[]>> encryptedData = new ArrayList<>(passwordsData.size());
+        for (Triple<String, String, String> passwordData : passwordsData) {
+            String scopes = passwordData.getThird();
+            if (scopes == null)
+                scopes = " ";
+            encryptedData.add(new Triple<>(
+                    encrypt(cipherKey, passwordData.getFirst()),
+                    encrypt(cipherKey, passwordData.getSecond()),
+                    encrypt(cipherKey, scopes)
+            ));
+        }
+        return encryptedData;
+    }
+
+    /**
+     * Method used to encrypt the scopes of a list of passwords using the same private key
+     *
+     * @param token The token of the user
+     * @param scopes The scopes of the passwords to encrypt
+     *
+     * @throws Exception when an error occurred during the encryption
+     *
+     * @return the scopes encrypted as {@link List} of array of {@code byte}, in the same order of the specified scopes
+     */
+    public List<byte[]> encryptScopes(String token, List<String> scopes) throws Exception {
+        CipherKey cipherKey = openKey(getPrivateKey(token).current());
+        List<byte[]> encryptedScopes = new ArrayList<>(scopes.size());
+        for (String passwordScopes : scopes) {
+            if (passwordScopes == null)
+                passwordScopes = " ";
+            encryptedScopes.add(encrypt(cipherKey, passwordScopes));
+        }
+        return encryptedScopes;
+    }
+
     /**
      * Method used to encrypt the password
      *
@@ -130,11 +720,10 @@ public class ServerVault {
      *
      * @throws Exception when an error occurred during the encryption
      *
-     * @return the password encrypted as {@link String}
+     * @return the password encrypted as array of {@code byte}
      */
-    public String encryptPassword(String token, String password) throws Exception {
-        AESServerCipher cipher = getCipherInstance(token);
-        return cipher.encryptBase64(password);
+    public byte[] encryptPassword(String token, String password) throws Exception {
+        return encrypt(openKey(getPrivateKey(token).current()), password);
     }
 
     /**
@@ -146,33 +735,98 @@ public class ServerVault {
      *
      * @throws Exception when an error occurred during the encryption
      *
-     * @return the data encrypted as {@link Pair} of {@link String}
+     * @return the data encrypted as {@link Pair} of array of {@code byte}
      */
-    public Pair<String, String> encryptPasswordData(String token, String tail, String scopes) throws Exception {
-        AESServerCipher cipher = getCipherInstance(token);
+    public Pair<byte[], byte[]> encryptPasswordData(String token, String tail, String scopes) throws Exception {
+        CipherKey cipherKey = openKey(getPrivateKey(token).current());
         if (scopes == null)
             scopes = " ";
-        String encryptedTail = cipher.encryptBase64(tail);
-        String encryptedScopes = cipher.encryptBase64(scopes);
+        byte[] encryptedTail = encrypt(cipherKey, tail);
+        byte[] encryptedScopes = encrypt(cipherKey, scopes);
         return new Pair<>(encryptedTail, encryptedScopes);
     }
 
     /**
-     * Method used to decrypt a list of passwords
+     * Method used to decrypt a list of passwords with all their fields
      *
      * @param token The token of the user
      * @param passwords The passwords list to decrypt
      *
      * @throws Exception when an error occurred during the decryption
      */
+    @Wrapper
     public void decryptPasswords(String token, List<Password> passwords) throws Exception {
-        AESServerCipher decipher = getCipherInstance(token);
-        for (Password password : passwords)
-            decryptPassword(decipher, password, true);
+        decryptPasswords(token, passwords, FULL);
     }
 
     /**
-     * Method used to decrypt a password
+     * Method used to decrypt a list of passwords with just the fields required by the view
+     *
+     * @param token The token of the user
+     * @param passwords The passwords list to decrypt
+     * @param view The view of the keychain which the passwords are decrypted for
+     *
+     * @throws Exception when an error occurred during the decryption
+     *
+     * @apiNote with the {@link KeychainView#LIST} view the values of the passwords are not decrypted and remain
+     * {@code null}
+     */
+    public void decryptPasswords(String token, List<Password> passwords, KeychainView view) throws Exception {
+        CipherKeys cipherKeys = openKeys(getPrivateKey(token));
+        boolean decryptValues = view == FULL;
+        int tasks = Math.min(requestParallelism, passwords.size() / MIN_DECRYPTION_CHUNK_SIZE);
+        if (passwords.size() < parallelDecryptionThreshold || tasks <= 1) {
+            decryptPasswords(cipherKeys, passwords, 0, passwords.size(), decryptValues);
+            return;
+        }
+        int chunkSize = (passwords.size() + tasks - 1) / tasks;
+        List<ForkJoinTask<Void>> chunks = new ArrayList<>(tasks - 1);
+        ForkJoinPool pool = decryptionPool;
+        for (int from = chunkSize; from < passwords.size(); from += chunkSize) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(from + chunkSize, passwords.size());
+            chunks.add(pool.submit(() -> {
+                decryptPasswords(cipherKeys, passwords, chunkFrom, chunkTo, decryptValues);
+                return null;
+            }));
+        }
+        Exception failure = null;
+        try {
+            decryptPasswords(cipherKeys, passwords, 0, chunkSize, decryptValues);
+        } catch (Exception e) {
+            failure = e;
+        }
+        for (ForkJoinTask<Void> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (ExecutionException e) {
+                if (failure == null)
+                    failure = e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Method used to decrypt a range of a list of passwords, each thread uses its own cipher instance
+     *
+     * @param cipherKeys The private keys of the user
+     * @param passwords The passwords list to decrypt
+     * @param from The position of the first password to decrypt
+     * @param to The position after the last password to decrypt
+     * @param decryptValues Whether decrypt also the values of the passwords
+     *
+     * @throws Exception when an error occurred during the decryption
+     */
+    private void decryptPasswords(CipherKeys cipherKeys, List<Password> passwords, int from, int to,
+                                  boolean decryptValues) throws Exception {
+        for (int j = from; j < to; j++)
+            decryptPassword(cipherKeys, passwords.get(j), decryptValues);
+    }
+
+    /**
+     * Method used to decrypt a password with all its fields
      *
      * @param token The token of the user
      * @param password The password to decrypt
@@ -181,83 +835,450 @@ public class ServerVault {
      */
     @Wrapper
     public void decryptPassword(String token, Password password) throws Exception {
-        decryptPassword(getCipherInstance(token), password, false);
+        decryptPassword(openKeys(getPrivateKey(token)), password, true);
     }
 
     /**
-     * Method used to get the related {@link AESServerCipher} of the user
+     * Method used to compute the blind tokens of the keywords index, each fragment is mapped to its keyed digest
+     * computed with a key derived from the private key of the user
      *
      * @param token The token of the user
-     * @return the instance as {@link AESServerCipher}
+     * @param fragments The fragments of the keywords to tokenize
      *
-     * @throws Exception when an error occurred during the retrieving operation
+     * @return the generation of the key used and the tokens as {@link Pair} of {@link Integer} and {@link Set} of
+     * {@link String}
+     *
+     * @throws Exception when an error occurred during the tokenization
+     *
+     * @apiNote during a rotation the tokens are still computed with the previous key, so they keep matching with the
+     * index built before the rotation. The generation must be stored with the tokens, so the tokens computed with the
+     * previous key and stored after the rotation has been completed are recognized as stale and rebuilt
+     */
+    public Pair<Integer, Set<String>> computeKeywordTokens(String token,
+                                                          Collection<String> fragments) throws Exception {
+        UserKey userKey = getPrivateKey(token).getIndexKey();
+        MessageDigest keyDigest = MessageDigest.getInstance(SHA256_ALGORITHM);
+        keyDigest.update(KEYWORDS_INDEX_KEY_CONTEXT);
+        byte[] secretKey = getEncodedKey(userKey);
+        keyDigest.update(secretKey);
+        Arrays.fill(secretKey, (byte) 0);
+        Mac mac = Mac.getInstance(KEYWORDS_INDEX_MAC_ALGORITHM);
+        mac.init(new SecretKeySpec(keyDigest.digest(), KEYWORDS_INDEX_MAC_ALGORITHM));
+        HexFormat hexFormat = HexFormat.of();
+        Set<String> tokens = new HashSet<>();
+        for (String fragment : fragments) {
+            byte[] fragmentMac = mac.doFinal(fragment.getBytes(UTF_8));
+            tokens.add(hexFormat.formatHex(fragmentMac, 0, KEYWORD_TOKEN_LENGTH));
+        }
+        return new Pair<>(userKey.generation(), tokens);
+    }
+
+    /**
+     * Method used to get the generation of the key currently used to compute the tokens of the keywords index of the
+     * user, the tokens stored with a different generation are stale
+     *
+     * @param token The token of the user
+     *
+     * @return the generation of the key as {@code int}
+     *
+     * @throws Exception when an error occurred during the retrieving of the key
+     */
+    public int getKeywordsGeneration(String token) throws Exception {
+        return getPrivateKey(token).getIndexKey().generation();
+    }
+
+    /**
+     * Method used to encrypt a value with the cipher of the current thread, the result is the header of the generation
+     * of the key followed by the raw ciphertext
+     *
+     * @param cipherKey The private key of the user
+     * @param value The value to encrypt
+     *
+     * @return the value encrypted as array of {@code byte}
+     *
+     * @throws GeneralSecurityException when an error occurred during the encryption
+     */
+    private byte[] encrypt(CipherKey cipherKey, String value) throws GeneralSecurityException {
+        byte[] plainValue = value.getBytes(UTF_8);
+        byte[] header = createHeader(cipherKey.generation());
+        byte[] encryptedValue = new byte[header.length + plainValue.length];
+        System.arraycopy(header, 0, encryptedValue, 0, header.length);
+        try {
+            Cipher cipher = threadCiphers.get();
+            cipher.init(Cipher.ENCRYPT_MODE, cipherKey.secretKey(), cipherKey.ivSpec());
+            cipher.doFinal(plainValue, 0, plainValue.length, encryptedValue, header.length);
+            return encryptedValue;
+        } finally {
+            Arrays.fill(plainValue, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to re-encrypt a stored value with the current private key of the user
+     *
+     * @param cipherKeys The private keys of the user
+     * @param cipherKey The current private key of the user
+     * @param storedValue The stored value to re-encrypt
+     *
+     * @return the value re-encrypted as array of {@code byte}, {@code null} if the value is not stored
+     *
+     * @throws GeneralSecurityException when an error occurred during the re-encryption
+     */
+    private byte[] reencrypt(CipherKeys cipherKeys, CipherKey cipherKey,
+                             byte[] storedValue) throws GeneralSecurityException {
+        String value = decrypt(cipherKeys, storedValue);
+        if (value == null)
+            return null;
+        return encrypt(cipherKey, value);
+    }
+
+    /**
+     * Method used to decrypt a stored value with the cipher of the current thread, the plain bytes are written in the
+     * buffer of the current thread, so the only allocation is the decrypted {@link String}
+     *
+     * @param cipherKeys The private keys of the user
+     * @param storedValue The stored value to decrypt, as raw ciphertext or as legacy Base64 text
+     *
+     * @return the value decrypted as {@link String}, {@code null} if the value is not stored
+     *
+     * @throws GeneralSecurityException when an error occurred during the decryption
+     */
+    private String decrypt(CipherKeys cipherKeys, byte[] storedValue) throws GeneralSecurityException {
+        if (storedValue == null)
+            return null;
+        byte[] ciphertext = storedValue;
+        int offset = 1;
+        int generation = 0;
+        if (isLegacyValue(storedValue)) {
+            ciphertext = Base64.getDecoder().decode(storedValue);
+            offset = 0;
+        } else if (storedValue[0] == KEYED_CIPHERTEXT_FORMAT) {
+            generation = ByteBuffer.wrap(storedValue, 1, Integer.BYTES).getInt();
+            offset = KEYED_CIPHERTEXT_HEADER_SIZE;
+        }
+        CipherKey cipherKey = cipherKeys.getKey(generation);
+        int length = ciphertext.length - offset;
+        byte[] buffer = threadBuffers.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+            threadBuffers.set(buffer);
+        }
+        Cipher cipher = threadCiphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, cipherKey.secretKey(), cipherKey.ivSpec());
+        int plainLength = cipher.doFinal(ciphertext, offset, length, buffer, 0);
+        try {
+            return new String(buffer, 0, plainLength, UTF_8);
+        } finally {
+            Arrays.fill(buffer, 0, plainLength, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to open the private keys of the user for a request, see {@link #openKey(UserKey)}
+     *
+     * @param userKeys The private keys of the user
+     *
+     * @return the keys ready to init the ciphers as {@link CipherKeys}
+     *
+     * @throws GeneralSecurityException when an error occurred during the unwrapping
+     */
+    private CipherKeys openKeys(UserKeys userKeys) throws GeneralSecurityException {
+        UserKey previousKey = userKeys.previous();
+        return new CipherKeys(openKey(userKeys.current()), previousKey != null ? openKey(previousKey) : null);
+    }
+
+    /**
+     * Method used to open a private key of the user for a request. The raw key is copied from the off-heap memory
+     * once and all the ciphers of the request are initialized with the same key specification, which is left to the
+     * garbage collector when the request completes
+     *
+     * @param userKey The private key of the user
+     *
+     * @return the key ready to init the ciphers as {@link CipherKey}
+     *
+     * @throws GeneralSecurityException when an error occurred during the unwrapping
+     *
+     * @apiNote the JCE ciphers accept just the keys on the heap and the {@link SecretKeySpec} class keeps its own copy
+     * of the key which cannot be wiped, so a single specification is built for each request instead of one for each
+     * value
+     */
+    private CipherKey openKey(UserKey userKey) throws GeneralSecurityException {
+        byte[] secretKey = getEncodedKey(userKey);
+        try {
+            return new CipherKey(userKey.generation(), new SecretKeySpec(secretKey, KEY_ALGORITHM), userKey.ivSpec());
+        } finally {
+            Arrays.fill(secretKey, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to get a copy of the raw private key of the user, which must be wiped after the use. When the key
+     * has been evicted from the {@link #keysCache} while it was still in use, it is unwrapped again from its wrapped
+     * copy
+     *
+     * @param userKey The private key of the user
+     *
+     * @return the raw key as array of {@code byte}
+     *
+     * @throws GeneralSecurityException when an error occurred during the unwrapping
      */
-    private AESServerCipher getCipherInstance(String token) throws Exception {
-        Pair<String, String> keySlices = retrievePrivateKey(token);
-        return new AESServerCipher(keySlices.getFirst(), keySlices.getSecond(), CTR_ALGORITHM);
+    private byte[] getEncodedKey(UserKey userKey) throws GeneralSecurityException {
+        byte[] secretKey = userKey.secretKey().getEncoded();
+        if (secretKey != null)
+            return secretKey;
+        return requireMasterKey().unwrapKey(userKey.wrappedKey());
     }
 
     /**
-     * Method used to retrieve the user private key
+     * Method used to copy a private key of the user in a new off-heap memory, so each cached entry owns its keys and
+     * wipes them when it leaves the {@link #keysCache}
+     *
+     * @param userKey The private key of the user to copy
+     *
+     * @return the copy of the key as {@link UserKey}
+     *
+     * @throws GeneralSecurityException when an error occurred during the unwrapping
+     */
+    private UserKey copyUserKey(UserKey userKey) throws GeneralSecurityException {
+        byte[] secretKey = getEncodedKey(userKey);
+        try {
+            return new UserKey(userKey.generation(), userKey.wrappedKey(), new OffHeapSecretKey(secretKey),
+                    userKey.ivSpec());
+        } finally {
+            Arrays.fill(secretKey, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to get the user private keys, from the {@link #keysCache} if available, otherwise from the lock
+     * boxes. The keys loaded while a rotation changed any keys are not cached, so a stale key cannot be cached
      *
      * @param token The token of the user
-     * @return the private key of the user as {@link Pair} of {@link String}
+     * @return the private keys of the user as {@link UserKeys}
+     * @throws Exception when an error occurred during the retrieving operation
+     */
+    private UserKeys getPrivateKey(String token) throws Exception {
+        String lockBoxName = computeLockBoxName(token);
+        BoundedCache<String, UserKeys> cache = keysCache;
+        UserKeys userKeys = cache.get(lockBoxName);
+        if (userKeys != null)
+            return userKeys;
+        long epoch = keysEpoch.get();
+        userKeys = retrievePrivateKeys(lockBoxName);
+        if (epoch == keysEpoch.get())
+            cache.put(lockBoxName, userKeys);
+        return userKeys;
+    }
+
+    /**
+     * Method used to retrieve the user private keys from his/her lock boxes, looking for the lock boxes from the
+     * {@link #keyGeneration} to the first one: the newest key found is the current key and the next one, if any, is
+     * the previous key of a rotation not completed yet
+     *
+     * @param lockBoxName The name of the lock box of the user
+     * @return the private keys of the user as {@link UserKeys}
      * @throws Exception when an error occurred during the retrieving operation
      */
-    private Pair<String, String> retrievePrivateKey(String token) throws Exception {
-        String lockBoxPathname = computeLockBoxPathName(token);
-        BufferedReader bufferedReader = new BufferedReader(new FileReader(lockBoxPathname));
-        String[] rawData = bufferedReader.readLine().split(COMMA);
-        bufferedReader.close();
-        return new Pair<>(rawData[0], rawData[1]);
+    private UserKeys retrievePrivateKeys(String lockBoxName) throws Exception {
+        UserKey currentKey = null;
+        for (int generation = keyGeneration; generation >= 0; generation--) {
+            Pair<String, String> privateKey = lockBoxStore.retrieveLockBox(getGenerationLockBoxName(lockBoxName,
+                    generation));
+            if (privateKey == null)
+                continue;
+            UserKey userKey = createUserKey(generation, privateKey.getFirst(), privateKey.getSecond());
+            if (currentKey != null)
+                return new UserKeys(currentKey, userKey);
+            currentKey = userKey;
+        }
+        if (currentKey == null)
+            throw new FileNotFoundException("The lock box of the user does not exist");
+        return new UserKeys(currentKey, null);
     }
 
     /**
      * Method used to decrypt a password
      *
-     * @param decipher   The instance used to decrypt the password
-     * @param password   The password to decrypt
-     * @param bypassType Whether bypass the check on the {@link PasswordType}
+     * @param cipherKeys    The private keys of the user
+     * @param password      The password to decrypt
+     * @param decryptValue  Whether decrypt also the value of the password
      * @throws Exception when an error occurred during the decryption
      */
-    private void decryptPassword(AESServerCipher decipher, Password password, boolean bypassType) throws Exception {
-        String decryptedTail = decipher.decryptBase64(password.getTail());
-        String decryptedScopes = decipher.decryptBase64(password.getScopes());
+    private void decryptPassword(CipherKeys cipherKeys, Password password, boolean decryptValue) throws Exception {
+        String decryptedTail = decrypt(cipherKeys, password.getEncryptedTail());
+        String decryptedScopes = decrypt(cipherKeys, password.getEncryptedScopes());
         String decryptedPassword = null;
-        if (bypassType || password.getType() == PasswordType.INSERTED)
-            decryptedPassword = decipher.decryptBase64(password.getPassword());
+        if (decryptValue)
+            decryptedPassword = decrypt(cipherKeys, password.getEncryptedPassword());
         password.setDecryptedData(new Triple<>(decryptedTail, decryptedScopes, decryptedPassword));
     }
 
     /**
-     * Method used to delete the private lock box of the user
+     * Method used to delete the private lock boxes of the user, one for each generation of his/her keys
      *
      * @param token The token of the user
      *
-     * @return whether the lock box has been deleted as {@code boolean}
+     * @return whether any lock box has been deleted as {@code boolean}
      */
     public boolean deleteLockBox(String token) {
-        String lockBoxPathname;
+        String lockBoxName;
         try {
-            lockBoxPathname = computeLockBoxPathName(token);
+            lockBoxName = computeLockBoxName(token);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
-        return new File(lockBoxPathname).delete();
+        keysEpoch.incrementAndGet();
+        keysCache.invalidate(lockBoxName);
+        try {
+            boolean deleted = false;
+            for (int generation = keyGeneration; generation >= 0; generation--)
+                deleted |= lockBoxStore.deleteLockBox(getGenerationLockBoxName(lockBoxName, generation));
+            return deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
-     * Method used to compute the pathname of the lock box of the user
+     * Method used to compute the name of the lock box of the user, it is the digest of the token and is also used as
+     * key of the {@link #keysCache}
      *
      * @param token The token of the user
      *
-     * @return the lock box path name as {@link String}
+     * @return the lock box name as {@link String}
      *
      * @throws NoSuchAlgorithmException when an error occurred during the decryption
      */
-    private String computeLockBoxPathName(String token) throws NoSuchAlgorithmException {
-        return VAULT_PATHNAME + APIRequest.base64Digest(token, SHA256_ALGORITHM)
-                .replaceAll(INVALID_PATHNAME_CHARACTERS_REGEX, INVALID_PATHNAME_CHARACTER_REPLACER);
+    private String computeLockBoxName(String token) throws NoSuchAlgorithmException {
+        return INVALID_PATHNAME_CHARACTERS_PATTERN.matcher(APIRequest.base64Digest(token, SHA256_ALGORITHM))
+                .replaceAll(INVALID_PATHNAME_CHARACTER_REPLACER);
+    }
+
+    /**
+     * Method used to get the name of the lock box where is stored the key of a generation
+     *
+     * @param lockBoxName The name of the lock box of the user
+     * @param generation The generation of the key
+     *
+     * @return the name of the lock box as {@link String}
+     */
+    private static String getGenerationLockBoxName(String lockBoxName, int generation) {
+        if (generation == 0)
+            return lockBoxName;
+        return lockBoxName + KEY_GENERATION_SEPARATOR + generation;
+    }
+
+    /**
+     * Method used to create the header of the values encrypted with a key of a generation, the values encrypted with
+     * the keys of the generation {@code 0} keep the {@link #RAW_CIPHERTEXT_FORMAT}
+     *
+     * @param generation The generation of the key
+     *
+     * @return the header as array of {@code byte}
+     */
+    private static byte[] createHeader(int generation) {
+        if (generation == 0)
+            return new byte[]{RAW_CIPHERTEXT_FORMAT};
+        return ByteBuffer.allocate(KEYED_CIPHERTEXT_HEADER_SIZE)
+                .put(KEYED_CIPHERTEXT_FORMAT)
+                .putInt(generation)
+                .array();
+    }
+
+    /**
+     * Method used to create the private key of the user from the slices stored in his/her lock box, the legacy lock
+     * boxes not wrapped yet hold the raw key
+     *
+     * @param generation The generation of the key
+     * @param secretKey The wrapped secret key encoded in Base64
+     * @param ivSpec The initialization vector encoded in Base64
+     *
+     * @return the private key as {@link UserKey}
+     *
+     * @throws GeneralSecurityException when the key cannot be unwrapped with the master key
+     */
+    private UserKey createUserKey(int generation, String secretKey, String ivSpec) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getDecoder();
+        MasterKey masterKey = requireMasterKey();
+        byte[] wrappedKey = decoder.decode(secretKey);
+        byte[] secretKeyBytes;
+        if (wrappedKey.length == WRAPPED_USER_KEY_LENGTH)
+            secretKeyBytes = masterKey.unwrapKey(wrappedKey);
+        else {
+            secretKeyBytes = wrappedKey;
+            wrappedKey = masterKey.wrapKey(secretKeyBytes);
+        }
+        try {
+            return new UserKey(generation, wrappedKey, new OffHeapSecretKey(secretKeyBytes),
+                    new IvParameterSpec(decoder.decode(ivSpec)));
+        } finally {
+            Arrays.fill(secretKeyBytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Method used to get the {@link #masterKey} instance
+     *
+     * @return the {@link #masterKey} instance as {@link MasterKey}
+     *
+     * @throws IllegalStateException when the master key has not been configured
+     */
+    private MasterKey requireMasterKey() {
+        MasterKey masterKey = this.masterKey;
+        if (masterKey == null)
+            throw new IllegalStateException("The master key of the vault has not been configured");
+        return masterKey;
+    }
+
+    /**
+     * Method used to create the cipher instance of a thread
+     *
+     * @return the cipher as {@link Cipher}
+     */
+    private static Cipher createCipher() {
+        try {
+            return Cipher.getInstance(CIPHER_TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Method used to check whether a stored value is a legacy Base64 text instead of a raw ciphertext
+     *
+     * @param storedValue The stored value to check
+     *
+     * @return whether the value is a legacy one as {@code boolean}
+     */
+    public static boolean isLegacyValue(byte[] storedValue) {
+        return storedValue.length == 0 || (storedValue[0] != RAW_CIPHERTEXT_FORMAT
+                && storedValue[0] != KEYED_CIPHERTEXT_FORMAT);
+    }
+
+    /**
+     * Method used to convert a stored value to its legacy Base64 text, used to match the same ciphertext stored in
+     * both the formats. The values encrypted with a rotated key have not a legacy format, so they are returned as they
+     * are
+     *
+     * @param storedValue The stored value to convert
+     *
+     * @return the legacy value as array of {@code byte}
+     */
+    public static byte[] toLegacyValue(byte[] storedValue) {
+        if (storedValue.length == 0 || storedValue[0] != RAW_CIPHERTEXT_FORMAT)
+            return storedValue;
+        return Base64.getEncoder().encode(Arrays.copyOfRange(storedValue, 1, storedValue.length));
+    }
+
+    /**
+     * Method used to get a key which identifies a ciphertext whatever its stored format
+     *
+     * @param storedValue The stored value
+     *
+     * @return the key of the ciphertext as {@link String}
+     */
+    public static String getCiphertextKey(byte[] storedValue) {
+        return new String(toLegacyValue(storedValue), ISO_8859_1);
     }
 
     /**
@@ -269,4 +1290,83 @@ public class ServerVault {
         return vault;
     }
 
+    /**
+     * The {@code UserKey} record class is used to keep in memory the private key of a user ready to init the ciphers,
+     * the raw key is kept outside the heap and its wrapped copy is used to unwrap it again once it has been wiped
+     *
+     * @param generation The generation of the key
+     * @param wrappedKey The secret key of the user wrapped by the master key
+     * @param secretKey The secret key of the user
+     * @param ivSpec The initialization vector of the user
+     */
+    private record UserKey(int generation, byte[] wrappedKey, OffHeapSecretKey secretKey, IvParameterSpec ivSpec) {
+    }
+
+    /**
+     * The {@code CipherKey} record class is used to init the ciphers of a request with a private key of the user
+     *
+     * @param generation The generation of the key
+     * @param secretKey The secret key of the user
+     * @param ivSpec The initialization vector of the user
+     */
+    private record CipherKey(int generation, SecretKeySpec secretKey, IvParameterSpec ivSpec) {
+    }
+
+    /**
+     * The {@code CipherKeys} record class is used to init the ciphers of a request with the private keys of the user
+     *
+     * @param current The current key of the user, used to encrypt the data
+     * @param previous The previous key of the user, {@code null} if the key is not being rotated
+     */
+    private record CipherKeys(CipherKey current, CipherKey previous) {
+
+        /**
+         * Method used to get the key of a generation
+         *
+         * @param generation The generation of the key
+         *
+         * @return the key as {@link CipherKey}
+         *
+         * @throws GeneralSecurityException when the user has not a key of the generation
+         */
+        private CipherKey getKey(int generation) throws GeneralSecurityException {
+            if (current.generation() == generation)
+                return current;
+            if (previous != null && previous.generation() == generation)
+                return previous;
+            throw new GeneralSecurityException("The key of the generation " + generation + " is not available");
+        }
+
+    }
+
+    /**
+     * The {@code UserKeys} record class is used to keep in memory the private keys of a user, the previous one is
+     * available just while the key of the user is being rotated
+     *
+     * @param current The current key of the user, used to encrypt the data
+     * @param previous The previous key of the user, {@code null} if the key is not being rotated
+     */
+    private record UserKeys(UserKey current, UserKey previous) {
+
+        /**
+         * Method used to get the key used to compute the tokens of the keywords index, the previous key while the key
+         * is being rotated
+         *
+         * @return the key as {@link UserKey}
+         */
+        private UserKey getIndexKey() {
+            return previous != null ? previous : current;
+        }
+
+        /**
+         * Method used to wipe the raw keys, invoked when the keys leave the cache
+         */
+        private void destroy() {
+            current.secretKey().destroy();
+            if (previous != null)
+                previous.secretKey().destroy();
+        }
+
+    }
+
 }
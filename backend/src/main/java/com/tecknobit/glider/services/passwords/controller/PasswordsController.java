@@ -1,15 +1,33 @@
 package com.tecknobit.glider.services.passwords.controller;
 
 import com.tecknobit.apimanager.annotations.RequestPath;
+import com.tecknobit.apimanager.formatters.JsonHelper;
 import com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController;
 import com.tecknobit.equinoxcore.annotations.Validator;
+import com.tecknobit.glider.services.passwords.dtos.PasswordGenerationEntry;
+import com.tecknobit.glider.services.passwords.dtos.PasswordImportEntry;
+import com.tecknobit.glider.services.passwords.dtos.PasswordMask;
+import com.tecknobit.glider.services.passwords.dtos.PasswordScopesEntry;
 import com.tecknobit.glider.services.passwords.entities.Password;
 import com.tecknobit.glider.services.passwords.services.PasswordsService;
 import com.tecknobit.glider.services.shared.controllers.DefaultGliderController;
+import com.tecknobit.glider.services.shared.dtos.BulkOperationReport;
+import com.tecknobit.glider.services.shared.dtos.BulkOperationReport.ItemFailure;
+import com.tecknobit.glidercore.enums.KeychainView;
 import com.tecknobit.glidercore.enums.PasswordType;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,9 +37,9 @@ import static com.tecknobit.equinoxcore.helpers.InputsValidator.Companion;
 import static com.tecknobit.equinoxcore.network.EquinoxBaseEndpointsSet.BASE_EQUINOX_ENDPOINT;
 import static com.tecknobit.equinoxcore.pagination.PaginatedResponse.*;
 import static com.tecknobit.glidercore.ConstantsKt.*;
-import static com.tecknobit.glidercore.helpers.GliderEndpointsSet.KEYCHAIN_ENDPOINT;
-import static com.tecknobit.glidercore.helpers.GliderEndpointsSet.REFRESH_ENDPOINT;
+import static com.tecknobit.glidercore.helpers.GliderEndpointsSet.*;
 import static com.tecknobit.glidercore.helpers.GliderInputsValidator.INSTANCE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * The {@code PasswordsController} class is useful to handle the requests to operate with {@link Password} entities
@@ -44,6 +62,16 @@ public class PasswordsController extends DefaultGliderController {
      */
     public static final String WRONG_SCOPES_MESSAGE = "wrong_scopes";
 
+    /**
+     * {@code WRONG_PASSWORDS_LIST_MESSAGE} message to use when the list of the passwords of a bulk request is wrong
+     */
+    public static final String WRONG_PASSWORDS_LIST_MESSAGE = "wrong_passwords_list";
+
+    /**
+     * {@code MAX_BULK_ITEMS} the max number of the items allowed in a bulk request
+     */
+    public static final int MAX_BULK_ITEMS = 5000;
+
     /**
      * {@code passwordsService} helper to manage the passwords database operations
      */
@@ -112,6 +140,94 @@ public class PasswordsController extends DefaultGliderController {
         }
     }
 
+    /**
+     * Endpoint used to generate a batch of new passwords for a user, the configuration specified at the top level of
+     * the payload is shared by all the passwords and can be overridden by each item
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     * @param payload  Payload of the request
+     *                 <pre>
+     *                      {@code
+     *                              {
+     *                                  "length" : "the shared length of the passwords" -> [Integer],
+     *                                  "include_numbers" : "whether the generated passwords must include the numbers" -> [Boolean],
+     *                                  "include_uppercase_letters": "whether the generated passwords must include the uppercase letters" -> [Boolean],
+     *                                  "include_special_characters": "whether the generated passwords must include the special characters" -> [Boolean],
+     *                                  "passwords": [
+     *                                      {
+     *                                          "tail": "the tail of the password" -> [String],
+     *                                          "scopes": "the scopes of the password" -> [String],
+     *                                          "length" : "the length of the password" -> [Integer] (optional),
+     *                                          "include_numbers" : "whether the generated password must include the numbers" -> [Boolean] (optional),
+     *                                          "include_uppercase_letters": "whether the generated password must include the uppercase letters" -> [Boolean] (optional),
+     *                                          "include_special_characters": "whether the generated password must include the special characters" -> [Boolean] (optional)
+     *                                      }
+     *                                  ]
+     *                              }
+     *                      }
+     *                 </pre>
+     * @return the result of the request as {@link T}
+     */
+    @PutMapping(
+            path = BATCH_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/batch", method = PUT)
+    public <T> T generatePasswords(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @RequestBody Map<String, Object> payload
+    ) {
+        if (!validRequester(userId, token, deviceId))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        loadJsonHelper(payload);
+        JSONArray rawEntries = jsonHelper.getJSONArray(PASSWORDS_KEY);
+        if (!bulkListValid(rawEntries))
+            return (T) failedResponse(WRONG_PASSWORDS_LIST_MESSAGE);
+        int sharedLength = jsonHelper.getInt(PASSWORD_LENGTH_KEY);
+        boolean sharedIncludeNumbers = jsonHelper.getBoolean(INCLUDE_NUMBERS_KEY, true);
+        boolean sharedIncludeUppercaseLetters = jsonHelper.getBoolean(INCLUDE_UPPERCASE_LETTERS_KEY, true);
+        boolean sharedIncludeSpecialCharacters = jsonHelper.getBoolean(INCLUDE_SPECIAL_CHARACTERS_KEY, true);
+        List<PasswordGenerationEntry> entries = new ArrayList<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int j = 0; j < rawEntries.length(); j++) {
+            JSONObject rawEntry = rawEntries.optJSONObject(j);
+            if (rawEntry == null) {
+                failures.add(new ItemFailure(j, WRONG_PASSWORDS_LIST_MESSAGE));
+                continue;
+            }
+            JsonHelper hEntry = new JsonHelper(rawEntry);
+            String tail = hEntry.getString(TAIL_KEY);
+            String scopes = hEntry.getString(SCOPES_KEY);
+            int length = hEntry.getInt(PASSWORD_LENGTH_KEY, sharedLength);
+            if (!INSTANCE.tailIsValid(tail))
+                failures.add(new ItemFailure(j, WRONG_TAIL_MESSAGE));
+            else if (!INSTANCE.scopesAreValid(scopes))
+                failures.add(new ItemFailure(j, WRONG_SCOPES_MESSAGE));
+            else if (!INSTANCE.passwordLengthValid(length))
+                failures.add(new ItemFailure(j, WRONG_PASSWORD_MESSAGE));
+            else {
+                entries.add(new PasswordGenerationEntry(j, tail, scopes, length,
+                        hEntry.getBoolean(INCLUDE_NUMBERS_KEY, sharedIncludeNumbers),
+                        hEntry.getBoolean(INCLUDE_UPPERCASE_LETTERS_KEY, sharedIncludeUppercaseLetters),
+                        hEntry.getBoolean(INCLUDE_SPECIAL_CHARACTERS_KEY, sharedIncludeSpecialCharacters)));
+            }
+        }
+        try {
+            BulkOperationReport<PasswordMask> report = passwordsService.generatePasswords(me, token, entries);
+            failures.addAll(report.failures());
+            return (T) successResponse(new BulkOperationReport<>(report.completed(), failures));
+        } catch (Exception e) {
+            return (T) failedResponse(WRONG_PROCEDURE_MESSAGE);
+        }
+    }
+
     /**
      * Endpoint used to insert a password owned by a user
      *
@@ -163,6 +279,78 @@ public class PasswordsController extends DefaultGliderController {
         return successResponse();
     }
 
+    /**
+     * Endpoint used to import a list of passwords owned by a user
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     * @param payload Payload of the request
+     *                 <pre>
+     *                      {@code
+     *                              {
+     *                                  "passwords": [
+     *                                      {
+     *                                          "tail": "the tail of the password" -> [String],
+     *                                          "scopes": "the scopes of the password" -> [String],
+     *                                          "password": "the value of the password" -> [String]
+     *                                      }
+     *                                  ]
+     *                              }
+     *                      }
+     *                 </pre>
+     * @return the result of the request as {@link T}
+     */
+    @PostMapping(
+            path = IMPORT_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/import", method = POST)
+    public <T> T importPasswords(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @RequestBody Map<String, Object> payload
+    ) {
+        if (!validRequester(userId, token, deviceId))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        loadJsonHelper(payload);
+        JSONArray rawEntries = jsonHelper.getJSONArray(PASSWORDS_KEY);
+        if (!bulkListValid(rawEntries))
+            return (T) failedResponse(WRONG_PASSWORDS_LIST_MESSAGE);
+        List<PasswordImportEntry> entries = new ArrayList<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int j = 0; j < rawEntries.length(); j++) {
+            JSONObject rawEntry = rawEntries.optJSONObject(j);
+            if (rawEntry == null) {
+                failures.add(new ItemFailure(j, WRONG_PASSWORDS_LIST_MESSAGE));
+                continue;
+            }
+            JsonHelper hEntry = new JsonHelper(rawEntry);
+            String tail = hEntry.getString(TAIL_KEY);
+            String scopes = hEntry.getString(SCOPES_KEY);
+            String password = hEntry.getString(PASSWORD_KEY);
+            if (!INSTANCE.tailIsValid(tail))
+                failures.add(new ItemFailure(j, WRONG_TAIL_MESSAGE));
+            else if (!INSTANCE.scopesAreValid(scopes))
+                failures.add(new ItemFailure(j, WRONG_SCOPES_MESSAGE));
+            else if (!Companion.isPasswordValid(password))
+                failures.add(new ItemFailure(j, WRONG_PASSWORD_MESSAGE));
+            else
+                entries.add(new PasswordImportEntry(j, tail, scopes, password));
+        }
+        try {
+            BulkOperationReport<String> report = passwordsService.importPasswords(me, token, entries);
+            failures.addAll(report.failures());
+            return (T) successResponse(new BulkOperationReport<>(report.completed(), failures));
+        } catch (Exception e) {
+            return (T) failedResponse(WRONG_PROCEDURE_MESSAGE);
+        }
+    }
+
     /**
      * Endpoint used to edit an existing password of a user
      *
@@ -215,6 +403,80 @@ public class PasswordsController extends DefaultGliderController {
         return successResponse();
     }
 
+    /**
+     * Endpoint used to edit the scopes of a list of passwords owned by the user, the ownership of all the passwords is
+     * verified with a single query
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     * @param payload Payload of the request
+     *                 <pre>
+     *                      {@code
+     *                              {
+     *                                  "passwords": [
+     *                                      {
+     *                                          "password_id": "the identifier of the password" -> [String],
+     *                                          "scopes": "the new scopes of the password" -> [String]
+     *                                      }
+     *                                  ]
+     *                              }
+     *                      }
+     *                 </pre>
+     * @return the result of the request as {@link T}
+     */
+    @PatchMapping(
+            path = BATCH_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/batch", method = PATCH)
+    public <T> T editPasswords(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @RequestBody Map<String, Object> payload
+    ) {
+        if (!validRequester(userId, token, deviceId))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        loadJsonHelper(payload);
+        JSONArray rawEntries = jsonHelper.getJSONArray(PASSWORDS_KEY);
+        if (!bulkListValid(rawEntries))
+            return (T) failedResponse(WRONG_PASSWORDS_LIST_MESSAGE);
+        List<PasswordScopesEntry> entries = new ArrayList<>();
+        Set<String> passwordsIds = new HashSet<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int j = 0; j < rawEntries.length(); j++) {
+            JSONObject rawEntry = rawEntries.optJSONObject(j);
+            if (rawEntry == null) {
+                failures.add(new ItemFailure(j, WRONG_PASSWORDS_LIST_MESSAGE));
+                continue;
+            }
+            JsonHelper hEntry = new JsonHelper(rawEntry);
+            String passwordId = hEntry.getString(PASSWORD_IDENTIFIER_KEY);
+            String scopes = hEntry.getString(SCOPES_KEY);
+            if (passwordId == null || passwordId.isBlank())
+                failures.add(new ItemFailure(j, WRONG_PASSWORDS_LIST_MESSAGE));
+            else if (!INSTANCE.scopesAreValid(scopes))
+                failures.add(new ItemFailure(j, WRONG_SCOPES_MESSAGE));
+            else {
+                entries.add(new PasswordScopesEntry(j, passwordId, scopes));
+                passwordsIds.add(passwordId);
+            }
+        }
+        if (!passwordsIds.isEmpty() && !passwordsService.passwordsBelongToUser(userId, passwordsIds))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        try {
+            BulkOperationReport<String> report = passwordsService.editPasswordsScopes(userId, token, entries);
+            failures.addAll(report.failures());
+            return (T) successResponse(new BulkOperationReport<>(report.completed(), failures));
+        } catch (Exception e) {
+            return (T) failedResponse(WRONG_PROCEDURE_MESSAGE);
+        }
+    }
+
     /**
      * Endpoint used to retrieve a password owned by the user
      *
@@ -248,6 +510,39 @@ public class PasswordsController extends DefaultGliderController {
         }
     }
 
+    /**
+     * Endpoint used to retrieve the events of a password owned by the user, from the most recent one
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     * @param passwordId The identifier of the password
+     * @param page      The page requested
+     * @param pageSize  The size of the items to insert in the page
+     *
+     * @return the result of the request as {@link T}
+     */
+    @GetMapping(
+            path = "/{" + PASSWORD_IDENTIFIER_KEY + "}/" + EVENTS_KEY,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/{password_id}/events", method = GET)
+    public <T> T getPasswordEvents(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @PathVariable(PASSWORD_IDENTIFIER_KEY) String passwordId,
+            @RequestParam(name = PAGE_KEY, defaultValue = DEFAULT_PAGE_HEADER_VALUE, required = false) int page,
+            @RequestParam(name = PAGE_SIZE_KEY, defaultValue = DEFAULT_PAGE_SIZE_HEADER_VALUE, required = false) int pageSize
+    ) {
+        if (!validPasswordRequest(userId, token, deviceId, passwordId))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        return (T) successResponse(passwordsService.getPasswordEvents(passwordId, page, pageSize));
+    }
+
     /**
      * Endpoint used to retrieve the keychain owned by the user
      *
@@ -258,8 +553,13 @@ public class PasswordsController extends DefaultGliderController {
      * @param pageSize  The size of the items to insert in the page
      * @param keywords The filter keywords
      * @param types The types of the passwords to retrieve
+     * @param view The view of the keychain, {@link KeychainView#LIST} to retrieve the passwords without their values
+     * @param ifNoneMatch The entity tag of the keychain already owned by the client
      *
      * @return the result of the request as {@link T}
+     *
+     * @apiNote the response is tagged with the version of the keychain, when the {@code If-None-Match} header matches
+     * with the current version the request is answered with {@code 304 Not Modified} without loading the keychain
      */
     @GetMapping(
             path = "/" + KEYCHAIN_ENDPOINT,
@@ -276,17 +576,98 @@ public class PasswordsController extends DefaultGliderController {
             @RequestParam(name = PAGE_KEY, defaultValue = DEFAULT_PAGE_HEADER_VALUE, required = false) int page,
             @RequestParam(name = PAGE_SIZE_KEY, defaultValue = DEFAULT_PAGE_SIZE_HEADER_VALUE, required = false) int pageSize,
             @RequestParam(name = KEYWORDS_KEY, defaultValue = "", required = false) Set<String> keywords,
-            @RequestParam(name = TYPE_KEY, defaultValue = "GENERATED, INSERTED", required = false) Set<String> types
+            @RequestParam(name = TYPE_KEY, defaultValue = "GENERATED, INSERTED", required = false) Set<String> types,
+            @RequestParam(name = VIEW_KEY, defaultValue = "FULL", required = false) KeychainView view,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         if (!validRequester(userId, token, deviceId))
             return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        String eTag = passwordsService.getKeychainETag(userId, page, pageSize, keywords, types, view);
+        if (passwordsService.keychainETagMatches(ifNoneMatch, eTag))
+            return (T) ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         try {
-            return (T) successResponse(passwordsService.getKeychain(userId, token, page, pageSize, keywords, types));
+            return (T) ResponseEntity.ok()
+                    .eTag(eTag)
+                    .body(successResponse(passwordsService.getKeychain(userId, token, page, pageSize, keywords, types,
+                            view)));
         } catch (Exception e) {
             return (T) failedResponse(WRONG_PROCEDURE_MESSAGE);
         }
     }
 
+    /**
+     * Endpoint used to retrieve the changes of the keychain owned by the user since the last sync of a device
+     *
+     * @param userId         The identifier of the user
+     * @param token          The token of the user
+     * @param deviceId       The identifier of the device of the user
+     * @param since          The date of the last sync of the device
+     * @param changeSequence The last change sequence returned by the previous sync of the device
+     *
+     * @return the result of the request as {@link T}
+     */
+    @GetMapping(
+            path = SYNC_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/sync", method = GET)
+    public <T> T syncKeychain(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @RequestParam(name = SINCE_KEY, defaultValue = "0", required = false) long since,
+            @RequestParam(name = CHANGE_SEQUENCE_KEY, defaultValue = "-1", required = false) long changeSequence
+    ) {
+        if (!validRequester(userId, token, deviceId))
+            return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        try {
+            return (T) successResponse(passwordsService.syncKeychain(userId, token, since, changeSequence));
+        } catch (Exception e) {
+            return (T) failedResponse(WRONG_PROCEDURE_MESSAGE);
+        }
+    }
+
+    /**
+     * Endpoint used to export the whole keychain owned by the user, the passwords are streamed as newline-delimited
+     * JSON, one password per line
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     *
+     * @return the result of the request as {@link ResponseEntity} of {@link StreamingResponseBody}
+     *
+     * @apiNote the return type must declare the {@link StreamingResponseBody}, so the response is streamed by Spring,
+     * also the failed response is wrapped in a {@link StreamingResponseBody}
+     */
+    @GetMapping(
+            path = EXPORT_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/export", method = GET)
+    public ResponseEntity<StreamingResponseBody> exportKeychain(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId
+    ) {
+        if (!validRequester(userId, token, deviceId)) {
+            byte[] response = failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE).getBytes(UTF_8);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> outputStream.write(response));
+        }
+        StreamingResponseBody exporter = outputStream -> passwordsService.exportKeychain(userId, token, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exporter);
+    }
+
     /**
      * Endpoint used to notify the copy of a password
      *
@@ -376,10 +757,71 @@ public class PasswordsController extends DefaultGliderController {
     ) {
         if (!validPasswordRequest(userId, token, deviceId, passwordId))
             return failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
-        passwordsService.deletePassword(passwordId);
+        passwordsService.deletePassword(userId, passwordId);
         return successResponse();
     }
 
+    /**
+     * Endpoint used to delete a list of passwords owned by the user, the ownership of all the passwords is verified
+     * with a single query and the passwords are deleted with a single statement
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param deviceId The identifier of the device of the user
+     * @param payload Payload of the request
+     *                 <pre>
+     *                      {@code
+     *                              {
+     *                                  "passwords": "the identifiers of the passwords to delete" -> [String[]]
+     *                              }
+     *                      }
+     *                 </pre>
+     * @return the result of the request as {@link String}
+     */
+    @DeleteMapping(
+            path = BATCH_ENDPOINT,
+            headers = {
+                    TOKEN_KEY,
+                    DEVICE_IDENTIFIER_KEY
+            }
+    )
+    @RequestPath(path = "/api/v1/users/{id}/passwords/batch", method = DELETE)
+    public String deletePasswords(
+            @PathVariable(IDENTIFIER_KEY) String userId,
+            @RequestHeader(TOKEN_KEY) String token,
+            @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId,
+            @RequestBody Map<String, Object> payload
+    ) {
+        if (!validRequester(userId, token, deviceId))
+            return failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        loadJsonHelper(payload);
+        JSONArray rawPasswordsIds = jsonHelper.getJSONArray(PASSWORDS_KEY);
+        if (!bulkListValid(rawPasswordsIds))
+            return failedResponse(WRONG_PASSWORDS_LIST_MESSAGE);
+        Set<String> passwordsIds = new HashSet<>();
+        for (int j = 0; j < rawPasswordsIds.length(); j++) {
+            String passwordId = rawPasswordsIds.optString(j, null);
+            if (passwordId == null || passwordId.isBlank())
+                return failedResponse(WRONG_PASSWORDS_LIST_MESSAGE);
+            passwordsIds.add(passwordId);
+        }
+        if (!passwordsService.passwordsBelongToUser(userId, passwordsIds))
+            return failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        passwordsService.deletePasswords(userId, passwordsIds);
+        return successResponse();
+    }
+
+    /**
+     * Method used to validate the list of items of a bulk request
+     *
+     * @param items The items of the request
+     * @return whether the list of items is valid as {@code boolean}
+     */
+    @Validator
+    private boolean bulkListValid(JSONArray items) {
+        return items != null && !items.isEmpty() && items.length() <= MAX_BULK_ITEMS;
+    }
+
     /**
      * Method used to validate a request related to a {@link Password}'s operation
      *
@@ -394,7 +836,7 @@ public class PasswordsController extends DefaultGliderController {
         boolean validRequester = validRequester(userId, token, deviceId);
         if (!validRequester)
             return false;
-        return me.passwordBelongsToMe(passwordId);
+        return passwordsService.passwordBelongsToUser(userId, passwordId);
     }
 
 }
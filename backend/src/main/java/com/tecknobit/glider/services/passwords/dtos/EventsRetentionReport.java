@@ -0,0 +1,21 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+/**
+ * The {@code EventsRetentionReport} record class is the {@link DTO} used to share the outcome of a run of the
+ * retention of the {@link com.tecknobit.glider.services.passwords.entities.PasswordEvent}s
+ *
+ * @param startDate        When the run started
+ * @param duration         How many milliseconds the run lasted
+ * @param cutoffDate       The date before which the events have been pruned
+ * @param prunedEvents     The number of the events deleted
+ * @param storedAggregates The number of the daily aggregates inserted or updated with the pruned events
+ * @param prunedTombstones The number of the tombstones of the deleted passwords deleted
+ * @param chunks           The number of the transactions executed
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record EventsRetentionReport(long startDate, long duration, long cutoffDate, long prunedEvents,
+                                    long storedAggregates, long prunedTombstones, int chunks) {
+}
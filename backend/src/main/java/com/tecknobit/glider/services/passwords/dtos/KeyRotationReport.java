@@ -0,0 +1,39 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+/**
+ * The {@code KeyRotationReport} record class is the {@link DTO} used to share the progress of a run of the rotation of
+ * the private keys of the users
+ *
+ * @param startDate         When the run started
+ * @param duration          How many milliseconds the run lasted
+ * @param keyGeneration     The generation of the keys which the users are rotated to
+ * @param checkedUsers      The number of the users whose key has been checked
+ * @param rotatedUsers      The number of the users whose key has been rotated
+ * @param pendingUsers      The number of the users whose passwords are re-encrypted but whose previous key is kept
+ *                          until a later run, or whose rotation is blocked by conflicting tails
+ * @param failedUsers       The number of the users whose rotation failed and will be retried by the next run
+ * @param rotatedPasswords  The number of the passwords re-encrypted with the new keys
+ * @param conflictingPasswords The number of the passwords not re-encrypted because their re-encrypted tail is
+ *                          already used by another password
+ * @param chunks            The number of the transactions executed
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record KeyRotationReport(long startDate, long duration, int keyGeneration, int checkedUsers, int rotatedUsers,
+                                int pendingUsers, int failedUsers, long rotatedPasswords, int conflictingPasswords,
+                                int chunks) {
+
+    /**
+     * Method used to get the throughput of the run
+     *
+     * @return the number of the passwords re-encrypted per second as {@code double}
+     */
+    public double throughput() {
+        if (duration == 0)
+            return 0;
+        return rotatedPasswords * 1000.0 / duration;
+    }
+
+}
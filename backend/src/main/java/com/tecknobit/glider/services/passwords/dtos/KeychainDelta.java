@@ -0,0 +1,24 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+import com.tecknobit.glider.services.passwords.entities.Password;
+
+import java.util.List;
+
+/**
+ * The {@code KeychainDelta} record class is the {@link DTO} used to share the changes of the keychain of a user since
+ * the last sync of a device
+ *
+ * @param passwords        The passwords created, edited or refreshed since the last sync
+ * @param deletedPasswords The identifiers of the passwords deleted since the last sync
+ * @param syncDate         The date to use as the last sync date of the next sync request
+ * @param changeSequence   The last change sequence of the keychain included, to use as the cursor of the next sync
+ *                         request
+ * @param fullResync       Whether the changes cannot be resolved anymore, so the device must download the whole
+ *                         keychain again
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record KeychainDelta(List<Password> passwords, List<String> deletedPasswords, long syncDate,
+                            long changeSequence, boolean fullResync) {
+}
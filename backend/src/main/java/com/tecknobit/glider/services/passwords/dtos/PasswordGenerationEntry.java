@@ -0,0 +1,21 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+/**
+ * The {@code PasswordGenerationEntry} record class is the {@link DTO} used to share a validated entry of a batch
+ * generation of {@link com.tecknobit.glidercore.enums.PasswordType#GENERATED} passwords
+ *
+ * @param index                    The position of the entry in the requested list
+ * @param tail                     The tail of the password
+ * @param scopes                   The scopes of the password
+ * @param length                   The length of the password
+ * @param includeNumbers           Whether the generated password must include the numbers
+ * @param includeUppercaseLetters  Whether the generated password must include the uppercase letters
+ * @param includeSpecialCharacters Whether the generated password must include the special characters
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record PasswordGenerationEntry(int index, String tail, String scopes, int length, boolean includeNumbers,
+                                      boolean includeUppercaseLetters, boolean includeSpecialCharacters) {
+}
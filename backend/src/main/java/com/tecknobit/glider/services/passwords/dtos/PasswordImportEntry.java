@@ -0,0 +1,17 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+/**
+ * The {@code PasswordImportEntry} record class is the {@link DTO} used to share a validated entry of a bulk import of
+ * {@link com.tecknobit.glidercore.enums.PasswordType#INSERTED} passwords
+ *
+ * @param index    The position of the entry in the imported list
+ * @param tail     The tail of the password
+ * @param scopes   The scopes of the password
+ * @param password The value of the password
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record PasswordImportEntry(int index, String tail, String scopes, String password) {
+}
@@ -5,8 +5,8 @@ import com.tecknobit.glider.services.passwords.entities.Password;
 
 /**
  * The {@code PasswordMask} class is used to represent a shared password with the specific details to edit that password
- * such tail, scopes and, if the password is a {@link com.tecknobit.glidercore.enums.PasswordType#INSERTED} one, the
- * current value of the password
+ * such tail, scopes and the current value of the password, which is decrypted on demand when the keychain has been
+ * retrieved with the {@link com.tecknobit.glidercore.enums.KeychainView#LIST} view
  *
  * @author N7ghtm4r3 - Tecknobit
  */
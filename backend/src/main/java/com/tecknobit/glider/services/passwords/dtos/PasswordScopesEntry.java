@@ -0,0 +1,16 @@
+package com.tecknobit.glider.services.passwords.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+/**
+ * The {@code PasswordScopesEntry} record class is the {@link DTO} used to share a validated entry of a bulk edit of the
+ * scopes of the passwords
+ *
+ * @param index      The position of the entry in the edited list
+ * @param passwordId The identifier of the password
+ * @param scopes     The new scopes of the password
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record PasswordScopesEntry(int index, String passwordId, String scopes) {
+}
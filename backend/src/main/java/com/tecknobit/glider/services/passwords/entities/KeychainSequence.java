@@ -0,0 +1,88 @@
+package com.tecknobit.glider.services.passwords.entities;
+
+import com.tecknobit.equinoxbackend.annotations.EmptyConstructor;
+import com.tecknobit.equinoxbackend.environment.services.builtin.entity.EquinoxItem;
+import com.tecknobit.glider.services.users.entities.GliderUser;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.USER_IDENTIFIER_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.CHANGE_SEQUENCE_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.KEYCHAIN_SEQUENCES_KEY;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
+
+/**
+ * The {@code KeychainSequence} class is used to keep the last change sequence assigned to the changes of the keychain
+ * of a user. The sequence is increased by the same transaction which stores the events or the tombstones of the
+ * change, so its row stays locked until that transaction commits and the changes of the user are committed in the
+ * order of their sequences, which can be used by the devices as the cursor of the delta sync
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see EquinoxItem
+ */
+@Entity
+@Table(name = KEYCHAIN_SEQUENCES_KEY)
+public class KeychainSequence extends EquinoxItem {
+
+    /**
+     * {@code changeSequence} the last change sequence assigned to the changes of the keychain of the user
+     */
+    @Column(
+            name = CHANGE_SEQUENCE_KEY,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0"
+    )
+    private final long changeSequence;
+
+    /**
+     * {@code user} the user owner of the keychain
+     */
+    @OneToOne
+    @JoinColumn(
+            name = USER_IDENTIFIER_KEY,
+            unique = true
+    )
+    @OnDelete(action = CASCADE)
+    private final GliderUser user;
+
+    /**
+     * Constructor to init the {@link KeychainSequence} class
+     *
+     * @apiNote empty constructor required
+     */
+    @EmptyConstructor
+    public KeychainSequence() {
+        this(null, 0, null);
+    }
+
+    /**
+     * Constructor to init the {@link KeychainSequence} class
+     *
+     * @param id             The identifier of the sequence
+     * @param changeSequence The last change sequence assigned to the changes of the keychain of the user
+     * @param user           The user owner of the keychain
+     */
+    public KeychainSequence(String id, long changeSequence, GliderUser user) {
+        super(id);
+        this.changeSequence = changeSequence;
+        this.user = user;
+    }
+
+    /**
+     * Method used to get the {@link #changeSequence} instance
+     *
+     * @return the {@link #changeSequence} instance as {@code long}
+     */
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    /**
+     * Method used to get the {@link #user} instance
+     *
+     * @return the {@link #user} instance as {@link GliderUser}
+     */
+    public GliderUser getUser() {
+        return user;
+    }
+
+}
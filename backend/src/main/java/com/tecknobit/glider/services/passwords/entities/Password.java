@@ -18,8 +18,7 @@ import java.util.Set;
 import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper.COMMA;
 import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.CREATION_DATE_KEY;
 import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.PASSWORD_KEY;
-import static com.tecknobit.glidercore.ConstantsKt.EVENT_DATE_KEY;
-import static com.tecknobit.glidercore.ConstantsKt.PASSWORDS_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
 import static jakarta.persistence.EnumType.STRING;
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 
@@ -40,21 +39,39 @@ public class Password extends EquinoxItem {
     private final long creationDate;
 
     /**
-     * {@code tail} the tail of the password
+     * {@code encryptedTail} the encrypted tail of the password
      */
-    @Column(unique = true)
+    @Column(name = TAIL_KEY, unique = true)
+    private byte[] encryptedTail;
+
+    /**
+     * {@code encryptedPassword} the encrypted password value
+     */
+    @Column(name = PASSWORD_KEY)
+    private byte[] encryptedPassword;
+
+    /**
+     * {@code encryptedScopes} the encrypted scopes of the password
+     */
+    @Column(name = SCOPES_KEY)
+    private byte[] encryptedScopes;
+
+    /**
+     * {@code tail} the tail of the password, available when the password has been decrypted
+     */
+    @Transient
     private String tail;
 
     /**
-     * {@code password} the password value
+     * {@code password} the password value, available when the password has been decrypted
      */
-    @Column
+    @Transient
     private String password;
 
     /**
-     * {@code scopes} the scopes of the password
+     * {@code scopes} the scopes of the password, available when the password has been decrypted
      */
-    @Column
+    @Transient
     private String scopes;
 
     /**
@@ -180,7 +197,49 @@ public class Password extends EquinoxItem {
     }
 
     /**
-     * Method used to set the decrypted data of the password
+     * Method used to get the {@link #encryptedTail} instance
+     *
+     * @return the {@link #encryptedTail} instance as array of {@code byte}
+     */
+    @JsonIgnore
+    public byte[] getEncryptedTail() {
+        return encryptedTail;
+    }
+
+    /**
+     * Method used to get the {@link #encryptedPassword} instance
+     *
+     * @return the {@link #encryptedPassword} instance as array of {@code byte}
+     */
+    @JsonIgnore
+    public byte[] getEncryptedPassword() {
+        return encryptedPassword;
+    }
+
+    /**
+     * Method used to get the {@link #encryptedScopes} instance
+     *
+     * @return the {@link #encryptedScopes} instance as array of {@code byte}
+     */
+    @JsonIgnore
+    public byte[] getEncryptedScopes() {
+        return encryptedScopes;
+    }
+
+    /**
+     * Method used to set the encrypted data of a password not stored yet
+     *
+     * @param encryptedData The encrypted data to set, as tail, password value and scopes
+     */
+    @JsonIgnore
+    public void setEncryptedData(Triple<byte[], byte[], byte[]> encryptedData) {
+        encryptedTail = encryptedData.getFirst();
+        encryptedPassword = encryptedData.getSecond();
+        encryptedScopes = encryptedData.getThird();
+    }
+
+    /**
+     * Method used to set the decrypted data of the password, the decrypted data are never stored
      *
      * @param decryptedData The decrypted data to set
      */
@@ -204,7 +263,10 @@ public class Password extends EquinoxItem {
      * Method used to get the {@link #events} instance
      *
      * @return the {@link #events} instance as {@link List} of {@link PasswordEvent}
+     *
+     * @apiNote the events are not serialized with the password, they are served paginated by the dedicated endpoint
      */
+    @JsonIgnore
     public List<PasswordEvent> getEvents() {
         return events;
     }
@@ -1,6 +1,7 @@
 package com.tecknobit.glider.services.passwords.entities;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.tecknobit.equinoxbackend.annotations.EmptyConstructor;
 import com.tecknobit.equinoxbackend.environment.services.builtin.entity.EquinoxItem;
@@ -8,8 +9,7 @@ import com.tecknobit.glidercore.enums.PasswordEventType;
 import jakarta.persistence.*;
 import org.hibernate.annotations.OnDelete;
 
-import static com.tecknobit.glidercore.ConstantsKt.EVENT_DATE_KEY;
-import static com.tecknobit.glidercore.ConstantsKt.PASSWORD_EVENTS_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
 import static jakarta.persistence.EnumType.STRING;
 import static org.hibernate.annotations.OnDeleteAction.CASCADE;
 
@@ -20,7 +20,14 @@ import static org.hibernate.annotations.OnDeleteAction.CASCADE;
  * @see EquinoxItem
  */
 @Entity
-@Table(name = PASSWORD_EVENTS_KEY)
+@Table(
+        name = PASSWORD_EVENTS_KEY,
+        indexes = {
+                @Index(columnList = PASSWORD_IDENTIFIER_KEY + "," + EVENT_DATE_KEY),
+                @Index(columnList = EVENT_DATE_KEY),
+                @Index(columnList = PASSWORD_IDENTIFIER_KEY + "," + CHANGE_SEQUENCE_KEY)
+        }
+)
 public class PasswordEvent extends EquinoxItem {
 
     /**
@@ -35,6 +42,25 @@ public class PasswordEvent extends EquinoxItem {
     @Enumerated(value = STRING)
     private final PasswordEventType type;
 
+    /**
+     * {@code occurrences} how many times the event occurred, greater than one when repeated events have been
+     * coalesced in a single one
+     */
+    @Column(
+            name = OCCURRENCES_KEY,
+            columnDefinition = "INT NOT NULL DEFAULT 1"
+    )
+    private final int occurrences;
+
+    /**
+     * {@code changeSequence} the change sequence of the keychain of the user assigned when the event has been stored
+     */
+    @Column(
+            name = CHANGE_SEQUENCE_KEY,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0"
+    )
+    private final long changeSequence;
+
     /**
      * {@code password} the password owner of the event
      */
@@ -52,7 +78,7 @@ public class PasswordEvent extends EquinoxItem {
      */
     @EmptyConstructor
     public PasswordEvent() {
-        this(null, -1, null, null);
+        this(null, -1, null, 1, null);
     }
 
     /**
@@ -64,9 +90,24 @@ public class PasswordEvent extends EquinoxItem {
      * @param password  The password owner of the event
      */
     public PasswordEvent(String id, long eventDate, PasswordEventType type, Password password) {
+        this(id, eventDate, type, 1, password);
+    }
+
+    /**
+     * Constructor to init the {@link PasswordEvent} class
+     *
+     * @param id          The identifier of the event
+     * @param eventDate   When the event occurred, the first occurrence if the event has been coalesced
+     * @param type        The type of the event
+     * @param occurrences How many times the event occurred
+     * @param password    The password owner of the event
+     */
+    public PasswordEvent(String id, long eventDate, PasswordEventType type, int occurrences, Password password) {
         super(id);
         this.eventDate = eventDate;
         this.type = type;
+        this.occurrences = occurrences;
+        changeSequence = 0;
         this.password = password;
     }
 
@@ -89,11 +130,31 @@ public class PasswordEvent extends EquinoxItem {
         return type;
     }
 
+    /**
+     * Method used to get the {@link #occurrences} instance
+     *
+     * @return the {@link #occurrences} instance as {@code int}
+     */
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * Method used to get the {@link #changeSequence} instance
+     *
+     * @return the {@link #changeSequence} instance as {@code long}
+     */
+    @JsonIgnore
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
     /**
      * Method used to get the {@link #password} instance
      *
      * @return the {@link #password} instance as {@link  Password}
      */
+    @JsonIgnore
     public Password getPassword() {
         return password;
     }
@@ -0,0 +1,124 @@
+package com.tecknobit.glider.services.passwords.entities;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tecknobit.equinoxbackend.annotations.EmptyConstructor;
+import com.tecknobit.equinoxbackend.environment.services.builtin.entity.EquinoxItem;
+import com.tecknobit.glidercore.enums.PasswordEventType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+
+import static com.tecknobit.glidercore.ConstantsKt.*;
+import static jakarta.persistence.EnumType.STRING;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
+
+/**
+ * The {@code PasswordEventAggregate} class is used to represent the daily roll-up of the {@link PasswordEvent}s of the
+ * same type of a {@link Password}, created by the retention of the old events
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see EquinoxItem
+ */
+@Entity
+@Table(
+        name = PASSWORD_EVENT_AGGREGATES_KEY,
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {PASSWORD_IDENTIFIER_KEY, TYPE_KEY, EVENT_DAY_KEY})
+        }
+)
+public class PasswordEventAggregate extends EquinoxItem {
+
+    /**
+     * {@code eventDay} the start of the UTC day when the events occurred
+     */
+    @Column(name = EVENT_DAY_KEY)
+    private final long eventDay;
+
+    /**
+     * {@code type} the type of the events
+     */
+    @Enumerated(value = STRING)
+    @Column(name = TYPE_KEY)
+    private final PasswordEventType type;
+
+    /**
+     * {@code occurrences} how many times the events occurred in the day
+     */
+    @Column(name = OCCURRENCES_KEY)
+    private final long occurrences;
+
+    /**
+     * {@code password} the password owner of the events
+     */
+    @ManyToOne
+    @JoinColumn(name = PASSWORD_IDENTIFIER_KEY)
+    @OnDelete(action = CASCADE)
+    private final Password password;
+
+    /**
+     * Constructor to init the {@link PasswordEventAggregate} class
+     *
+     * @apiNote empty constructor required
+     */
+    @EmptyConstructor
+    public PasswordEventAggregate() {
+        this(null, -1, null, 0, null);
+    }
+
+    /**
+     * Constructor to init the {@link PasswordEventAggregate} class
+     *
+     * @param id          The identifier of the aggregate
+     * @param eventDay    The start of the UTC day when the events occurred
+     * @param type        The type of the events
+     * @param occurrences How many times the events occurred in the day
+     * @param password    The password owner of the events
+     */
+    public PasswordEventAggregate(String id, long eventDay, PasswordEventType type, long occurrences,
+                                  Password password) {
+        super(id);
+        this.eventDay = eventDay;
+        this.type = type;
+        this.occurrences = occurrences;
+        this.password = password;
+    }
+
+    /**
+     * Method used to get the {@link #eventDay} instance
+     *
+     * @return the {@link #eventDay} instance as {@code long}
+     */
+    @JsonGetter(EVENT_DAY_KEY)
+    public long getEventDay() {
+        return eventDay;
+    }
+
+    /**
+     * Method used to get the {@link #type} instance
+     *
+     * @return the {@link #type} instance as {@link PasswordEventType}
+     */
+    public PasswordEventType getType() {
+        return type;
+    }
+
+    /**
+     * Method used to get the {@link #occurrences} instance
+     *
+     * @return the {@link #occurrences} instance as {@code long}
+     */
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * Method used to get the {@link #password} instance
+     *
+     * @return the {@link #password} instance as {@link Password}
+     */
+    @JsonIgnore
+    public Password getPassword() {
+        return password;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.tecknobit.glider.services.passwords.entities;
+
+import com.tecknobit.equinoxbackend.annotations.EmptyConstructor;
+import com.tecknobit.equinoxbackend.environment.services.builtin.entity.EquinoxItem;
+import com.tecknobit.glider.services.users.entities.GliderUser;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.USER_IDENTIFIER_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
+
+/**
+ * The {@code PasswordKeyword} class is used to represent a blind token of the keywords index of a {@link Password}.
+ * Each token is the keyed digest of a fragment of the tail or of the scopes of the password, so the keyword searches
+ * can be executed without decrypting the passwords. Each token records the generation of the key used to compute it,
+ * so the tokens computed with a key no longer used by the index are ignored and rebuilt
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see EquinoxItem
+ */
+@Entity
+@Table(
+        name = PASSWORD_KEYWORDS_KEY,
+        indexes = {
+                @Index(columnList = USER_IDENTIFIER_KEY + "," + KEYWORD_TOKEN_KEY)
+        }
+)
+public class PasswordKeyword extends EquinoxItem {
+
+    /**
+     * {@code keywordToken} the blind token of the keyword fragment
+     */
+    @Column(name = KEYWORD_TOKEN_KEY)
+    private final String keywordToken;
+
+    /**
+     * {@code keywordGeneration} the generation of the key of the user used to compute the token
+     */
+    @Column(
+            name = KEYWORD_GENERATION_KEY,
+            columnDefinition = "INT NOT NULL DEFAULT 0"
+    )
+    private final int keywordGeneration;
+
+    /**
+     * {@code password} the password owner of the token
+     */
+    @ManyToOne
+    @JoinColumn(name = PASSWORD_IDENTIFIER_KEY)
+    @OnDelete(action = CASCADE)
+    private final Password password;
+
+    /**
+     * {@code user} the user owner of the password
+     */
+    @ManyToOne
+    @JoinColumn(name = USER_IDENTIFIER_KEY)
+    @OnDelete(action = CASCADE)
+    private final GliderUser user;
+
+    /**
+     * Constructor to init the {@link PasswordKeyword} class
+     *
+     * @apiNote empty constructor required
+     */
+    @EmptyConstructor
+    public PasswordKeyword() {
+        this(null, null, 0, null, null);
+    }
+
+    /**
+     * Constructor to init the {@link PasswordKeyword} class
+     *
+     * @param id                The identifier of the token
+     * @param keywordToken      The blind token of the keyword fragment
+     * @param keywordGeneration The generation of the key of the user used to compute the token
+     * @param password          The password owner of the token
+     * @param user              The user owner of the password
+     */
+    public PasswordKeyword(String id, String keywordToken, int keywordGeneration, Password password, GliderUser user) {
+        super(id);
+        this.keywordToken = keywordToken;
+        this.keywordGeneration = keywordGeneration;
+        this.password = password;
+        this.user = user;
+    }
+
+    /**
+     * Method used to get the {@link #keywordToken} instance
+     *
+     * @return the {@link #keywordToken} instance as {@link String}
+     */
+    public String getKeywordToken() {
+        return keywordToken;
+    }
+
+    /**
+     * Method used to get the {@link #keywordGeneration} instance
+     *
+     * @return the {@link #keywordGeneration} instance as {@code int}
+     */
+    public int getKeywordGeneration() {
+        return keywordGeneration;
+    }
+
+    /**
+     * Method used to get the {@link #password} instance
+     *
+     * @return the {@link #password} instance as {@link Password}
+     */
+    public Password getPassword() {
+        return password;
+    }
+
+    /**
+     * Method used to get the {@link #user} instance
+     *
+     * @return the {@link #user} instance as {@link GliderUser}
+     */
+    public GliderUser getUser() {
+        return user;
+    }
+
+}
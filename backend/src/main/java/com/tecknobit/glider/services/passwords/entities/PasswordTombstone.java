@@ -0,0 +1,123 @@
+package com.tecknobit.glider.services.passwords.entities;
+
+import com.tecknobit.equinoxbackend.annotations.EmptyConstructor;
+import com.tecknobit.equinoxbackend.environment.services.builtin.entity.EquinoxItem;
+import com.tecknobit.glider.services.users.entities.GliderUser;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.USER_IDENTIFIER_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+import static org.hibernate.annotations.OnDeleteAction.CASCADE;
+
+/**
+ * The {@code PasswordTombstone} class is used to keep track of a deleted {@link Password}, so the devices of the user
+ * can learn about the deletion with the delta sync of the keychain
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see EquinoxItem
+ */
+@Entity
+@Table(
+        name = PASSWORD_TOMBSTONES_KEY,
+        indexes = {
+                @Index(columnList = USER_IDENTIFIER_KEY + "," + DELETION_DATE_KEY),
+                @Index(columnList = DELETION_DATE_KEY),
+                @Index(columnList = USER_IDENTIFIER_KEY + "," + CHANGE_SEQUENCE_KEY)
+        }
+)
+public class PasswordTombstone extends EquinoxItem {
+
+    /**
+     * {@code passwordId} the identifier of the deleted password
+     */
+    @Column(name = PASSWORD_IDENTIFIER_KEY)
+    private final String passwordId;
+
+    /**
+     * {@code deletionDate} the date when the password has been deleted
+     */
+    @Column(name = DELETION_DATE_KEY)
+    private final long deletionDate;
+
+    /**
+     * {@code changeSequence} the change sequence of the keychain of the user assigned to the deletion
+     */
+    @Column(
+            name = CHANGE_SEQUENCE_KEY,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0"
+    )
+    private final long changeSequence;
+
+    /**
+     * {@code user} the user owner of the deleted password
+     */
+    @ManyToOne
+    @JoinColumn(name = USER_IDENTIFIER_KEY)
+    @OnDelete(action = CASCADE)
+    private final GliderUser user;
+
+    /**
+     * Constructor to init the {@link PasswordTombstone} class
+     *
+     * @apiNote empty constructor required
+     */
+    @EmptyConstructor
+    public PasswordTombstone() {
+        this(null, null, -1, 0, null);
+    }
+
+    /**
+     * Constructor to init the {@link PasswordTombstone} class
+     *
+     * @param id             The identifier of the tombstone
+     * @param passwordId     The identifier of the deleted password
+     * @param deletionDate   The date when the password has been deleted
+     * @param changeSequence The change sequence of the keychain of the user assigned to the deletion
+     * @param user           The user owner of the deleted password
+     */
+    public PasswordTombstone(String id, String passwordId, long deletionDate, long changeSequence, GliderUser user) {
+        super(id);
+        this.passwordId = passwordId;
+        this.deletionDate = deletionDate;
+        this.changeSequence = changeSequence;
+        this.user = user;
+    }
+
+    /**
+     * Method used to get the {@link #passwordId} instance
+     *
+     * @return the {@link #passwordId} instance as {@link String}
+     */
+    public String getPasswordId() {
+        return passwordId;
+    }
+
+    /**
+     * Method used to get the {@link #deletionDate} instance
+     *
+     * @return the {@link #deletionDate} instance as {@code long}
+     */
+    public long getDeletionDate() {
+        return deletionDate;
+    }
+
+    /**
+     * Method used to get the {@link #changeSequence} instance
+     *
+     * @return the {@link #changeSequence} instance as {@code long}
+     */
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+
+    /**
+     * Method used to get the {@link #user} instance
+     *
+     * @return the {@link #user} instance as {@link GliderUser}
+     */
+    public GliderUser getUser() {
+        return user;
+    }
+
+}
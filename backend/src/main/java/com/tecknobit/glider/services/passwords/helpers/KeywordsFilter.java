@@ -0,0 +1,67 @@
+package com.tecknobit.glider.services.passwords.helpers;
+
+import com.tecknobit.equinoxcore.annotations.Validator;
+import com.tecknobit.glider.services.passwords.entities.Password;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code KeywordsFilter} class is used to apply the filter keywords to a decrypted keychain, keeping the passwords
+ * whose tail or any scope contains any of the keywords
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class KeywordsFilter {
+
+    /**
+     * {@code filter} the singleton instance of the filter
+     */
+    private static final KeywordsFilter filter = new KeywordsFilter();
+
+    /**
+     * Constructor to instantiate the object
+     */
+    private KeywordsFilter() {
+    }
+
+    /**
+     * Method used to apply the keywords filter to a list of decrypted passwords
+     *
+     * @param passwords The passwords list to filter
+     * @param keywords  The filter keywords to apply
+     * @return the passwords list filtered as {@link List} of {@link Password}
+     */
+    public List<Password> filterPasswords(List<Password> passwords, Set<String> keywords) {
+        List<Password> filteredPasswords = new ArrayList<>();
+        for (Password password : passwords) {
+            String tail = password.getTail().toLowerCase();
+            if (keywords.isEmpty() || (tailMatches(keywords, tail) || password.scopesMatch(keywords)))
+                filteredPasswords.add(password);
+        }
+        return filteredPasswords;
+    }
+
+    /**
+     * Method used to check whether the tail of the password matches with any keywords
+     *
+     * @param keywords The filter keywords
+     * @param tail     The tail of the password
+     * @return whether the tail of the password matches with any keywords as {@code boolean}
+     */
+    @Validator
+    private boolean tailMatches(Set<String> keywords, String tail) {
+        return !keywords.stream().filter(keyword -> tail.contains(keyword.toLowerCase())).toList().isEmpty();
+    }
+
+    /**
+     * Method used to obtain the instance of the filter
+     *
+     * @return the filter instance as {@link KeywordsFilter}
+     */
+    public static KeywordsFilter getInstance() {
+        return filter;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.tecknobit.glider.services.passwords.helpers;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper.COMMA;
+
+/**
+ * The {@code KeywordsTokenizer} class is used to split the tail and the scopes of a
+ * {@link com.tecknobit.glider.services.passwords.entities.Password} in the fragments indexed by the keywords index and
+ * to split the filter keywords in the fragments to lookup
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class KeywordsTokenizer {
+
+    /**
+     * {@code FRAGMENT_MAX_LENGTH} the max length of the indexed fragments
+     */
+    private static final int FRAGMENT_MAX_LENGTH = 3;
+
+    /**
+     * {@code tokenizer} the singleton instance of the tokenizer
+     */
+    private static final KeywordsTokenizer tokenizer = new KeywordsTokenizer();
+
+    /**
+     * Constructor to instantiate the object
+     */
+    private KeywordsTokenizer() {
+    }
+
+    /**
+     * Method used to get the fragments to index for a password, so all the substrings up to {@link #FRAGMENT_MAX_LENGTH}
+     * characters of the tail and of each scope
+     *
+     * @param tail   The tail of the password
+     * @param scopes The scopes of the password
+     * @return the fragments to index as {@link Set} of {@link String}
+     */
+    public Set<String> getIndexFragments(String tail, String scopes) {
+        Set<String> fragments = new HashSet<>();
+        addFragments(fragments, tail.toLowerCase());
+        if (scopes != null)
+            for (String scope : scopes.toLowerCase().split(COMMA))
+                addFragments(fragments, scope);
+        return fragments;
+    }
+
+    /**
+     * Method used to add all the substrings up to {@link #FRAGMENT_MAX_LENGTH} characters of a value
+     *
+     * @param fragments The fragments collected
+     * @param value     The value to split
+     */
+    private void addFragments(Set<String> fragments, String value) {
+        int valueLength = value.length();
+        for (int start = 0; start < valueLength; start++) {
+            int maxEnd = Math.min(start + FRAGMENT_MAX_LENGTH, valueLength);
+            for (int end = start + 1; end <= maxEnd; end++)
+                fragments.add(value.substring(start, end));
+        }
+    }
+
+    /**
+     * Method used to get the fragments to lookup for a filter keyword, a password contains the keyword only if it has
+     * been indexed with all these fragments
+     *
+     * @param keyword The filter keyword
+     * @return the fragments to lookup as {@link Set} of {@link String}
+     */
+    public Set<String> getKeywordFragments(String keyword) {
+        String normalizedKeyword = keyword.toLowerCase();
+        Set<String> fragments = new HashSet<>();
+        int keywordLength = normalizedKeyword.length();
+        if (keywordLength <= FRAGMENT_MAX_LENGTH)
+            fragments.add(normalizedKeyword);
+        else {
+            for (int start = 0; start + FRAGMENT_MAX_LENGTH <= keywordLength; start++)
+                fragments.add(normalizedKeyword.substring(start, start + FRAGMENT_MAX_LENGTH));
+        }
+        return fragments;
+    }
+
+    /**
+     * Method used to obtain the instance of the tokenizer
+     *
+     * @return the tokenizer instance as {@link KeywordsTokenizer}
+     */
+    public static KeywordsTokenizer getInstance() {
+        return tokenizer;
+    }
+
+}
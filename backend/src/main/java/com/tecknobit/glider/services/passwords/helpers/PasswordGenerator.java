@@ -1,13 +1,11 @@
 package com.tecknobit.glider.services.passwords.helpers;
 
 import com.tecknobit.equinoxcore.annotations.Wrapper;
+import com.tecknobit.glider.helpers.RandomnessProvider;
 import com.tecknobit.glider.services.passwords.entities.PasswordConfiguration;
 
 import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * The {@code PasswordGenerator} class is used to generate the {@link com.tecknobit.glider.services.passwords.entities.Password}
@@ -23,45 +21,58 @@ public class PasswordGenerator {
     private static final PasswordGenerator generator = new PasswordGenerator();
 
     /**
-     * {@code CHARACTERS} the available characters to generate a password
+     * {@code LOWERCASE_LETTERS} the lowercase letters characters always available to generate a password
      */
-    private static final char[] CHARACTERS = {
-            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v',
-            'w', 'x', 'y', 'z',
-            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
-            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V',
-            'W', 'X', 'Y', 'Z',
-            '!', '@', '#', '$', '%', '^', '&', '*', '(', ')', '-', '_', '=', '+', '[', ']', '{', '}', '|', ';', ':', '\'',
-            '\"', ',', '.', '<', '>', '?', '/', '\\', '`', '~'
-    };
+    private static final char[] LOWERCASE_LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
 
     /**
      * {@code DIGITS} the digits characters available to generate a password
      */
-    private static final HashSet<Character> DIGITS = new HashSet<>(
-            List.of('0', '1', '2', '3', '4', '5', '6', '7', '8', '9')
-    );
+    private static final char[] DIGITS = "0123456789".toCharArray();
 
     /**
      * {@code UPPERCASE_LETTERS} the uppercase letters characters available to generate a password
      */
-    private static final HashSet<Character> UPPERCASE_LETTERS = new HashSet<>(
-            List.of('A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R',
-                    'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z')
-    );
+    private static final char[] UPPERCASE_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
 
     /**
      * {@code SPECIAL_CHARACTERS} the special characters available to generate a password
      */
-    private static final HashSet<Character> SPECIAL_CHARACTERS = new HashSet<>(
-            List.of('!', '@', '#', '$', '%', '^', '&', '*', '(', ')', '-', '_', '=', '+', '[', ']', '{', '}',
-                    '|', ';', ':', '\'', '\"', ',', '.', '<', '>', '?', '/', '\\', '`', '~')
-    );
+    private static final char[] SPECIAL_CHARACTERS = "!@#$%^&*()-_=+[]{}|;:'\",.<>?/\\`~".toCharArray();
 
     /**
-     * {@code BASE_OFFSET} the base offset from the {@link #CHARACTERS} lowercase letters
+     * {@code INCLUDE_NUMBERS_FLAG} the flag of the alphabets which include the {@link #DIGITS}
      */
-    private static final int BASE_OFFSET = 26;
+    private static final int INCLUDE_NUMBERS_FLAG = 1;
+
+    /**
+     * {@code INCLUDE_UPPERCASE_LETTERS_FLAG} the flag of the alphabets which include the {@link #UPPERCASE_LETTERS}
+     */
+    private static final int INCLUDE_UPPERCASE_LETTERS_FLAG = 1 << 1;
+
+    /**
+     * {@code INCLUDE_SPECIAL_CHARACTERS_FLAG} the flag of the alphabets which include the {@link #SPECIAL_CHARACTERS}
+     */
+    private static final int INCLUDE_SPECIAL_CHARACTERS_FLAG = 1 << 2;
+
+    /**
+     * {@code ALPHABETS} the precomputed alphabets available to generate a password, indexed by the combination of
+     * the constraint flags
+     */
+    private static final char[][] ALPHABETS = new char[1 << 3][];
+
+    static {
+        for (int flags = 0; flags < ALPHABETS.length; flags++) {
+            StringBuilder alphabet = new StringBuilder().append(LOWERCASE_LETTERS);
+            if ((flags & INCLUDE_NUMBERS_FLAG) != 0)
+                alphabet.append(DIGITS);
+            if ((flags & INCLUDE_UPPERCASE_LETTERS_FLAG) != 0)
+                alphabet.append(UPPERCASE_LETTERS);
+            if ((flags & INCLUDE_SPECIAL_CHARACTERS_FLAG) != 0)
+                alphabet.append(SPECIAL_CHARACTERS);
+            ALPHABETS[flags] = alphabet.toString().toCharArray();
+        }
+    }
 
     /**
      * Constructor to instantiate the object
@@ -92,104 +103,81 @@ public class PasswordGenerator {
      *
      * @return the generated password as {@link String}
      */
+    @Wrapper
     public String generatePassword(int length, boolean includeNumbers, boolean includeUppercaseLetters,
                                    boolean includeSpecialCharacters) {
-        ArrayList<Character> password = new ArrayList<>();
-        SecureRandom secureRandom = new SecureRandom();
-        guaranteeConstraintCharacters(password, secureRandom, includeNumbers, includeUppercaseLetters,
-                includeSpecialCharacters);
-        for (int j = password.size(); j < length; j++) {
-            char character;
-            do {
-                int characterIndex = secureRandom.nextInt(CHARACTERS.length);
-                character = CHARACTERS[characterIndex];
-            } while (!constraintsValid(character, includeNumbers, includeUppercaseLetters, includeSpecialCharacters));
-            password.add(character);
-        }
-        Collections.shuffle(password);
-        return convertToString(password);
+        RandomnessProvider provider = RandomnessProvider.getInstance();
+        return generatePassword(length, includeNumbers, includeUppercaseLetters, includeSpecialCharacters,
+                provider.getSecureRandom());
     }
 
     /**
-     * Method used to guarantee the password has the requested constraint characters
-     * @param password The current password's characters
-     * @param secureRandom The secure random instance used to generate the characters made up the password
+     *
+     * Method used to generate a password
+     *
+     * @param length The length of the generated password
      * @param includeNumbers Whether the generated password must include the numbers
      * @param includeUppercaseLetters Whether the generated password must include the uppercase letters
      * @param includeSpecialCharacters Whether the generated password must include the special characters
+     * @param secureRandom The secure random instance used to generate the characters made up the password, can be
+     *                     reused to generate more passwords
+     *
+     * @return the generated password as {@link String}
      */
-    private void guaranteeConstraintCharacters(ArrayList<Character> password, SecureRandom secureRandom,
-                                               boolean includeNumbers, boolean includeUppercaseLetters,
-                                               boolean includeSpecialCharacters) {
+    public String generatePassword(int length, boolean includeNumbers, boolean includeUppercaseLetters,
+                                   boolean includeSpecialCharacters, SecureRandom secureRandom) {
+        int flags = 0;
         if (includeNumbers)
-            password.add(CHARACTERS[getDigitsValidIndex(secureRandom)]);
+            flags |= INCLUDE_NUMBERS_FLAG;
         if (includeUppercaseLetters)
-            password.add(CHARACTERS[getUppercaseLettersValidIndex(secureRandom)]);
+            flags |= INCLUDE_UPPERCASE_LETTERS_FLAG;
         if (includeSpecialCharacters)
-            password.add(CHARACTERS[getSpecialCharactersValidIndex(secureRandom)]);
+            flags |= INCLUDE_SPECIAL_CHARACTERS_FLAG;
+        char[] alphabet = ALPHABETS[flags];
+        char[] password = new char[Math.max(length, Integer.bitCount(flags))];
+        int position = guaranteeConstraintCharacters(password, secureRandom, flags);
+        for (; position < password.length; position++)
+            password[position] = alphabet[secureRandom.nextInt(alphabet.length)];
+        shuffle(password, secureRandom);
+        String generatedPassword = new String(password);
+        Arrays.fill(password, '\0');
+        return generatedPassword;
     }
 
     /**
-     * Method used to get a valid index from the {@link #DIGITS} set
+     * Method used to guarantee the password has the requested constraint characters, placing them at the beginning
+     * of the password
      *
+     * @param password The password's characters
      * @param secureRandom The secure random instance used to generate the characters made up the password
-     * @return a valid index as {@code int}
-     */
-    private int getDigitsValidIndex(SecureRandom secureRandom) {
-        return BASE_OFFSET + secureRandom.nextInt(DIGITS.size());
-    }
-
-    /**
-     * Method used to get a valid index from the {@link #UPPERCASE_LETTERS} set
+     * @param flags The combination of the constraint flags requested
      *
-     * @param secureRandom The secure random instance used to generate the characters made up the password
-     * @return a valid index as {@code int}
-     */
-    private int getUppercaseLettersValidIndex(SecureRandom secureRandom) {
-        return BASE_OFFSET + DIGITS.size() + secureRandom.nextInt(UPPERCASE_LETTERS.size());
+     * @return the position of the first character still to generate as {@code int}
+     */
+    private int guaranteeConstraintCharacters(char[] password, SecureRandom secureRandom, int flags) {
+        int position = 0;
+        if ((flags & INCLUDE_NUMBERS_FLAG) != 0)
+            password[position++] = DIGITS[secureRandom.nextInt(DIGITS.length)];
+        if ((flags & INCLUDE_UPPERCASE_LETTERS_FLAG) != 0)
+            password[position++] = UPPERCASE_LETTERS[secureRandom.nextInt(UPPERCASE_LETTERS.length)];
+        if ((flags & INCLUDE_SPECIAL_CHARACTERS_FLAG) != 0)
+            password[position++] = SPECIAL_CHARACTERS[secureRandom.nextInt(SPECIAL_CHARACTERS.length)];
+        return position;
     }
 
     /**
-     * Method used to get a valid index from the {@link #SPECIAL_CHARACTERS} set
+     * Method used to shuffle in place the characters of the password with the Fisher-Yates algorithm
      *
+     * @param password The password's characters
      * @param secureRandom The secure random instance used to generate the characters made up the password
-     * @return a valid index as {@code int}
      */
-    private int getSpecialCharactersValidIndex(SecureRandom secureRandom) {
-        return BASE_OFFSET + DIGITS.size() + UPPERCASE_LETTERS.size() + secureRandom.nextInt(SPECIAL_CHARACTERS.size());
-    }
-
-    /**
-     * Method used to check whether the generated character respect the constraints requested by the user
-     *
-     * @param character The generated character to check
-     * @param includeNumbers Whether the generated password must include the numbers
-     * @param includeUppercaseLetters Whether the generated password must include the uppercase letters
-     * @param includeSpecialCharacters Whether the generated password must include the special characters
-     *
-     * @return whether the generated character respect the constraints requested by the user as {@code boolean}
-     */
-    private boolean constraintsValid(char character, boolean includeNumbers, boolean includeUppercaseLetters,
-                                     boolean includeSpecialCharacters) {
-        if (DIGITS.contains(character) && !includeNumbers)
-            return false;
-        if (UPPERCASE_LETTERS.contains(character) && !includeUppercaseLetters)
-            return false;
-        return !SPECIAL_CHARACTERS.contains(character) || includeSpecialCharacters;
-    }
-
-    /**
-     * Method used to convert the list of the generated password characters as concatenated string
-     *
-     * @param rawPassword The raw password characters
-     *
-     * @return the password converted as {@link String}
-     */
-    private String convertToString(ArrayList<Character> rawPassword) {
-        StringBuilder converter = new StringBuilder();
-        for (Character character : rawPassword)
-            converter.append(character);
-        return converter.toString();
+    private void shuffle(char[] password, SecureRandom secureRandom) {
+        for (int j = password.length - 1; j > 0; j--) {
+            int swapIndex = secureRandom.nextInt(j + 1);
+            char character = password[j];
+            password[j] = password[swapIndex];
+            password[swapIndex] = character;
+        }
     }
 
     /**
@@ -1,9 +1,17 @@
 package com.tecknobit.glider.services.passwords.repositories;
 
 import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper._WHERE_;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+
 /**
  * The {@code PasswordEventsRepository} interface is useful to manage the queries for the events operations
  *
@@ -13,4 +21,40 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface PasswordEventsRepository extends JpaRepository<PasswordEvent, String> {
+
+    /**
+     * Query used to retrieve the events of a password, from the most recent one
+     *
+     * @param passwordId The identifier of the password
+     * @param pageable The parameters to paginate the query
+     *
+     * @return the events of the password as {@link List} of {@link PasswordEvent}
+     */
+    @Query(
+            value = "SELECT * FROM " + PASSWORD_EVENTS_KEY +
+                    _WHERE_ + PASSWORD_IDENTIFIER_KEY + "=:" + PASSWORD_IDENTIFIER_KEY +
+                    " ORDER BY " + EVENT_DATE_KEY + " DESC",
+            nativeQuery = true
+    )
+    List<PasswordEvent> getPasswordEvents(
+            @Param(PASSWORD_IDENTIFIER_KEY) String passwordId,
+            Pageable pageable
+    );
+
+    /**
+     * Query used to count the events of a password
+     *
+     * @param passwordId The identifier of the password
+     *
+     * @return the total events of the password as {@code long}
+     */
+    @Query(
+            value = "SELECT COUNT(*) FROM " + PASSWORD_EVENTS_KEY +
+                    _WHERE_ + PASSWORD_IDENTIFIER_KEY + "=:" + PASSWORD_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    long countPasswordEvents(
+            @Param(PASSWORD_IDENTIFIER_KEY) String passwordId
+    );
+
 }
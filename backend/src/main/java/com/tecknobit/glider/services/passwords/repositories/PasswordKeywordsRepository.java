@@ -0,0 +1,112 @@
+package com.tecknobit.glider.services.passwords.repositories;
+
+import com.tecknobit.glider.services.passwords.entities.PasswordKeyword;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper._WHERE_;
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.USER_IDENTIFIER_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+
+/**
+ * The {@code PasswordKeywordsRepository} interface is useful to manage the queries for the keywords index operations
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see JpaRepository
+ * @see PasswordKeyword
+ */
+@Repository
+public interface PasswordKeywordsRepository extends JpaRepository<PasswordKeyword, String> {
+
+    /**
+     * {@code TOKENS_COUNT_KEY} the key for the number of the tokens a password must match
+     */
+    String TOKENS_COUNT_KEY = "tokens_count";
+
+    /**
+     * Query used to retrieve the identifiers of the passwords indexed with all the specified tokens, ignoring the
+     * tokens computed with another key generation
+     *
+     * @param userId The identifier of the user
+     * @param keywordTokens The tokens the passwords must be indexed with
+     * @param keywordGeneration The generation of the key used to compute the specified tokens
+     * @param tokensCount The number of the distinct tokens specified
+     *
+     * @return the identifiers of the matching passwords as {@link List} of {@link String}
+     */
+    @Query(
+            value = "SELECT " + PASSWORD_IDENTIFIER_KEY + " FROM " + PASSWORD_KEYWORDS_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + KEYWORD_TOKEN_KEY + " IN (:" + KEYWORD_TOKEN_KEY + ")" +
+                    " AND " + KEYWORD_GENERATION_KEY + "=:" + KEYWORD_GENERATION_KEY +
+                    " GROUP BY " + PASSWORD_IDENTIFIER_KEY +
+                    " HAVING COUNT(DISTINCT " + KEYWORD_TOKEN_KEY + ")=:" + TOKENS_COUNT_KEY,
+            nativeQuery = true
+    )
+    List<String> getMatchingPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(KEYWORD_TOKEN_KEY) Set<String> keywordTokens,
+            @Param(KEYWORD_GENERATION_KEY) int keywordGeneration,
+            @Param(TOKENS_COUNT_KEY) long tokensCount
+    );
+
+    /**
+     * Query used to delete the tokens of a password
+     *
+     * @param passwordId The identifier of the password
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            value = "DELETE FROM " + PASSWORD_KEYWORDS_KEY + _WHERE_ + PASSWORD_IDENTIFIER_KEY + "=:" + PASSWORD_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    void deletePasswordKeywords(
+            @Param(PASSWORD_IDENTIFIER_KEY) String passwordId
+    );
+
+    /**
+     * Query used to delete the tokens of a list of passwords
+     *
+     * @param passwordsIds The identifiers of the passwords
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            value = "DELETE FROM " + PASSWORD_KEYWORDS_KEY + _WHERE_ + PASSWORD_IDENTIFIER_KEY + " IN (:" +
+                    PASSWORD_IDENTIFIER_KEY + ")",
+            nativeQuery = true
+    )
+    void deletePasswordsKeywords(
+            @Param(PASSWORD_IDENTIFIER_KEY) Collection<String> passwordsIds
+    );
+
+    /**
+     * Query used to delete the tokens of the keywords index of the user computed with a key generation different from
+     * the specified one
+     *
+     * @param userId The identifier of the user
+     * @param keywordGeneration The generation of the key currently used by the keywords index of the user
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            value = "DELETE FROM " + PASSWORD_KEYWORDS_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + KEYWORD_GENERATION_KEY + "<>:" + KEYWORD_GENERATION_KEY,
+            nativeQuery = true
+    )
+    void deleteStaleUserKeywords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(KEYWORD_GENERATION_KEY) int keywordGeneration
+    );
+
+}
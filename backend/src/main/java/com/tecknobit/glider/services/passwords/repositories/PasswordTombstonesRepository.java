@@ -0,0 +1,49 @@
+package com.tecknobit.glider.services.passwords.repositories;
+
+import com.tecknobit.glider.services.passwords.entities.PasswordTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper._WHERE_;
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.USER_IDENTIFIER_KEY;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+
+/**
+ * The {@code PasswordTombstonesRepository} interface is useful to manage the queries for the tombstones of the deleted
+ * passwords
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see JpaRepository
+ * @see PasswordTombstone
+ */
+@Repository
+public interface PasswordTombstonesRepository extends JpaRepository<PasswordTombstone, String> {
+
+    /**
+     * Query used to retrieve the identifiers of the passwords of the user deleted between two change sequences of the
+     * keychain
+     *
+     * @param userId The identifier of the user
+     * @param since The change sequence after which the passwords must have been deleted
+     * @param changeSequence The last change sequence to include
+     *
+     * @return the identifiers of the deleted passwords as {@link List} of {@link String}
+     */
+    @Query(
+            value = "SELECT DISTINCT " + PASSWORD_IDENTIFIER_KEY + " FROM " + PASSWORD_TOMBSTONES_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + CHANGE_SEQUENCE_KEY + ">:" + SINCE_KEY +
+                    " AND " + CHANGE_SEQUENCE_KEY + "<=:" + CHANGE_SEQUENCE_KEY,
+            nativeQuery = true
+    )
+    List<String> getDeletedPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(SINCE_KEY) long since,
+            @Param(CHANGE_SEQUENCE_KEY) long changeSequence
+    );
+
+}
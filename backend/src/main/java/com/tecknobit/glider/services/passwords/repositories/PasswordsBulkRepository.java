@@ -0,0 +1,857 @@
+package com.tecknobit.glider.services.passwords.repositories;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.passwords.entities.PasswordConfiguration;
+import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
+import com.tecknobit.glider.services.passwords.entities.PasswordEventAggregate;
+import com.tecknobit.glidercore.enums.PasswordEventType;
+import com.tecknobit.glidercore.enums.PasswordType;
+import kotlin.Pair;
+import kotlin.Triple;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper._WHERE_;
+import static com.tecknobit.equinoxcore.helpers.CommonKeysKt.*;
+import static com.tecknobit.glidercore.ConstantsKt.*;
+
+/**
+ * The {@code PasswordsBulkRepository} class is useful to manage the passwords operations which work on a large number
+ * of rows, executed directly with JDBC to avoid to load managed entities in the persistence context and to send the
+ * writes as batched statements
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ * @see Password
+ * @see PasswordEvent
+ */
+@Repository
+public class PasswordsBulkRepository {
+
+    /**
+     * {@code STREAM_PASSWORDS_QUERY} the query used to stream the passwords of the user
+     */
+    private static final String STREAM_PASSWORDS_QUERY = "SELECT " +
+            IDENTIFIER_KEY + "," +
+            CREATION_DATE_KEY + "," +
+            TAIL_KEY + "," +
+            PASSWORD_KEY + "," +
+            SCOPES_KEY + "," +
+            TYPE_KEY +
+            " FROM " + PASSWORDS_KEY +
+            _WHERE_ + USER_IDENTIFIER_KEY + "=?" +
+            " ORDER BY " + CREATION_DATE_KEY + " DESC, " + IDENTIFIER_KEY + " DESC";
+
+    /**
+     * {@code USER_PASSWORDS_QUERY} the query used to retrieve a list of passwords of the user
+     */
+    private static final String USER_PASSWORDS_QUERY = "SELECT " +
+            IDENTIFIER_KEY + "," +
+            CREATION_DATE_KEY + "," +
+            TAIL_KEY + "," +
+            PASSWORD_KEY + "," +
+            SCOPES_KEY + "," +
+            TYPE_KEY +
+            " FROM " + PASSWORDS_KEY +
+            _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+            " AND " + IDENTIFIER_KEY + " IN (:" + IDENTIFIER_KEY + ")";
+
+    /**
+     * {@code NOT_INDEXED_PASSWORDS_QUERY} the query used to retrieve the passwords of the user which have not been
+     * indexed by the keywords index yet, or have been indexed just with the tokens of another key generation
+     */
+    private static final String NOT_INDEXED_PASSWORDS_QUERY = "SELECT " +
+            "p." + IDENTIFIER_KEY + "," +
+            "p." + CREATION_DATE_KEY + "," +
+            "p." + TAIL_KEY + "," +
+            "p." + PASSWORD_KEY + "," +
+            "p." + SCOPES_KEY + "," +
+            "p." + TYPE_KEY +
+            " FROM " + PASSWORDS_KEY + " p" +
+            _WHERE_ + "p." + USER_IDENTIFIER_KEY + "=?" +
+            " AND NOT EXISTS (SELECT 1 FROM " + PASSWORD_KEYWORDS_KEY + " k" +
+            _WHERE_ + "k." + PASSWORD_IDENTIFIER_KEY + "=p." + IDENTIFIER_KEY +
+            " AND k." + KEYWORD_GENERATION_KEY + "=?)";
+
+    /**
+     * {@code UPDATE_SCOPES_QUERY} the query used to update the scopes of a password
+     */
+    private static final String UPDATE_SCOPES_QUERY = "UPDATE " + PASSWORDS_KEY + " SET " +
+            SCOPES_KEY + "=?" +
+            _WHERE_ + IDENTIFIER_KEY + "=?";
+
+    /**
+     * {@code INSERT_PASSWORD_QUERY} the query used to insert a password
+     */
+    private static final String INSERT_PASSWORD_QUERY = "INSERT INTO " + PASSWORDS_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            CREATION_DATE_KEY + "," +
+            TAIL_KEY + "," +
+            PASSWORD_KEY + "," +
+            SCOPES_KEY + "," +
+            TYPE_KEY + "," +
+            USER_IDENTIFIER_KEY +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * {@code INSERT_CONFIGURATION_QUERY} the query used to insert the configuration of a generated password
+     */
+    private static final String INSERT_CONFIGURATION_QUERY = "INSERT INTO " + PASSWORD_CONFIGURATIONS_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            PASSWORD_LENGTH_KEY + "," +
+            INCLUDE_NUMBERS_KEY + "," +
+            INCLUDE_UPPERCASE_LETTERS_KEY + "," +
+            INCLUDE_SPECIAL_CHARACTERS_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY +
+            ") VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * {@code INSERT_EVENT_QUERY} the query used to insert an event of a password
+     */
+    private static final String INSERT_EVENT_QUERY = "INSERT INTO " + PASSWORD_EVENTS_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            EVENT_DATE_KEY + "," +
+            TYPE_KEY + "," +
+            OCCURRENCES_KEY + "," +
+            CHANGE_SEQUENCE_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY +
+            ") VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * {@code INSERT_EXISTING_PASSWORD_EVENT_QUERY} the query used to insert an event of a password only if the password
+     * is still stored
+     */
+    private static final String INSERT_EXISTING_PASSWORD_EVENT_QUERY = "INSERT INTO " + PASSWORD_EVENTS_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            EVENT_DATE_KEY + "," +
+            TYPE_KEY + "," +
+            OCCURRENCES_KEY + "," +
+            CHANGE_SEQUENCE_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY +
+            ") SELECT ?, ?, ?, ?, ?, " + IDENTIFIER_KEY + " FROM " + PASSWORDS_KEY +
+            _WHERE_ + IDENTIFIER_KEY + "=?";
+
+    /**
+     * {@code EXPIRED_EVENTS_QUERY} the query used to retrieve a chunk of the events occurred before a date
+     */
+    private static final String EXPIRED_EVENTS_QUERY = "SELECT " +
+            IDENTIFIER_KEY + "," +
+            EVENT_DATE_KEY + "," +
+            TYPE_KEY + "," +
+            OCCURRENCES_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY +
+            " FROM " + PASSWORD_EVENTS_KEY +
+            _WHERE_ + EVENT_DATE_KEY + "<? ORDER BY " + EVENT_DATE_KEY + " LIMIT ?";
+
+    /**
+     * {@code DELETE_EVENTS_QUERY} the query used to delete a list of events
+     */
+    private static final String DELETE_EVENTS_QUERY = "DELETE FROM " + PASSWORD_EVENTS_KEY +
+            _WHERE_ + IDENTIFIER_KEY + " IN (:" + IDENTIFIER_KEY + ")";
+
+    /**
+     * {@code DELETE_EXPIRED_EVENTS_QUERY} the query used to delete a chunk of the events occurred before a date
+     */
+    private static final String DELETE_EXPIRED_EVENTS_QUERY = "DELETE FROM " + PASSWORD_EVENTS_KEY +
+            _WHERE_ + EVENT_DATE_KEY + "<? ORDER BY " + EVENT_DATE_KEY + " LIMIT ?";
+
+    /**
+     * {@code UPSERT_EVENT_AGGREGATE_QUERY} the query used to insert a daily aggregate of events or to add the
+     * occurrences to the existing one
+     */
+    private static final String UPSERT_EVENT_AGGREGATE_QUERY = "INSERT INTO " + PASSWORD_EVENT_AGGREGATES_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            EVENT_DAY_KEY + "," +
+            TYPE_KEY + "," +
+            OCCURRENCES_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY +
+            ") VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            OCCURRENCES_KEY + "=" + OCCURRENCES_KEY + "+VALUES(" + OCCURRENCES_KEY + ")";
+
+    /**
+     * {@code INSERT_KEYWORD_QUERY} the query used to insert a token of the keywords index
+     */
+    private static final String INSERT_KEYWORD_QUERY = "INSERT INTO " + PASSWORD_KEYWORDS_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            USER_IDENTIFIER_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY + "," +
+            KEYWORD_TOKEN_KEY + "," +
+            KEYWORD_GENERATION_KEY +
+            ") VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * {@code INSERT_TOMBSTONE_QUERY} the query used to insert the tombstone of a deleted password
+     */
+    private static final String INSERT_TOMBSTONE_QUERY = "INSERT INTO " + PASSWORD_TOMBSTONES_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            PASSWORD_IDENTIFIER_KEY + "," +
+            DELETION_DATE_KEY + "," +
+            CHANGE_SEQUENCE_KEY + "," +
+            USER_IDENTIFIER_KEY +
+            ") VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * {@code DELETE_EXPIRED_TOMBSTONES_QUERY} the query used to delete a chunk of the tombstones created before a date
+     */
+    private static final String DELETE_EXPIRED_TOMBSTONES_QUERY = "DELETE FROM " + PASSWORD_TOMBSTONES_KEY +
+            _WHERE_ + DELETION_DATE_KEY + "<? ORDER BY " + DELETION_DATE_KEY + " LIMIT ?";
+
+    /**
+     * {@code NEXT_CHANGE_SEQUENCE_QUERY} the query used to increase the change sequence of the keychain of a user,
+     * creating it if missing
+     */
+    private static final String NEXT_CHANGE_SEQUENCE_QUERY = "INSERT INTO " + KEYCHAIN_SEQUENCES_KEY + " (" +
+            IDENTIFIER_KEY + "," +
+            CHANGE_SEQUENCE_KEY + "," +
+            USER_IDENTIFIER_KEY +
+            ") VALUES (?, 1, ?) ON DUPLICATE KEY UPDATE " +
+            CHANGE_SEQUENCE_KEY + "=" + CHANGE_SEQUENCE_KEY + "+1";
+
+    /**
+     * {@code CHANGE_SEQUENCE_QUERY} the query used to retrieve the last change sequence of the keychain of a user
+     */
+    private static final String CHANGE_SEQUENCE_QUERY = "SELECT " + CHANGE_SEQUENCE_KEY + " FROM " +
+            KEYCHAIN_SEQUENCES_KEY + _WHERE_ + USER_IDENTIFIER_KEY + "=?";
+
+    /**
+     * {@code EXISTING_TAILS_QUERY} the query used to retrieve which of the specified encrypted tails are already stored
+     */
+    private static final String EXISTING_TAILS_QUERY = "SELECT " + TAIL_KEY + " FROM " + PASSWORDS_KEY +
+            _WHERE_ + TAIL_KEY + " IN (:" + TAIL_KEY + ")";
+
+    /**
+     * {@code USED_TAIL_QUERY} the query used to check whether an encrypted tail is already stored by a password
+     * different from the specified one
+     */
+    private static final String USED_TAIL_QUERY = "SELECT COUNT(*) FROM " + PASSWORDS_KEY +
+            _WHERE_ + TAIL_KEY + " IN (:" + TAIL_KEY + ")" +
+            " AND NOT " + IDENTIFIER_KEY + "<=>:" + IDENTIFIER_KEY;
+
+    /**
+     * {@code TEXTUAL_COLUMN_TYPE} the type of the columns which stored the ciphertexts as Base64 text
+     */
+    private static final String TEXTUAL_COLUMN_TYPE = "varchar";
+
+    /**
+     * {@code CIPHERTEXT_COLUMN_SIZE} the max size in bytes of the columns of the ciphertexts
+     */
+    private static final int CIPHERTEXT_COLUMN_SIZE = 255;
+
+    /**
+     * {@code RAW_CIPHERTEXT_MARKER} the literal of the {@link ServerVault#RAW_CIPHERTEXT_FORMAT} marker
+     */
+    private static final String RAW_CIPHERTEXT_MARKER = "0x01";
+
+    /**
+     * {@code KEYED_CIPHERTEXT_MARKER} the literal of the {@link ServerVault#KEYED_CIPHERTEXT_FORMAT} marker
+     */
+    private static final String KEYED_CIPHERTEXT_MARKER = "0x02";
+
+    /**
+     * {@code TAIL_COLUMN_TYPE_QUERY} the query used to retrieve the type of the column of the tails
+     */
+    private static final String TAIL_COLUMN_TYPE_QUERY = "SELECT DATA_TYPE FROM information_schema.COLUMNS" +
+            _WHERE_ + "TABLE_SCHEMA=DATABASE() AND TABLE_NAME='" + PASSWORDS_KEY + "'" +
+            " AND COLUMN_NAME='" + TAIL_KEY + "'";
+
+    /**
+     * {@code BINARY_CIPHERTEXT_COLUMNS_QUERY} the query used to convert the columns of the ciphertexts to binary columns,
+     * the stored Base64 texts are kept as they are
+     */
+    private static final String BINARY_CIPHERTEXT_COLUMNS_QUERY = "ALTER TABLE " + PASSWORDS_KEY +
+            " MODIFY " + TAIL_KEY + " VARBINARY(" + CIPHERTEXT_COLUMN_SIZE + ")," +
+            " MODIFY " + PASSWORD_KEY + " VARBINARY(" + CIPHERTEXT_COLUMN_SIZE + ")," +
+            " MODIFY " + SCOPES_KEY + " VARBINARY(" + CIPHERTEXT_COLUMN_SIZE + ")";
+
+    /**
+     * {@code CONVERT_LEGACY_CIPHERTEXTS_QUERY} the query used to convert a chunk of the rows with legacy Base64
+     * ciphertexts to raw ciphertexts
+     */
+    private static final String CONVERT_LEGACY_CIPHERTEXTS_QUERY = "UPDATE " + PASSWORDS_KEY + " SET " +
+            convertLegacyCiphertext(TAIL_KEY) + "," +
+            convertLegacyCiphertext(PASSWORD_KEY) + "," +
+            convertLegacyCiphertext(SCOPES_KEY) +
+            _WHERE_ + isLegacyCiphertext(TAIL_KEY) +
+            " OR " + isLegacyCiphertext(PASSWORD_KEY) +
+            " OR " + isLegacyCiphertext(SCOPES_KEY) +
+            " LIMIT ?";
+
+    /**
+     * {@code USERS_TOKENS_QUERY} the query used to retrieve a page of the identifiers and the tokens of the users
+     */
+    private static final String USERS_TOKENS_QUERY = "SELECT " + IDENTIFIER_KEY + "," + TOKEN_KEY +
+            " FROM " + USERS_KEY +
+            _WHERE_ + IDENTIFIER_KEY + ">? ORDER BY " + IDENTIFIER_KEY + " LIMIT ?";
+
+    /**
+     * {@code NOT_ROTATED_PASSWORDS_QUERY} the query used to retrieve a chunk of the passwords of the user with any
+     * ciphertext not encrypted with the current key
+     */
+    private static final String NOT_ROTATED_PASSWORDS_QUERY = "SELECT " +
+            IDENTIFIER_KEY + "," +
+            CREATION_DATE_KEY + "," +
+            TAIL_KEY + "," +
+            PASSWORD_KEY + "," +
+            SCOPES_KEY + "," +
+            TYPE_KEY +
+            " FROM " + PASSWORDS_KEY +
+            _WHERE_ + USER_IDENTIFIER_KEY + "=?" +
+            " AND " + IDENTIFIER_KEY + ">?" +
+            " AND (" + isNotRotatedCiphertext(TAIL_KEY) +
+            " OR " + isNotRotatedCiphertext(PASSWORD_KEY) +
+            " OR " + isNotRotatedCiphertext(SCOPES_KEY) + ")" +
+            " ORDER BY " + IDENTIFIER_KEY + " LIMIT ?";
+
+    /**
+     * {@code ROTATE_PASSWORD_QUERY} the query used to store the re-encrypted ciphertexts of a password only if they
+     * were not changed since they have been read
+     */
+    private static final String ROTATE_PASSWORD_QUERY = "UPDATE " + PASSWORDS_KEY + " SET " +
+            TAIL_KEY + "=?," +
+            PASSWORD_KEY + "=?," +
+            SCOPES_KEY + "=?" +
+            _WHERE_ + IDENTIFIER_KEY + "=?" +
+            " AND " + TAIL_KEY + "<=>?" +
+            " AND " + PASSWORD_KEY + "<=>?" +
+            " AND " + SCOPES_KEY + "<=>?";
+
+    /**
+     * {@code STREAMING_FETCH_SIZE} the fetch size which makes the MySQL driver stream the rows one by one instead of
+     * loading the whole result set in memory
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * {@code streamingTemplate} the template used to stream the rows
+     */
+    private final JdbcTemplate streamingTemplate;
+
+    /**
+     * {@code jdbcTemplate} the template used to execute the batched statements
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor used to init the repository
+     *
+     * @param dataSource The data source of the database
+     */
+    @Autowired
+    public PasswordsBulkRepository(DataSource dataSource) {
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Method used to insert a batch of passwords
+     *
+     * @param passwords The passwords to insert, with their data already encrypted
+     */
+    public void insertPasswords(List<Password> passwords) {
+        if (passwords.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_PASSWORD_QUERY, passwords, passwords.size(),
+                (statement, password) -> {
+                    statement.setString(1, password.getId());
+                    statement.setLong(2, password.getCreationDate());
+                    statement.setBytes(3, password.getEncryptedTail());
+                    statement.setBytes(4, password.getEncryptedPassword());
+                    statement.setBytes(5, password.getEncryptedScopes());
+                    statement.setString(6, password.getType().name());
+                    statement.setString(7, password.getUser().getId());
+                });
+    }
+
+    /**
+     * Method used to insert a batch of configurations of generated passwords
+     *
+     * @param configurations The configurations to insert, each one attached to its password
+     */
+    public void insertConfigurations(List<PasswordConfiguration> configurations) {
+        if (configurations.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CONFIGURATION_QUERY, configurations, configurations.size(),
+                (statement, configuration) -> {
+                    statement.setString(1, configuration.getId());
+                    statement.setInt(2, configuration.getLength());
+                    statement.setBoolean(3, configuration.includeNumbers());
+                    statement.setBoolean(4, configuration.includeUppercaseLetters());
+                    statement.setBoolean(5, configuration.includeSpecialCharacters());
+                    statement.setString(6, configuration.getPassword().getId());
+                });
+    }
+
+    /**
+     * Method used to insert a batch of events
+     *
+     * @param events The events to insert
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    public void insertEvents(List<PasswordEvent> events, long changeSequence) {
+        insertEvents(INSERT_EVENT_QUERY, events, changeSequence);
+    }
+
+    /**
+     * Method used to insert a batch of events, skipping the events of the passwords deleted in the meanwhile
+     *
+     * @param events The events to insert
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    public void insertExistingPasswordsEvents(List<PasswordEvent> events, long changeSequence) {
+        insertEvents(INSERT_EXISTING_PASSWORD_EVENT_QUERY, events, changeSequence);
+    }
+
+    /**
+     * Method used to insert a batch of events with the specified query
+     *
+     * @param query The query used to insert the events
+     * @param events The events to insert
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    private void insertEvents(String query, List<PasswordEvent> events, long changeSequence) {
+        if (events.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(query, events, events.size(),
+                (statement, event) -> {
+                    statement.setString(1, event.getId());
+                    statement.setLong(2, event.getEventDate());
+                    statement.setString(3, event.getType().name());
+                    statement.setInt(4, event.getOccurrences());
+                    statement.setLong(5, changeSequence);
+                    statement.setString(6, event.getPassword().getId());
+                });
+    }
+
+    /**
+     * Method used to retrieve a chunk of the events occurred before a date, from the oldest one. The owner password of
+     * each event is a detached reference with just its identifier
+     *
+     * @param cutoffDate The date before which the events must have occurred
+     * @param chunkSize The max number of the events to retrieve
+     *
+     * @return the events as {@link List} of {@link PasswordEvent}
+     */
+    public List<PasswordEvent> getExpiredEvents(long cutoffDate, int chunkSize) {
+        return jdbcTemplate.getJdbcTemplate().query(EXPIRED_EVENTS_QUERY, (resultSet, rowNumber) -> {
+            Password password = new Password(resultSet.getString(PASSWORD_IDENTIFIER_KEY), -1, null, null, null, null,
+                    null, null);
+            return new PasswordEvent(
+                    resultSet.getString(IDENTIFIER_KEY),
+                    resultSet.getLong(EVENT_DATE_KEY),
+                    PasswordEventType.valueOf(resultSet.getString(TYPE_KEY)),
+                    resultSet.getInt(OCCURRENCES_KEY),
+                    password
+            );
+        }, cutoffDate, chunkSize);
+    }
+
+    /**
+     * Method used to delete a list of events
+     *
+     * @param eventsIds The identifiers of the events to delete
+     *
+     * @return the number of the deleted events as {@code int}
+     */
+    public int deleteEvents(Collection<String> eventsIds) {
+        if (eventsIds.isEmpty())
+            return 0;
+        return jdbcTemplate.update(DELETE_EVENTS_QUERY, new MapSqlParameterSource(IDENTIFIER_KEY, eventsIds));
+    }
+
+    /**
+     * Method used to delete a chunk of the events occurred before a date, from the oldest one
+     *
+     * @param cutoffDate The date before which the events must have occurred
+     * @param chunkSize The max number of the events to delete
+     *
+     * @return the number of the deleted events as {@code int}
+     */
+    public int deleteExpiredEvents(long cutoffDate, int chunkSize) {
+        return jdbcTemplate.getJdbcTemplate().update(DELETE_EXPIRED_EVENTS_QUERY, cutoffDate, chunkSize);
+    }
+
+    /**
+     * Method used to insert a batch of daily aggregates of events, adding the occurrences to the already existing ones
+     *
+     * @param aggregates The aggregates to insert
+     */
+    public void upsertEventAggregates(List<PasswordEventAggregate> aggregates) {
+        if (aggregates.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_EVENT_AGGREGATE_QUERY, aggregates, aggregates.size(),
+                (statement, aggregate) -> {
+                    statement.setString(1, aggregate.getId());
+                    statement.setLong(2, aggregate.getEventDay());
+                    statement.setString(3, aggregate.getType().name());
+                    statement.setLong(4, aggregate.getOccurrences());
+                    statement.setString(5, aggregate.getPassword().getId());
+                });
+    }
+
+    /**
+     * Method used to insert a batch of tokens of the keywords index
+     *
+     * @param keywords The tokens to insert, each one as array made up of identifier, user identifier, password
+     *                 identifier, token and generation of the key used to compute the token
+     */
+    public void insertKeywords(List<Object[]> keywords) {
+        if (keywords.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_KEYWORD_QUERY, keywords);
+    }
+
+    /**
+     * Method used to insert the tombstones of a batch of deleted passwords
+     *
+     * @param userId The identifier of the user owner of the passwords
+     * @param passwordsIds The identifiers of the deleted passwords
+     * @param deletionDate The date when the passwords have been deleted
+     * @param changeSequence The change sequence of the keychain of the user assigned to the deletion
+     */
+    public void insertTombstones(String userId, Collection<String> passwordsIds, long deletionDate,
+                                 long changeSequence) {
+        if (passwordsIds.isEmpty())
+            return;
+        List<Object[]> tombstones = new ArrayList<>(passwordsIds.size());
+        for (String passwordId : passwordsIds)
+            tombstones.add(new Object[]{generateIdentifier(), passwordId, deletionDate, changeSequence, userId});
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_TOMBSTONE_QUERY, tombstones);
+    }
+
+    /**
+     * Method used to assign the next change sequence of the keychain of the user. The method must be executed inside
+     * the transaction which stores the change, before any other write of the transaction: the row of the sequence
+     * stays locked until the commit, so the changes of the user are committed in the order of their sequences and
+     * every transaction locks the sequence before the passwords, like the background writer of the events
+     *
+     * @param userId The identifier of the user
+     *
+     * @return the change sequence assigned as {@code long}
+     */
+    public long nextChangeSequence(String userId) {
+        JdbcTemplate template = jdbcTemplate.getJdbcTemplate();
+        template.update(NEXT_CHANGE_SEQUENCE_QUERY, generateIdentifier(), userId);
+        return template.queryForObject(CHANGE_SEQUENCE_QUERY, Long.class, userId);
+    }
+
+    /**
+     * Method used to retrieve the last change sequence of the keychain of the user, all the changes with a sequence up
+     * to it have been already committed
+     *
+     * @param userId The identifier of the user
+     *
+     * @return the last change sequence of the keychain of the user as {@code long}, {@code 0} if the keychain has never
+     * changed since the sequences have been introduced
+     */
+    public long getChangeSequence(String userId) {
+        List<Long> changeSequence = jdbcTemplate.getJdbcTemplate().queryForList(CHANGE_SEQUENCE_QUERY, Long.class,
+                userId);
+        return changeSequence.isEmpty() ? 0 : changeSequence.get(0);
+    }
+
+    /**
+     * Method used to delete a chunk of the tombstones created before a date, from the oldest one
+     *
+     * @param cutoffDate The date before which the tombstones must have been created
+     * @param chunkSize The max number of the tombstones to delete
+     *
+     * @return the number of the deleted tombstones as {@code int}
+     */
+    public int deleteExpiredTombstones(long cutoffDate, int chunkSize) {
+        return jdbcTemplate.getJdbcTemplate().update(DELETE_EXPIRED_TOMBSTONES_QUERY, cutoffDate, chunkSize);
+    }
+
+    /**
+     * Method used to retrieve which of the specified encrypted tails are already stored, each tail is searched both as
+     * raw ciphertext and as legacy Base64 text
+     *
+     * @param tails The encrypted tails to check
+     * @return the keys of the tails already stored, computed with {@link ServerVault#getCiphertextKey(byte[])}, as
+     * {@link List} of {@link String}
+     */
+    public List<String> getExistingTails(Collection<byte[]> tails) {
+        if (tails.isEmpty())
+            return List.of();
+        List<byte[]> storedTails = new ArrayList<>(tails.size() * 2);
+        for (byte[] tail : tails) {
+            storedTails.add(tail);
+            storedTails.add(ServerVault.toLegacyValue(tail));
+        }
+        List<byte[]> existingTails = jdbcTemplate.queryForList(EXISTING_TAILS_QUERY,
+                new MapSqlParameterSource(TAIL_KEY, storedTails), byte[].class);
+        List<String> tailsKeys = new ArrayList<>(existingTails.size());
+        for (byte[] existingTail : existingTails)
+            tailsKeys.add(ServerVault.getCiphertextKey(existingTail));
+        return tailsKeys;
+    }
+
+    /**
+     * Method used to check whether an encrypted tail, in both the stored formats, is already used by a password
+     * different from the specified one
+     *
+     * @param tail The encrypted tail to check
+     * @param excludedPasswordId The identifier of the password to ignore, {@code null} to check all the passwords
+     *
+     * @return whether the tail is already used as {@code boolean}
+     */
+    public boolean isTailUsed(byte[] tail, String excludedPasswordId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource(TAIL_KEY, List.of(tail,
+                ServerVault.toLegacyValue(tail)));
+        parameters.addValue(IDENTIFIER_KEY, excludedPasswordId);
+        Integer usages = jdbcTemplate.queryForObject(USED_TAIL_QUERY, parameters, Integer.class);
+        return usages != null && usages > 0;
+    }
+
+    /**
+     * Method used to retrieve a list of passwords of the user, each row is mapped to a detached {@link Password} still
+     * encrypted, so the passwords can be decrypted without the risk of storing back their plain data
+     *
+     * @param userId The identifier of the user
+     * @param passwordsIds The identifiers of the passwords
+     *
+     * @return the passwords as {@link List} of {@link Password}
+     */
+    public List<Password> getPasswords(String userId, Collection<String> passwordsIds) {
+        if (passwordsIds.isEmpty())
+            return List.of();
+        MapSqlParameterSource parameters = new MapSqlParameterSource(USER_IDENTIFIER_KEY, userId)
+                .addValue(IDENTIFIER_KEY, passwordsIds);
+        return jdbcTemplate.query(USER_PASSWORDS_QUERY, parameters,
+                (resultSet, rowNumber) -> mapEncryptedPassword(resultSet));
+    }
+
+    /**
+     * Method used to retrieve the passwords of the user which have not been indexed by the keywords index yet, or
+     * whose tokens have been computed just with a key generation no longer used by the index. Each row is mapped to a
+     * detached {@link Password} still encrypted, so the passwords can be decrypted to be indexed without touching the
+     * instances managed by the persistence context
+     *
+     * @param userId The identifier of the user
+     * @param keywordGeneration The generation of the key currently used by the keywords index of the user
+     *
+     * @return the not indexed passwords of the user as {@link List} of {@link Password}
+     */
+    public List<Password> getNotIndexedPasswords(String userId, int keywordGeneration) {
+        return jdbcTemplate.getJdbcTemplate().query(NOT_INDEXED_PASSWORDS_QUERY,
+                (resultSet, rowNumber) -> mapEncryptedPassword(resultSet), userId, keywordGeneration);
+    }
+
+    /**
+     * Method used to update the scopes of a batch of passwords
+     *
+     * @param passwordsScopes The encrypted scopes to store, each one as scopes and identifier of the password
+     */
+    public void updatePasswordsScopes(List<Object[]> passwordsScopes) {
+        if (passwordsScopes.isEmpty())
+            return;
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_SCOPES_QUERY, passwordsScopes);
+    }
+
+    /**
+     * Method used to stream the passwords of the user, each row is mapped to a detached {@link Password} still
+     * encrypted and handed to the consumer without keeping any reference to it
+     *
+     * @param userId   The identifier of the user
+     * @param consumer The consumer of the streamed passwords
+     */
+    public void streamPasswords(String userId, Consumer<Password> consumer) {
+        streamingTemplate.query(STREAM_PASSWORDS_QUERY, (RowCallbackHandler) resultSet -> {
+            consumer.accept(mapEncryptedPassword(resultSet));
+        }, userId);
+    }
+
+    /**
+     * Method used to check whether the columns of the ciphertexts are still the textual columns used to store them as
+     * Base64 text
+     *
+     * @return whether the columns are textual as {@code boolean}
+     */
+    public boolean hasTextualCiphertextColumns() {
+        List<String> columnTypes = jdbcTemplate.getJdbcTemplate().queryForList(TAIL_COLUMN_TYPE_QUERY, String.class);
+        return !columnTypes.isEmpty() && TEXTUAL_COLUMN_TYPE.equalsIgnoreCase(columnTypes.get(0));
+    }
+
+    /**
+     * Method used to convert the columns of the ciphertexts to binary columns, the legacy Base64 texts are kept and
+     * still readable
+     */
+    public void convertCiphertextColumns() {
+        jdbcTemplate.getJdbcTemplate().execute(BINARY_CIPHERTEXT_COLUMNS_QUERY);
+    }
+
+    /**
+     * Method used to convert a chunk of the rows with legacy Base64 ciphertexts to raw ciphertexts
+     *
+     * @param chunkSize The max number of the rows to convert
+     *
+     * @return the number of the converted rows as {@code int}
+     */
+    public int convertLegacyCiphertexts(int chunkSize) {
+        return jdbcTemplate.getJdbcTemplate().update(CONVERT_LEGACY_CIPHERTEXTS_QUERY, chunkSize);
+    }
+
+    /**
+     * Method used to map the current row to a detached {@link Password} still encrypted
+     *
+     * @param resultSet The result set positioned on the row
+     *
+     * @return the password as {@link Password}
+     *
+     * @throws SQLException when an error occurred reading the row
+     */
+    private Password mapEncryptedPassword(ResultSet resultSet) throws SQLException {
+        Password password = new Password(
+                resultSet.getString(IDENTIFIER_KEY),
+                resultSet.getLong(CREATION_DATE_KEY),
+                null,
+                null,
+                null,
+                PasswordType.valueOf(resultSet.getString(TYPE_KEY)),
+                null,
+                null
+        );
+        password.setEncryptedData(new Triple<>(
+                resultSet.getBytes(TAIL_KEY),
+                resultSet.getBytes(PASSWORD_KEY),
+                resultSet.getBytes(SCOPES_KEY)
+        ));
+        return password;
+    }
+
+    /**
+     * Method used to retrieve a page of the users, ordered by their identifiers
+     *
+     * @param lastUserId The identifier of the last user of the previous page, an empty string for the first page
+     * @param pageSize The max number of the users to retrieve
+     *
+     * @return the users, each one as identifier and token, as {@link List} of {@link Pair}
+     */
+    public List<Pair<String, String>> getUsersTokens(String lastUserId, int pageSize) {
+        return jdbcTemplate.getJdbcTemplate().query(USERS_TOKENS_QUERY, (resultSet, rowNumber) -> new Pair<>(
+                resultSet.getString(IDENTIFIER_KEY),
+                resultSet.getString(TOKEN_KEY)
+        ), lastUserId, pageSize);
+    }
+
+    /**
+     * Method used to retrieve a chunk of the passwords of the user with any ciphertext not encrypted with the current
+     * key, ordered by their identifiers, each row is mapped to a detached {@link Password} still encrypted
+     *
+     * @param userId The identifier of the user
+     * @param keyHeader The header of the ciphertexts encrypted with the current key of the user
+     * @param lastPasswordId The identifier of the last password of the previous chunk, an empty string for the first
+     * chunk
+     * @param chunkSize The max number of the passwords to retrieve
+     *
+     * @return the passwords as {@link List} of {@link Password}
+     */
+    public List<Password> getNotRotatedPasswords(String userId, byte[] keyHeader, String lastPasswordId,
+                                                 int chunkSize) {
+        return jdbcTemplate.getJdbcTemplate().query(NOT_ROTATED_PASSWORDS_QUERY,
+                (resultSet, rowNumber) -> mapEncryptedPassword(resultSet), userId, lastPasswordId, keyHeader,
+                keyHeader, keyHeader, chunkSize);
+    }
+
+    /**
+     * Method used to store the re-encrypted ciphertexts of a chunk of passwords. Each password is updated only if its
+     * ciphertexts were not changed since they have been read, the changed ones are retrieved again by the next pass.
+     * When the re-encrypted tail of a password is already used by another password the chunk is stored row by row, so
+     * just the conflicting passwords are skipped
+     *
+     * @param passwords The passwords read with their stored ciphertexts
+     * @param encryptedData The re-encrypted data of the passwords, in the same order of the passwords
+     * @param conflictingPasswords The list where the identifiers of the skipped passwords are added
+     *
+     * @return the number of the updated passwords as {@code int}
+     */
+    public int updateRotatedPasswords(List<Password> passwords, List<Triple<byte[], byte[], byte[]>> encryptedData,
+                                      List<String> conflictingPasswords) {
+        if (passwords.isEmpty())
+            return 0;
+        List<Object[]> rotatedPasswords = new ArrayList<>(passwords.size());
+        for (int j = 0; j < passwords.size(); j++) {
+            Password password = passwords.get(j);
+            Triple<byte[], byte[], byte[]> passwordData = encryptedData.get(j);
+            rotatedPasswords.add(new Object[]{
+                    passwordData.getFirst(),
+                    passwordData.getSecond(),
+                    passwordData.getThird(),
+                    password.getId(),
+                    password.getEncryptedTail(),
+                    password.getEncryptedPassword(),
+                    password.getEncryptedScopes()
+            });
+        }
+        JdbcTemplate rowsTemplate = jdbcTemplate.getJdbcTemplate();
+        int updatedPasswords = 0;
+        try {
+            for (int updatedRows : rowsTemplate.batchUpdate(ROTATE_PASSWORD_QUERY, rotatedPasswords))
+                if (updatedRows > 0)
+                    updatedPasswords += updatedRows;
+            return updatedPasswords;
+        } catch (DataIntegrityViolationException e) {
+            updatedPasswords = 0;
+            for (int j = 0; j < rotatedPasswords.size(); j++) {
+                try {
+                    updatedPasswords += rowsTemplate.update(ROTATE_PASSWORD_QUERY, rotatedPasswords.get(j));
+                } catch (DuplicateKeyException duplicate) {
+                    conflictingPasswords.add(passwords.get(j).getId());
+                }
+            }
+            return updatedPasswords;
+        }
+    }
+
+    /**
+     * Method used to build the assignment which converts a legacy Base64 ciphertext of a column to a raw ciphertext
+     *
+     * @param column The column to convert
+     *
+     * @return the assignment as {@link String}
+     */
+    private static String convertLegacyCiphertext(String column) {
+        return column + "=IF(" + column + " IS NULL OR LEFT(" + column + ",1) IN (" + RAW_CIPHERTEXT_MARKER + "," +
+                KEYED_CIPHERTEXT_MARKER + ")," + column + ",CONCAT(" + RAW_CIPHERTEXT_MARKER + ",FROM_BASE64(" +
+                column + ")))";
+    }
+
+    /**
+     * Method used to build the condition which matches a legacy Base64 ciphertext of a column
+     *
+     * @param column The column to check
+     *
+     * @return the condition as {@link String}
+     */
+    private static String isLegacyCiphertext(String column) {
+        return "LEFT(" + column + ",1) NOT IN (" + RAW_CIPHERTEXT_MARKER + "," + KEYED_CIPHERTEXT_MARKER + ")";
+    }
+
+    /**
+     * Method used to build the condition which matches a ciphertext of a column not encrypted with the current key,
+     * whose header is bound as parameter
+     *
+     * @param column The column to check
+     *
+     * @return the condition as {@link String}
+     */
+    private static String isNotRotatedCiphertext(String column) {
+        return "LEFT(" + column + "," + ServerVault.KEYED_CIPHERTEXT_HEADER_SIZE + ")<>?";
+    }
+
+}
@@ -3,12 +3,14 @@ package com.tecknobit.glider.services.passwords.repositories;
 import com.tecknobit.glider.services.passwords.entities.Password;
 import com.tecknobit.glidercore.enums.PasswordType;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -29,8 +31,8 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
     /**
      * Query used to edit a {@link PasswordType#GENERATED} password
      *
-     * @param tail       The tail of the password
-     * @param scopes     The scopes of the password
+     * @param tail       The encrypted tail of the password
+     * @param scopes     The encrypted scopes of the password
      * @param passwordId The identifier of the password
      */
     @Modifying
@@ -43,17 +45,17 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             nativeQuery = true
     )
     void editGeneratedPassword(
-            @Param(TAIL_KEY) String tail,
-            @Param(SCOPES_KEY) String scopes,
+            @Param(TAIL_KEY) byte[] tail,
+            @Param(SCOPES_KEY) byte[] scopes,
             @Param(IDENTIFIER_KEY) String passwordId
     );
 
     /**
      * Query used to edit a {@link PasswordType#INSERTED} password
      *
-     * @param tail The tail of the password
-     * @param scopes The scopes of the password
-     * @param password The password value
+     * @param tail The encrypted tail of the password
+     * @param scopes The encrypted scopes of the password
+     * @param password The encrypted password value
      * @param passwordId The identifier of the password
      */
     @Modifying
@@ -67,9 +69,9 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             nativeQuery = true
     )
     void editInsertedPassword(
-            @Param(TAIL_KEY) String tail,
-            @Param(SCOPES_KEY) String scopes,
-            @Param(PASSWORD_KEY) String password,
+            @Param(TAIL_KEY) byte[] tail,
+            @Param(SCOPES_KEY) byte[] scopes,
+            @Param(PASSWORD_KEY) byte[] password,
             @Param(IDENTIFIER_KEY) String passwordId
     );
 
@@ -85,7 +87,7 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             value = "SELECT * FROM " + PASSWORDS_KEY +
                     _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
                     " AND " + TYPE_KEY + " IN (:" + TYPE_KEY + ")" +
-                    " ORDER BY " + CREATION_DATE_KEY + " DESC",
+                    " ORDER BY " + CREATION_DATE_KEY + " DESC, " + IDENTIFIER_KEY + " DESC",
             nativeQuery = true
     )
     List<Password> getPasswords(
@@ -93,10 +95,140 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             @Param(TYPE_KEY) Set<String> types
     );
 
+    /**
+     * Query used to retrieve a page of the passwords of the user
+     *
+     * @param userId The identifier of the user
+     * @param types The types of the passwords to retrieve
+     * @param pageable The parameters to paginate the query
+     *
+     * @return the page of the passwords of the user as {@link List} of {@link Password}
+     */
+    @Query(
+            value = "SELECT * FROM " + PASSWORDS_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + TYPE_KEY + " IN (:" + TYPE_KEY + ")" +
+                    " ORDER BY " + CREATION_DATE_KEY + " DESC, " + IDENTIFIER_KEY + " DESC",
+            nativeQuery = true
+    )
+    List<Password> getPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(TYPE_KEY) Set<String> types,
+            Pageable pageable
+    );
+
+    /**
+     * Query used to retrieve the specified passwords of the user
+     *
+     * @param userId The identifier of the user
+     * @param types The types of the passwords to retrieve
+     * @param passwordsIds The identifiers of the passwords to retrieve
+     *
+     * @return the specified passwords of the user as {@link List} of {@link Password}
+     */
+    @Query(
+            value = "SELECT * FROM " + PASSWORDS_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + TYPE_KEY + " IN (:" + TYPE_KEY + ")" +
+                    " AND " + IDENTIFIER_KEY + " IN (:" + IDENTIFIER_KEY + ")" +
+                    " ORDER BY " + CREATION_DATE_KEY + " DESC, " + IDENTIFIER_KEY + " DESC",
+            nativeQuery = true
+    )
+    List<Password> getPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(TYPE_KEY) Set<String> types,
+            @Param(IDENTIFIER_KEY) Collection<String> passwordsIds
+    );
+
+    /**
+     * Query used to retrieve the passwords of the user created, edited or refreshed between two change sequences of
+     * the keychain, resolved with the events of the passwords
+     *
+     * @param userId The identifier of the user
+     * @param since The change sequence after which the passwords must have been changed
+     * @param changeSequence The last change sequence to include
+     *
+     * @return the changed passwords of the user as {@link List} of {@link Password}
+     */
+    @Query(
+            value = "SELECT * FROM " + PASSWORDS_KEY + " p" +
+                    _WHERE_ + "p." + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND EXISTS (SELECT 1 FROM " + PASSWORD_EVENTS_KEY + " e" +
+                    _WHERE_ + "e." + PASSWORD_IDENTIFIER_KEY + "=p." + IDENTIFIER_KEY +
+                    " AND e." + CHANGE_SEQUENCE_KEY + ">:" + SINCE_KEY +
+                    " AND e." + CHANGE_SEQUENCE_KEY + "<=:" + CHANGE_SEQUENCE_KEY +
+                    " AND e." + TYPE_KEY + "<>'COPIED')" +
+                    " ORDER BY p." + CREATION_DATE_KEY + " DESC, p." + IDENTIFIER_KEY + " DESC",
+            nativeQuery = true
+    )
+    List<Password> getChangedPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(SINCE_KEY) long since,
+            @Param(CHANGE_SEQUENCE_KEY) long changeSequence
+    );
+
+    /**
+     * Query used to count the passwords of the user
+     *
+     * @param userId The identifier of the user
+     * @param types The types of the passwords to include in the count
+     *
+     * @return the total passwords of the user as {@code long}
+     */
+    @Query(
+            value = "SELECT COUNT(*) FROM " + PASSWORDS_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY +
+                    " AND " + TYPE_KEY + " IN (:" + TYPE_KEY + ")",
+            nativeQuery = true
+    )
+    long countPasswords(
+            @Param(USER_IDENTIFIER_KEY) String userId,
+            @Param(TYPE_KEY) Set<String> types
+    );
+
+    /**
+     * Query used to check whether a password is owned by the user, resolved with the primary key of the password
+     *
+     * @param passwordId The identifier of the password
+     * @param userId The identifier of the user
+     *
+     * @return {@code 1} if the password is owned by the user, {@code 0} otherwise, as {@code long}
+     */
+    @Query(
+            value = "SELECT COUNT(*) FROM " + PASSWORDS_KEY +
+                    _WHERE_ + IDENTIFIER_KEY + "=:" + IDENTIFIER_KEY +
+                    " AND " + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    long countUserPassword(
+            @Param(IDENTIFIER_KEY) String passwordId,
+            @Param(USER_IDENTIFIER_KEY) String userId
+    );
+
+    /**
+     * Query used to count how many of the specified passwords are owned by the user, resolved with the primary keys of
+     * the passwords
+     *
+     * @param passwordsIds The identifiers of the passwords
+     * @param userId The identifier of the user
+     *
+     * @return the number of the specified passwords owned by the user as {@code long}
+     */
+    @Query(
+            value = "SELECT COUNT(*) FROM " + PASSWORDS_KEY +
+                    _WHERE_ + IDENTIFIER_KEY + " IN (:" + IDENTIFIER_KEY + ")" +
+                    " AND " + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    long countUserPasswords(
+            @Param(IDENTIFIER_KEY) Collection<String> passwordsIds,
+            @Param(USER_IDENTIFIER_KEY) String userId
+    );
+
     /**
      * Query used to refresh a {@link PasswordType#GENERATED} password
      *
-     * @param password The value of the refreshed password
+     * @param password The encrypted value of the refreshed password
      * @param passwordId The identifier of the password
      */
     @Modifying
@@ -108,7 +240,7 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             nativeQuery = true
     )
     void refreshPassword(
-            @Param(PASSWORD_KEY) String password,
+            @Param(PASSWORD_KEY) byte[] password,
             @Param(IDENTIFIER_KEY) String passwordId
     );
 
@@ -127,4 +259,25 @@ public interface PasswordsRepository extends JpaRepository<Password, String> {
             @Param(IDENTIFIER_KEY) String passwordId
     );
 
+    /**
+     * Query used to delete a list of passwords of the user with a single statement
+     *
+     * @param passwordsIds The identifiers of the passwords
+     * @param userId The identifier of the user
+     *
+     * @return the number of the deleted passwords as {@code int}
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            value = "DELETE FROM " + PASSWORDS_KEY +
+                    _WHERE_ + IDENTIFIER_KEY + " IN (:" + IDENTIFIER_KEY + ")" +
+                    " AND " + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    int deletePasswords(
+            @Param(IDENTIFIER_KEY) Collection<String> passwordsIds,
+            @Param(USER_IDENTIFIER_KEY) String userId
+    );
+
 }
@@ -0,0 +1,128 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code CiphertextMigrationService} class is useful to migrate the passwords stored with their ciphertexts as
+ * Base64 text. When the application starts the textual columns are converted to binary columns, then the legacy rows
+ * are converted to raw ciphertexts in small chunks by a background job. The {@link ServerVault} reads both the formats,
+ * so the passwords are available during the whole migration
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class CiphertextMigrationService {
+
+    /**
+     * {@code MIGRATION_THREAD_NAME} the name of the thread of the migration job
+     */
+    private static final String MIGRATION_THREAD_NAME = "ciphertext-migration";
+
+    /**
+     * {@code LOGGER} the logger used to report the progress of the migration
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CiphertextMigrationService.class);
+
+    /**
+     * {@code bulkRepository} instance used to convert the columns and the rows of the passwords
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * {@code chunkSize} the max number of the rows converted by a single statement
+     */
+    private final int chunkSize;
+
+    /**
+     * {@code migrationJob} the executor of the migration job, {@code null} when the legacy rows are not converted
+     */
+    private final ExecutorService migrationJob;
+
+    /**
+     * {@code convertedPasswords} the number of the passwords converted since the application started
+     */
+    private volatile long convertedPasswords;
+
+    /**
+     * Constructor used to init the service, converting the textual columns and starting the migration job
+     *
+     * @param bulkRepository The instance used to convert the columns and the rows of the passwords
+     * @param chunkSize      The max number of the rows converted by a single statement, {@code 0} to not convert the
+     *                       legacy rows
+     */
+    @Autowired
+    public CiphertextMigrationService(PasswordsBulkRepository bulkRepository,
+                                      @Value("${glider.passwords.ciphertext-migration.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 0)
+            throw new IllegalArgumentException("The chunk size cannot be negative");
+        this.bulkRepository = bulkRepository;
+        this.chunkSize = chunkSize;
+        if (bulkRepository.hasTextualCiphertextColumns()) {
+            LOGGER.info("Converting the ciphertext columns of the passwords to binary columns");
+            bulkRepository.convertCiphertextColumns();
+        }
+        if (chunkSize == 0)
+            migrationJob = null;
+        else {
+            migrationJob = Executors.newSingleThreadExecutor(runnable -> {
+                Thread migrationThread = new Thread(runnable, MIGRATION_THREAD_NAME);
+                migrationThread.setDaemon(true);
+                return migrationThread;
+            });
+            migrationJob.execute(this::migrateLegacyCiphertexts);
+            migrationJob.shutdown();
+        }
+    }
+
+    /**
+     * Method used to convert all the legacy rows chunk by chunk, the failures are logged and the rows not converted
+     * are converted when the application starts again
+     */
+    private void migrateLegacyCiphertexts() {
+        try {
+            long startDate = System.currentTimeMillis();
+            int chunkPasswords;
+            do {
+                chunkPasswords = bulkRepository.convertLegacyCiphertexts(chunkSize);
+                convertedPasswords += chunkPasswords;
+            } while (chunkPasswords == chunkSize && !Thread.currentThread().isInterrupted());
+            if (convertedPasswords > 0) {
+                LOGGER.info("Converted {} passwords to raw ciphertexts ({} ms)", convertedPasswords,
+                        System.currentTimeMillis() - startDate);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Unable to convert the legacy ciphertexts of the passwords", e);
+        }
+    }
+
+    /**
+     * Method used to get the {@link #convertedPasswords} instance
+     *
+     * @return the {@link #convertedPasswords} instance as {@code long}
+     */
+    public long getConvertedPasswords() {
+        return convertedPasswords;
+    }
+
+    /**
+     * Method used to stop the migration job when the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (migrationJob != null)
+            migrationJob.shutdownNow();
+    }
+
+}
@@ -0,0 +1,411 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.dtos.KeyRotationReport;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.passwords.repositories.PasswordKeywordsRepository;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
+import jakarta.annotation.PreDestroy;
+import kotlin.Pair;
+import kotlin.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code KeyRotationService} class is useful to rotate the private keys of the users older than the generation
+ * configured in the {@link ServerVault}. For each user a new key is created and all the new data are encrypted with
+ * it, while a background job re-encrypts the stored passwords in small throttled chunks, each one in its own
+ * transaction. The vault reads the data encrypted with both the keys, so the passwords are available during the whole
+ * rotation. The previous key is deleted just when a pass of a later run, after the {@link #COMPLETION_GRACE_PERIOD},
+ * still finds no password encrypted with it, so the requests which were using the previous key when the rotation
+ * started cannot leave any password unreadable
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Service
+@DependsOn({"entityManagerFactory", "vaultConfiguration"})
+public class KeyRotationService {
+
+    /**
+     * {@code ROTATION_THREAD_NAME} the name of the thread of the rotation job
+     */
+    private static final String ROTATION_THREAD_NAME = "key-rotation";
+
+    /**
+     * {@code USERS_PAGE_SIZE} the number of the users checked for each page
+     */
+    private static final int USERS_PAGE_SIZE = 500;
+
+    /**
+     * {@code PROGRESS_LOG_INTERVAL} the interval in milliseconds between the logs of the progress of a run
+     */
+    private static final long PROGRESS_LOG_INTERVAL = 60 * 1000;
+
+    /**
+     * {@code COMPLETION_GRACE_PERIOD} the min time in milliseconds between the pass which re-encrypted all the
+     * passwords of the user and the pass which can delete his/her previous key
+     */
+    private static final long COMPLETION_GRACE_PERIOD = 60 * 1000;
+
+    /**
+     * {@code LOGGER} the logger used to report the progress of the rotation job
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyRotationService.class);
+
+    /**
+     * {@code bulkRepository} instance used to read and re-encrypt the passwords in chunks
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * {@code keywordsRepository} instance used to drop the keywords index computed with the previous keys
+     */
+    private final PasswordKeywordsRepository keywordsRepository;
+
+    /**
+     * {@code transactionTemplate} the template used to execute each chunk in its own transaction
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * {@code chunkSize} the max number of the passwords re-encrypted by a single transaction
+     */
+    private final int chunkSize;
+
+    /**
+     * {@code maxRate} the max number of the passwords re-encrypted per second, {@code 0} to not throttle the job
+     */
+    private final int maxRate;
+
+    /**
+     * {@code rotationJob} the executor of the rotation job, {@code null} when the keys are never rotated
+     */
+    private final ScheduledExecutorService rotationJob;
+
+    /**
+     * {@code reencryptedUsers} when the last pass of each user whose rotation is not completed yet found passwords to
+     * re-encrypt, or found none for the first time, accessed just by the thread of the rotation job
+     */
+    private final Map<String, Long> reencryptedUsers;
+
+    /**
+     * {@code lastReport} the report of the last completed run
+     */
+    private volatile KeyRotationReport lastReport;
+
+    /**
+     * {@code totalRotatedUsers} the number of the users whose key has been rotated since the application started
+     */
+    private volatile long totalRotatedUsers;
+
+    /**
+     * {@code totalRotatedPasswords} the number of the passwords re-encrypted since the application started
+     */
+    private volatile long totalRotatedPasswords;
+
+    /**
+     * Constructor used to init the service
+     *
+     * @param bulkRepository     The instance used to read and re-encrypt the passwords in chunks
+     * @param keywordsRepository The instance used to drop the keywords index computed with the previous keys
+     * @param transactionManager The manager of the transactions of the chunks
+     * @param chunkSize          The max number of the passwords re-encrypted by a single transaction
+     * @param maxRate            The max number of the passwords re-encrypted per second, {@code 0} to not throttle the
+     *                           job
+     * @param interval           The interval in milliseconds between the runs of the rotation job
+     */
+    @Autowired
+    public KeyRotationService(PasswordsBulkRepository bulkRepository,
+                              PasswordKeywordsRepository keywordsRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${glider.vault.rotation.chunk-size:200}") int chunkSize,
+                              @Value("${glider.vault.rotation.max-rate:500}") int maxRate,
+                              @Value("${glider.vault.rotation.interval:3600000}") long interval) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be positive");
+        if (maxRate < 0)
+            throw new IllegalArgumentException("The max rate cannot be negative");
+        this.bulkRepository = bulkRepository;
+        this.keywordsRepository = keywordsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRate = maxRate;
+        reencryptedUsers = new HashMap<>();
+        if (ServerVault.getInstance().getKeyGeneration() == 0)
+            rotationJob = null;
+        else {
+            rotationJob = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread rotationThread = new Thread(runnable, ROTATION_THREAD_NAME);
+                rotationThread.setDaemon(true);
+                return rotationThread;
+            });
+            rotationJob.scheduleWithFixedDelay(this::runRotation, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Method used to execute a run of the rotation job, the failures are logged and the next run retries the users
+     * not rotated yet
+     */
+    private void runRotation() {
+        try {
+            KeyRotationReport report = rotateKeys();
+            lastReport = report;
+            if (report.rotatedUsers() > 0 || report.pendingUsers() > 0 || report.failedUsers() > 0) {
+                LOGGER.info("Rotated the keys of {} users of {} checked to the generation {}, re-encrypted {} " +
+                                "passwords in {} chunks ({} ms, {} passwords/s), {} users pending, {} users failed, " +
+                                "{} passwords with a conflicting tail", report.rotatedUsers(), report.checkedUsers(),
+                        report.keyGeneration(), report.rotatedPasswords(), report.chunks(), report.duration(),
+                        Math.round(report.throughput()), report.pendingUsers(), report.failedUsers(),
+                        report.conflictingPasswords());
+            }
+        } catch (Exception e) {
+            LOGGER.error("Unable to rotate the keys of the users", e);
+        }
+    }
+
+    /**
+     * Method used to rotate the keys of all the users older than the generation configured in the {@link ServerVault},
+     * completing also the rotations interrupted by a previous run
+     *
+     * @return the report of the run as {@link KeyRotationReport}
+     */
+    public KeyRotationReport rotateKeys() {
+        ServerVault vault = ServerVault.getInstance();
+        long startDate = System.currentTimeMillis();
+        long lastProgressLog = startDate;
+        int checkedUsers = 0;
+        int rotatedUsers = 0;
+        int pendingUsers = 0;
+        int failedUsers = 0;
+        long rotatedPasswords = 0;
+        int conflictingPasswords = 0;
+        int chunks = 0;
+        String lastUserId = "";
+        List<Pair<String, String>> users;
+        do {
+            users = bulkRepository.getUsersTokens(lastUserId, USERS_PAGE_SIZE);
+            for (Pair<String, String> user : users) {
+                if (Thread.currentThread().isInterrupted())
+                    break;
+                checkedUsers++;
+                try {
+                    if (!vault.rotateUserKey(user.getSecond()))
+                        continue;
+                    RotationPass pass = rotateUserPasswords(user.getFirst(), user.getSecond());
+                    rotatedPasswords += pass.rotatedPasswords();
+                    conflictingPasswords += pass.conflictingPasswords();
+                    chunks += pass.chunks();
+                    if (completeRotation(user.getFirst(), user.getSecond(), pass)) {
+                        rotatedUsers++;
+                        totalRotatedUsers++;
+                    } else
+                        pendingUsers++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failedUsers++;
+                    LOGGER.warn("Unable to rotate the key of the user {}", user.getFirst(), e);
+                }
+                long currentDate = System.currentTimeMillis();
+                if (currentDate - lastProgressLog >= PROGRESS_LOG_INTERVAL) {
+                    lastProgressLog = currentDate;
+                    LOGGER.info("Key rotation in progress: {} users checked, {} rotated, {} passwords re-encrypted " +
+                                    "({} passwords/s)", checkedUsers, rotatedUsers, rotatedPasswords,
+                            rotatedPasswords * 1000 / Math.max(1, currentDate - startDate));
+                }
+            }
+            if (!users.isEmpty())
+                lastUserId = users.get(users.size() - 1).getFirst();
+        } while (users.size() == USERS_PAGE_SIZE && !Thread.currentThread().isInterrupted());
+        return new KeyRotationReport(startDate, System.currentTimeMillis() - startDate, vault.getKeyGeneration(),
+                checkedUsers, rotatedUsers, pendingUsers, failedUsers, rotatedPasswords, conflictingPasswords, chunks);
+    }
+
+    /**
+     * Method used to re-encrypt with the current key, chunk by chunk, all the passwords of the user still encrypted
+     * with the previous key. Each password is visited once by the pass, the passwords skipped because changed
+     * concurrently are re-encrypted by the next pass
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @return the outcome of the pass as {@link RotationPass}
+     * @throws Exception when an error occurred during the re-encryption
+     */
+    private RotationPass rotateUserPasswords(String userId, String token) throws Exception {
+        byte[] keyHeader = ServerVault.getInstance().getCurrentKeyHeader(token);
+        List<String> conflictingPasswords = new ArrayList<>();
+        String lastPasswordId = "";
+        int readPasswords = 0;
+        long rotatedPasswords = 0;
+        int chunks = 0;
+        while (true) {
+            long chunkStart = System.currentTimeMillis();
+            String chunkFrom = lastPasswordId;
+            ChunkOutcome chunk = transactionTemplate.execute(status -> rotateChunk(userId, token, keyHeader,
+                    chunkFrom, conflictingPasswords));
+            if (chunk == null || chunk.readPasswords() == 0)
+                break;
+            chunks++;
+            readPasswords += chunk.readPasswords();
+            rotatedPasswords += chunk.rotatedPasswords();
+            totalRotatedPasswords += chunk.rotatedPasswords();
+            lastPasswordId = chunk.lastPasswordId();
+            throttle(chunk.readPasswords(), chunkStart);
+        }
+        return new RotationPass(readPasswords, rotatedPasswords, conflictingPasswords.size(), chunks);
+    }
+
+    /**
+     * Method used to complete the rotation of the key of the user when a pass found no password to re-encrypt at
+     * least {@link #COMPLETION_GRACE_PERIOD} milliseconds after the pass which re-encrypted the last ones. The previous
+     * key is deleted and the keywords tokens computed with any generation other than the current one are dropped, so
+     * the index is built again with the current key by the next search. The tokens computed with the previous key and
+     * stored by an indexing which raced with the completion are never matched by the searches and are rebuilt as well
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param pass The outcome of the last pass of the user
+     * @return whether the rotation has been completed as {@code boolean}
+     * @throws Exception when an error occurred during the deletion of the previous key
+     */
+    private boolean completeRotation(String userId, String token, RotationPass pass) throws Exception {
+        long currentDate = System.currentTimeMillis();
+        if (pass.conflictingPasswords() > 0) {
+            reencryptedUsers.put(userId, currentDate);
+            LOGGER.warn("The rotation of the key of the user {} is blocked by {} passwords whose tail is already " +
+                    "used, it will be retried by the next run", userId, pass.conflictingPasswords());
+            return false;
+        }
+        Long reencryptionDate = reencryptedUsers.get(userId);
+        if (pass.readPasswords() > 0 || reencryptionDate == null) {
+            reencryptedUsers.put(userId, currentDate);
+            return false;
+        }
+        if (currentDate - reencryptionDate < COMPLETION_GRACE_PERIOD)
+            return false;
+        ServerVault vault = ServerVault.getInstance();
+        vault.completeKeyRotation(token);
+        keywordsRepository.deleteStaleUserKeywords(userId, vault.getKeywordsGeneration(token));
+        reencryptedUsers.remove(userId);
+        return true;
+    }
+
+    /**
+     * Method used to re-encrypt a chunk of the passwords of the user not encrypted with the current key yet
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param keyHeader The header of the ciphertexts encrypted with the current key of the user
+     * @param lastPasswordId The identifier of the last password of the previous chunk
+     * @param conflictingPasswords The list where the identifiers of the passwords whose re-encrypted tail is already
+     * used are added
+     * @return the outcome of the chunk as {@link ChunkOutcome}
+     */
+    private ChunkOutcome rotateChunk(String userId, String token, byte[] keyHeader, String lastPasswordId,
+                                     List<String> conflictingPasswords) {
+        List<Password> passwords = bulkRepository.getNotRotatedPasswords(userId, keyHeader, lastPasswordId,
+                chunkSize);
+        if (passwords.isEmpty())
+            return new ChunkOutcome(0, 0, lastPasswordId);
+        try {
+            List<Triple<byte[], byte[], byte[]>> encryptedData = ServerVault.getInstance()
+                    .reencryptPasswords(token, passwords);
+            int rotatedPasswords = bulkRepository.updateRotatedPasswords(passwords, encryptedData,
+                    conflictingPasswords);
+            return new ChunkOutcome(passwords.size(), rotatedPasswords, passwords.get(passwords.size() - 1).getId());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Method used to pause the job after a chunk, so the passwords are not re-encrypted faster than the
+     * {@link #maxRate}
+     *
+     * @param chunkPasswords The number of the passwords of the chunk
+     * @param chunkStart When the chunk started
+     * @throws InterruptedException when the job is stopped during the pause
+     */
+    private void throttle(int chunkPasswords, long chunkStart) throws InterruptedException {
+        if (maxRate == 0)
+            return;
+        long minDuration = chunkPasswords * 1000L / maxRate;
+        long pause = minDuration - (System.currentTimeMillis() - chunkStart);
+        if (pause > 0)
+            Thread.sleep(pause);
+    }
+
+    /**
+     * Method used to get the {@link #lastReport} instance
+     *
+     * @return the {@link #lastReport} instance as {@link KeyRotationReport}, {@code null} if no run has been completed
+     * yet
+     */
+    public KeyRotationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Method used to get the {@link #totalRotatedUsers} instance
+     *
+     * @return the {@link #totalRotatedUsers} instance as {@code long}
+     */
+    public long getTotalRotatedUsers() {
+        return totalRotatedUsers;
+    }
+
+    /**
+     * Method used to get the {@link #totalRotatedPasswords} instance
+     *
+     * @return the {@link #totalRotatedPasswords} instance as {@code long}
+     */
+    public long getTotalRotatedPasswords() {
+        return totalRotatedPasswords;
+    }
+
+    /**
+     * Method used to stop the rotation job when the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (rotationJob != null)
+            rotationJob.shutdownNow();
+    }
+
+    /**
+     * The {@code ChunkOutcome} record class is used to share the outcome of a chunk of a rotation pass
+     *
+     * @param readPasswords The number of the passwords read by the chunk
+     * @param rotatedPasswords The number of the passwords re-encrypted by the chunk
+     * @param lastPasswordId The identifier of the last password read by the chunk
+     */
+    private record ChunkOutcome(int readPasswords, int rotatedPasswords, String lastPasswordId) {
+    }
+
+    /**
+     * The {@code RotationPass} record class is used to share the outcome of a pass over the passwords of a user
+     *
+     * @param readPasswords The number of the passwords still encrypted with the previous key found by the pass
+     * @param rotatedPasswords The number of the passwords re-encrypted by the pass
+     * @param conflictingPasswords The number of the passwords not re-encrypted because their tail is already used
+     * @param chunks The number of the chunks executed by the pass
+     */
+    private record RotationPass(int readPasswords, long rotatedPasswords, int conflictingPasswords, int chunks) {
+    }
+
+}
@@ -0,0 +1,441 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.equinoxcore.pagination.PaginatedResponse;
+import com.tecknobit.glider.helpers.BoundedCache;
+import com.tecknobit.glider.helpers.BoundedCache.CacheStats;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glidercore.enums.KeychainView;
+import com.tecknobit.glidercore.enums.PasswordType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * The {@code KeychainCache} class is useful to keep in memory, for a short time, the decrypted pages of the keychains
+ * requested by the users, so the same page fetched by several devices is decrypted just once. The plain data of the
+ * cached passwords is held as arrays of chars which are zeroed as soon as a page leaves the cache
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Component
+public class KeychainCache {
+
+    /**
+     * The {@code KeychainLoader} interface is used to load a page of the keychain not available in the cache
+     */
+    @FunctionalInterface
+    public interface KeychainLoader {
+
+        /**
+         * Method used to load the page of the keychain
+         *
+         * @return the page of the keychain as {@link KeychainPage}
+         * @throws Exception when an error occurred during the loading
+         */
+        KeychainPage load() throws Exception;
+
+    }
+
+    /**
+     * The {@code KeychainPage} record class is used to share a page of the decrypted keychain with the total number
+     * of the passwords matching the request
+     *
+     * @param passwords      The decrypted passwords of the page
+     * @param totalPasswords The total number of the passwords matching the request
+     */
+    public record KeychainPage(List<Password> passwords, long totalPasswords) {
+    }
+
+    /**
+     * {@code enabled} whether the cache is enabled
+     */
+    private final boolean enabled;
+
+    /**
+     * {@code maxPages} the max number of the pages cached for each user
+     */
+    private final int maxPages;
+
+    /**
+     * {@code keychains} the cached pages of the keychain of each user
+     */
+    private final BoundedCache<String, CachedKeychain> keychains;
+
+    /**
+     * Constructor used to init the cache
+     *
+     * @param enabled    Whether the cache is enabled
+     * @param maxUsers   The max number of the users whose keychain can be cached
+     * @param maxPages   The max number of the pages cached for each user
+     * @param timeToLive The time in milliseconds after which a cached page is considered expired
+     */
+    @Autowired
+    public KeychainCache(@Value("${glider.keychain-cache.enabled:false}") boolean enabled,
+                         @Value("${glider.keychain-cache.max-users:1000}") int maxUsers,
+                         @Value("${glider.keychain-cache.max-pages:16}") int maxPages,
+                         @Value("${glider.keychain-cache.ttl:30000}") long timeToLive) {
+        if (maxPages <= 0)
+            throw new IllegalArgumentException("The max pages of the cache must be positive");
+        this.enabled = enabled;
+        this.maxPages = maxPages;
+        keychains = new BoundedCache<>(maxUsers, timeToLive, (userId, keychain) -> keychain.wipe());
+    }
+
+    /**
+     * Method used to get a page of the keychain of the user, loading and caching it if not available. The cached
+     * keychain of the user is created before loading the page, so when the keychain of the user is invalidated during
+     * the loading the page is discarded, while the invalidations of the other users do not affect it
+     *
+     * @param userId   The identifier of the user
+     * @param page     The page requested
+     * @param pageSize The size of the items to insert in the page
+     * @param keywords The filter keywords
+     * @param types    The types of the passwords to retrieve
+     * @param view     The view of the keychain requested
+     * @param loader   The loader to use when the page is not cached
+     * @return the page of the keychain as {@link PaginatedResponse} of {@link Password}
+     * @throws Exception when an error occurred during the loading
+     */
+    public PaginatedResponse<Password> getKeychain(String userId, int page, int pageSize, Set<String> keywords,
+                                                   Set<String> types, KeychainView view,
+                                                   KeychainLoader loader) throws Exception {
+        if (!enabled) {
+            KeychainPage keychainPage = loader.load();
+            return new PaginatedResponse<>(keychainPage.passwords(), page, pageSize, keychainPage.totalPasswords());
+        }
+        KeychainRequest request = new KeychainRequest(page, pageSize, copyOf(keywords), copyOf(types), view);
+        CachedKeychain keychain = keychains.get(userId);
+        if (keychain != null) {
+            KeychainPage keychainPage = keychain.getPage(request);
+            if (keychainPage != null) {
+                return new PaginatedResponse<>(keychainPage.passwords(), page, pageSize,
+                        keychainPage.totalPasswords());
+            }
+        } else {
+            keychain = new CachedKeychain(maxPages);
+            keychains.put(userId, keychain);
+        }
+        KeychainPage keychainPage = loader.load();
+        keychain.putPage(request, new CachedPage(keychainPage));
+        return new PaginatedResponse<>(keychainPage.passwords(), page, pageSize, keychainPage.totalPasswords());
+    }
+
+    /**
+     * Method used to invalidate the cached keychain of the user. When invoked inside a transaction the keychain is
+     * invalidated again after the transaction completed, so the pages loaded before the commit are discarded
+     *
+     * @param userId The identifier of the user
+     */
+    public void invalidateKeychain(String userId) {
+        if (!enabled)
+            return;
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Method used to remove the cached keychain of the user, wiping it, so also the pages being loaded are discarded
+     *
+     * @param userId The identifier of the user
+     */
+    private void invalidate(String userId) {
+        keychains.invalidate(userId);
+    }
+
+    /**
+     * Method used to get the counters of the cache
+     *
+     * @return the counters of the cache as {@link CacheStats}
+     */
+    public CacheStats getStats() {
+        return keychains.getStats();
+    }
+
+    /**
+     * Method used to copy a set of values of the request, so the cached key cannot be changed by the caller
+     *
+     * @param values The values to copy
+     * @return the copied values as {@link Set} of {@link String}
+     */
+    private static Set<String> copyOf(Set<String> values) {
+        if (values == null)
+            return Set.of();
+        Set<String> copiedValues = new HashSet<>();
+        for (String value : values)
+            if (value != null)
+                copiedValues.add(value);
+        return copiedValues;
+    }
+
+    /**
+     * The {@code KeychainRequest} record class is used as key of a cached page of the keychain
+     *
+     * @param page     The page requested
+     * @param pageSize The size of the items to insert in the page
+     * @param keywords The filter keywords
+     * @param types    The types of the passwords to retrieve
+     * @param view     The view of the keychain requested
+     */
+    private record KeychainRequest(int page, int pageSize, Set<String> keywords, Set<String> types,
+                                   KeychainView view) {
+    }
+
+    /**
+     * The {@code CachedKeychain} class is used to keep the cached pages of the keychain of a user, evicting the least
+     * recently used ones when the max number of the pages is reached
+     */
+    private static final class CachedKeychain {
+
+        /**
+         * {@code pages} the cached pages, ordered from the least recently used
+         */
+        private final LinkedHashMap<KeychainRequest, CachedPage> pages;
+
+        /**
+         * {@code maxPages} the max number of the cached pages
+         */
+        private final int maxPages;
+
+        /**
+         * {@code wiped} whether the keychain left the cache, so the pages cached later, loaded before an invalidation
+         * of the keychain completed, must be wiped immediately
+         */
+        private boolean wiped;
+
+        /**
+         * Constructor to init the {@link CachedKeychain} class
+         *
+         * @param maxPages The max number of the cached pages
+         */
+        private CachedKeychain(int maxPages) {
+            this.maxPages = maxPages;
+            pages = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        /**
+         * Method used to get a cached page
+         *
+         * @param request The request of the page
+         * @return the page as {@link KeychainPage}, null if not cached
+         */
+        private KeychainPage getPage(KeychainRequest request) {
+            CachedPage page;
+            synchronized (pages) {
+                page = pages.get(request);
+            }
+            if (page == null)
+                return null;
+            return page.toKeychainPage();
+        }
+
+        /**
+         * Method used to cache a page, wiping the replaced or the evicted ones
+         *
+         * @param request The request of the page
+         * @param page    The page to cache
+         */
+        private void putPage(KeychainRequest request, CachedPage page) {
+            List<CachedPage> evicted = new ArrayList<>();
+            synchronized (pages) {
+                if (wiped) {
+                    page.wipe();
+                    return;
+                }
+                CachedPage replaced = pages.put(request, page);
+                if (replaced != null)
+                    evicted.add(replaced);
+                Iterator<CachedPage> iterator = pages.values().iterator();
+                while (pages.size() > maxPages && iterator.hasNext()) {
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            }
+            evicted.forEach(CachedPage::wipe);
+        }
+
+        /**
+         * Method used to wipe all the cached pages
+         */
+        private void wipe() {
+            List<CachedPage> wipedPages;
+            synchronized (pages) {
+                wipedPages = new ArrayList<>(pages.values());
+                pages.clear();
+                wiped = true;
+            }
+            wipedPages.forEach(CachedPage::wipe);
+        }
+
+    }
+
+    /**
+     * The {@code CachedPage} class is used to keep a page of the keychain with the plain data of the passwords held as
+     * arrays of chars
+     */
+    private static final class CachedPage {
+
+        /**
+         * {@code passwords} the cached passwords of the page
+         */
+        private final CachedPassword[] passwords;
+
+        /**
+         * {@code totalPasswords} the total number of the passwords matching the request
+         */
+        private final long totalPasswords;
+
+        /**
+         * {@code wiped} whether the plain data of the page has been zeroed
+         */
+        private boolean wiped;
+
+        /**
+         * Constructor to init the {@link CachedPage} class
+         *
+         * @param keychainPage The page of the keychain to cache
+         */
+        private CachedPage(KeychainPage keychainPage) {
+            List<Password> pagePasswords = keychainPage.passwords();
+            passwords = new CachedPassword[pagePasswords.size()];
+            for (int j = 0; j < passwords.length; j++)
+                passwords[j] = new CachedPassword(pagePasswords.get(j));
+            totalPasswords = keychainPage.totalPasswords();
+        }
+
+        /**
+         * Method used to rebuild the page of the keychain from the cached data
+         *
+         * @return the page as {@link KeychainPage}, null if the page has been already wiped
+         */
+        private synchronized KeychainPage toKeychainPage() {
+            if (wiped)
+                return null;
+            List<Password> pagePasswords = new ArrayList<>(passwords.length);
+            for (CachedPassword password : passwords)
+                pagePasswords.add(password.toPassword());
+            return new KeychainPage(pagePasswords, totalPasswords);
+        }
+
+        /**
+         * Method used to zero the plain data of the page
+         */
+        private synchronized void wipe() {
+            if (wiped)
+                return;
+            for (CachedPassword password : passwords)
+                password.wipe();
+            wiped = true;
+        }
+
+    }
+
+    /**
+     * The {@code CachedPassword} class is used to keep a decrypted password with its plain data held as arrays of
+     * chars
+     */
+    private static final class CachedPassword {
+
+        /**
+         * {@code id} the identifier of the password
+         */
+        private final String id;
+
+        /**
+         * {@code creationDate} the date when the password has been created
+         */
+        private final long creationDate;
+
+        /**
+         * {@code type} the type of the password
+         */
+        private final PasswordType type;
+
+        /**
+         * {@code tail} the plain tail of the password
+         */
+        private final char[] tail;
+
+        /**
+         * {@code password} the plain value of the password
+         */
+        private final char[] password;
+
+        /**
+         * {@code scopes} the plain scopes of the password
+         */
+        private final char[] scopes;
+
+        /**
+         * Constructor to init the {@link CachedPassword} class
+         *
+         * @param password The decrypted password to cache
+         */
+        private CachedPassword(Password password) {
+            id = password.getId();
+            creationDate = password.getCreationDate();
+            type = password.getType();
+            tail = toChars(password.getTail());
+            this.password = toChars(password.getPassword());
+            scopes = toChars(password.getScopes());
+        }
+
+        /**
+         * Method used to rebuild a detached password from the cached data
+         *
+         * @return the password as {@link Password}
+         */
+        private Password toPassword() {
+            return new Password(id, creationDate, toValue(tail), toValue(password), toValue(scopes), type, null,
+                    null);
+        }
+
+        /**
+         * Method used to zero the plain data of the password
+         */
+        private void wipe() {
+            if (tail != null)
+                Arrays.fill(tail, '\0');
+            if (password != null)
+                Arrays.fill(password, '\0');
+            if (scopes != null)
+                Arrays.fill(scopes, '\0');
+        }
+
+        /**
+         * Method used to convert a plain value in an array of chars
+         *
+         * @param value The value to convert
+         * @return the value as array of {@code char}, null if the value is null
+         */
+        private static char[] toChars(String value) {
+            if (value == null)
+                return null;
+            return value.toCharArray();
+        }
+
+        /**
+         * Method used to convert an array of chars in a plain value
+         *
+         * @param value The value to convert
+         * @return the value as {@link String}, null if the value is null
+         */
+        private static String toValue(char[] value) {
+            if (value == null)
+                return null;
+            return new String(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.equinoxcore.annotations.Validator;
+import com.tecknobit.glider.helpers.BoundedCache;
+import com.tecknobit.glidercore.enums.KeychainView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.service.EquinoxItemsHelper.COMMA;
+
+/**
+ * The {@code KeychainVersions} class is useful to track the version of the keychain of each user, bumped by every
+ * change of the keychain, and to share it as the entity tag of the keychain responses, so the clients can check whether
+ * their copy is still valid without any query or decryption
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Component
+public class KeychainVersions {
+
+    /**
+     * {@code WEAK_ETAG_PREFIX} the prefix of the weak entity tags
+     */
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    /**
+     * {@code ANY_ETAG} the value which matches with any entity tag
+     */
+    private static final String ANY_ETAG = "*";
+
+    /**
+     * {@code bootIdentifier} the identifier of the current run of the server, so the entity tags issued before a
+     * restart never match with the versions tracked after it
+     */
+    private final String bootIdentifier;
+
+    /**
+     * {@code sequence} the sequence used to assign the versions, a version is never assigned twice during the same
+     * run of the server
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * {@code versions} the current version of the keychain of each user, the version of an evicted user is assigned
+     * again from the {@link #sequence}
+     */
+    private final BoundedCache<String, Long> versions;
+
+    /**
+     * Constructor used to init the versions
+     *
+     * @param maxUsers The max number of the users whose version is tracked
+     */
+    @Autowired
+    public KeychainVersions(@Value("${glider.keychain-versions.max-users:100000}") int maxUsers) {
+        bootIdentifier = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        sequence = new AtomicLong();
+        versions = new BoundedCache<>(maxUsers, 0);
+    }
+
+    /**
+     * Method used to get the current version of the keychain of the user
+     *
+     * @param userId The identifier of the user
+     * @return the version of the keychain as {@code long}
+     */
+    public long getVersion(String userId) {
+        try {
+            return versions.get(userId, key -> sequence.incrementAndGet());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Method used to bump the version of the keychain of the user. When invoked inside a transaction the version is
+     * bumped again after the transaction completed, so the responses loaded before the commit are not tagged with the
+     * final version
+     *
+     * @param userId The identifier of the user
+     */
+    public void bumpVersion(String userId) {
+        versions.put(userId, sequence.incrementAndGet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versions.put(userId, sequence.incrementAndGet());
+                }
+            });
+        }
+    }
+
+    /**
+     * Method used to get the entity tag of a keychain response
+     *
+     * @param userId   The identifier of the user
+     * @param page     The page requested
+     * @param pageSize The size of the items to insert in the page
+     * @param keywords The filter keywords
+     * @param types    The types of the passwords to retrieve
+     * @param view     The view of the keychain requested
+     * @return the entity tag as {@link String}
+     */
+    public String getKeychainETag(String userId, int page, int pageSize, Set<String> keywords, Set<String> types,
+                                  KeychainView view) {
+        int requestHash = Objects.hash(page, pageSize, keywords, types, view);
+        return "\"" + bootIdentifier + "-" + Long.toString(getVersion(userId), Character.MAX_RADIX) + "-" +
+                Integer.toHexString(requestHash) + "\"";
+    }
+
+    /**
+     * Method used to check whether the {@code If-None-Match} header of a request matches with the current entity tag
+     *
+     * @param ifNoneMatch The value of the header, null if not specified
+     * @param eTag        The current entity tag
+     * @return whether the header matches with the entity tag as {@code boolean}
+     */
+    @Validator
+    public boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank())
+            return false;
+        for (String candidate : ifNoneMatch.split(COMMA)) {
+            candidate = candidate.trim();
+            if (candidate.startsWith(WEAK_ETAG_PREFIX))
+                candidate = candidate.substring(WEAK_ETAG_PREFIX.length());
+            if (candidate.equals(ANY_ETAG) || candidate.equals(eTag))
+                return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,295 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.glider.services.passwords.dtos.EventsRetentionReport;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
+import com.tecknobit.glider.services.passwords.entities.PasswordEventAggregate;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
+import com.tecknobit.glidercore.enums.PasswordEventType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
+
+/**
+ * The {@code PasswordEventsRetentionService} class is useful to periodically prune the old {@link PasswordEvent}s,
+ * deleting them or rolling them up in the daily {@link PasswordEventAggregate}s, and the old tombstones of the deleted
+ * passwords. The rows are processed in small chunks, each one in its own transaction, so the tables are never locked
+ * for a long time
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Service
+public class PasswordEventsRetentionService {
+
+    /**
+     * {@code RetentionMode} the available policies to prune the old events
+     */
+    public enum RetentionMode {
+
+        /**
+         * {@code NONE} the events are never pruned
+         */
+        NONE,
+
+        /**
+         * {@code DELETE} the old events are deleted
+         */
+        DELETE,
+
+        /**
+         * {@code ROLLUP} the old events are deleted and their occurrences are added to the daily aggregates of the
+         * same password and type
+         */
+        ROLLUP
+
+    }
+
+    /**
+     * {@code RETENTION_THREAD_NAME} the name of the thread of the retention job
+     */
+    private static final String RETENTION_THREAD_NAME = "password-events-retention";
+
+    /**
+     * {@code DAY_MILLIS} the milliseconds of a day
+     */
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000;
+
+    /**
+     * {@code LOGGER} the logger used to report the runs of the retention job
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEventsRetentionService.class);
+
+    /**
+     * {@code bulkRepository} instance used to execute the chunked operations on the events
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * {@code transactionTemplate} the template used to execute each chunk in its own transaction
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * {@code mode} the policy used to prune the old events
+     */
+    private final RetentionMode mode;
+
+    /**
+     * {@code maxAge} the age in milliseconds after which an event is pruned
+     */
+    private final long maxAge;
+
+    /**
+     * {@code chunkSize} the max number of the events pruned by a single transaction
+     */
+    private final int chunkSize;
+
+    /**
+     * {@code retentionJob} the executor of the retention job, {@code null} when the {@link #mode} is
+     * {@link RetentionMode#NONE}
+     */
+    private final ScheduledExecutorService retentionJob;
+
+    /**
+     * {@code lastReport} the report of the last completed run
+     */
+    private volatile EventsRetentionReport lastReport;
+
+    /**
+     * {@code totalPrunedEvents} the number of the events pruned since the application started
+     */
+    private volatile long totalPrunedEvents;
+
+    /**
+     * Constructor used to init the service
+     *
+     * @param bulkRepository     The instance used to execute the chunked operations on the events
+     * @param transactionManager The manager of the transactions of the chunks
+     * @param mode               The policy used to prune the old events
+     * @param maxAge             The age in milliseconds after which an event is pruned
+     * @param chunkSize          The max number of the events pruned by a single transaction
+     * @param interval           The interval in milliseconds between the runs of the retention job
+     */
+    @Autowired
+    public PasswordEventsRetentionService(PasswordsBulkRepository bulkRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${glider.events.retention.mode:NONE}") RetentionMode mode,
+                                          @Value("${glider.events.retention.max-age:7776000000}") long maxAge,
+                                          @Value("${glider.events.retention.chunk-size:1000}") int chunkSize,
+                                          @Value("${glider.events.retention.interval:3600000}") long interval) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be positive");
+        this.bulkRepository = bulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.maxAge = maxAge;
+        this.chunkSize = chunkSize;
+        if (mode == RetentionMode.NONE)
+            retentionJob = null;
+        else {
+            retentionJob = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread retentionThread = new Thread(runnable, RETENTION_THREAD_NAME);
+                retentionThread.setDaemon(true);
+                return retentionThread;
+            });
+            retentionJob.scheduleWithFixedDelay(this::runRetention, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Method used to execute a run of the retention job, the failures are logged and the next run retries from the
+     * oldest event not yet pruned
+     */
+    private void runRetention() {
+        try {
+            EventsRetentionReport report = pruneEvents();
+            lastReport = report;
+            totalPrunedEvents += report.prunedEvents();
+            LOGGER.info("Pruned {} password events, stored {} aggregates and pruned {} tombstones in {} chunks ({} ms)",
+                    report.prunedEvents(), report.storedAggregates(), report.prunedTombstones(), report.chunks(),
+                    report.duration());
+        } catch (Exception e) {
+            LOGGER.error("Unable to prune the password events", e);
+        }
+    }
+
+    /**
+     * Method used to prune all the events older than the {@link #maxAge} following the {@link #mode}
+     *
+     * @return the report of the run as {@link EventsRetentionReport}
+     */
+    public EventsRetentionReport pruneEvents() {
+        long startDate = System.currentTimeMillis();
+        long cutoffDate = startDate - maxAge;
+        long prunedEvents = 0;
+        long storedAggregates = 0;
+        long prunedTombstones = 0;
+        int chunks = 0;
+        if (mode != RetentionMode.NONE) {
+            while (true) {
+                long[] chunkOutcome = transactionTemplate.execute(status -> pruneChunk(cutoffDate));
+                if (chunkOutcome == null || chunkOutcome[0] == 0)
+                    break;
+                chunks++;
+                prunedEvents += chunkOutcome[0];
+                storedAggregates += chunkOutcome[1];
+                if (chunkOutcome[0] < chunkSize)
+                    break;
+            }
+            int chunkTombstones;
+            do {
+                chunkTombstones = bulkRepository.deleteExpiredTombstones(cutoffDate, chunkSize);
+                prunedTombstones += chunkTombstones;
+                if (chunkTombstones > 0)
+                    chunks++;
+            } while (chunkTombstones == chunkSize);
+        }
+        return new EventsRetentionReport(startDate, System.currentTimeMillis() - startDate, cutoffDate,
+                prunedEvents, storedAggregates, prunedTombstones, chunks);
+    }
+
+    /**
+     * Method used to prune a chunk of the events older than the cutoff date
+     *
+     * @param cutoffDate The date before which the events must have occurred
+     * @return the number of the pruned events and of the stored aggregates as array of {@code long}
+     */
+    private long[] pruneChunk(long cutoffDate) {
+        if (mode == RetentionMode.DELETE)
+            return new long[]{bulkRepository.deleteExpiredEvents(cutoffDate, chunkSize), 0};
+        List<PasswordEvent> events = bulkRepository.getExpiredEvents(cutoffDate, chunkSize);
+        if (events.isEmpty())
+            return new long[]{0, 0};
+        List<PasswordEventAggregate> aggregates = rollUpEvents(events);
+        bulkRepository.upsertEventAggregates(aggregates);
+        List<String> eventsIds = new ArrayList<>(events.size());
+        for (PasswordEvent event : events)
+            eventsIds.add(event.getId());
+        return new long[]{bulkRepository.deleteEvents(eventsIds), aggregates.size()};
+    }
+
+    /**
+     * Method used to roll up a chunk of events in the daily aggregates of each password and type
+     *
+     * @param events The events to roll up
+     * @return the aggregates as {@link List} of {@link PasswordEventAggregate}
+     */
+    private List<PasswordEventAggregate> rollUpEvents(List<PasswordEvent> events) {
+        Map<AggregateKey, Long> occurrences = new LinkedHashMap<>();
+        for (PasswordEvent event : events) {
+            long eventDay = Math.floorDiv(event.getEventDate(), DAY_MILLIS) * DAY_MILLIS;
+            AggregateKey key = new AggregateKey(event.getPassword().getId(), event.getType(), eventDay);
+            occurrences.merge(key, (long) event.getOccurrences(), Long::sum);
+        }
+        List<PasswordEventAggregate> aggregates = new ArrayList<>(occurrences.size());
+        occurrences.forEach((key, dayOccurrences) -> {
+            Password password = new Password(key.passwordId(), -1, null, null, null, null, null, null);
+            aggregates.add(new PasswordEventAggregate(generateIdentifier(), key.eventDay(), key.type(),
+                    dayOccurrences, password));
+        });
+        return aggregates;
+    }
+
+    /**
+     * Method used to get the date before which the events and the tombstones could have been pruned, so the changes
+     * occurred before it cannot be resolved anymore
+     *
+     * @return the retention horizon as {@code long}, {@code 0} if the events are never pruned
+     */
+    public long getRetentionHorizon() {
+        if (mode == RetentionMode.NONE)
+            return 0;
+        return System.currentTimeMillis() - maxAge;
+    }
+
+    /**
+     * Method used to get the {@link #lastReport} instance
+     *
+     * @return the {@link #lastReport} instance as {@link EventsRetentionReport}, {@code null} if no run has been
+     * completed yet
+     */
+    public EventsRetentionReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Method used to get the {@link #totalPrunedEvents} instance
+     *
+     * @return the {@link #totalPrunedEvents} instance as {@code long}
+     */
+    public long getTotalPrunedEvents() {
+        return totalPrunedEvents;
+    }
+
+    /**
+     * Method used to stop the retention job when the application stops, an interrupted chunk is rolled back
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (retentionJob != null)
+            retentionJob.shutdownNow();
+    }
+
+    /**
+     * The {@code AggregateKey} record class is used to group the events of the same password, type and day
+     *
+     * @param passwordId The identifier of the password
+     * @param type       The type of the events
+     * @param eventDay   The start of the UTC day when the events occurred
+     */
+    private record AggregateKey(String passwordId, PasswordEventType type, long eventDay) {
+    }
+
+}
@@ -1,15 +1,29 @@
 package com.tecknobit.glider.services.passwords.services;
 
 import com.tecknobit.equinoxcore.annotations.Wrapper;
+import com.tecknobit.equinoxcore.pagination.PaginatedResponse;
 import com.tecknobit.glider.services.passwords.entities.Password;
 import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
 import com.tecknobit.glider.services.passwords.repositories.PasswordEventsRepository;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
 import com.tecknobit.glidercore.enums.PasswordEventType;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
 import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
+import static com.tecknobit.equinoxcore.pagination.PaginatedResponse.DEFAULT_PAGE;
+import static com.tecknobit.equinoxcore.pagination.PaginatedResponse.DEFAULT_PAGE_SIZE;
 import static com.tecknobit.glidercore.enums.PasswordEventType.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * The {@code PasswordEventsService} class is useful to manage all the password events database operations
@@ -19,19 +33,106 @@ import static com.tecknobit.glidercore.enums.PasswordEventType.*;
 @Service
 public class PasswordEventsService {
 
+    /**
+     * {@code COALESCER_THREAD_NAME} the name of the thread which closes the expired windows of the copied events
+     */
+    private static final String COALESCER_THREAD_NAME = "copied-events-coalescer";
+
+    /**
+     * {@code MAX_COALESCER_INTERVAL} the max interval in milliseconds between the checks of the expired windows
+     */
+    private static final long MAX_COALESCER_INTERVAL = 1000;
+
     /**
      * {@code eventsRepository} instance used to manage the database operations for the events
      */
     private final PasswordEventsRepository eventsRepository;
 
+    /**
+     * {@code bulkRepository} instance used to execute the batched inserts of the events
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * {@code eventsWriter} the writer which stores the single events out of the requests
+     */
+    private final PasswordEventsWriter eventsWriter;
+
+    /**
+     * {@code copiedWindow} the time in milliseconds in which the repeated {@link PasswordEventType#COPIED} events of
+     * the same password are coalesced in a single event, zero to disable the coalescing
+     */
+    private final long copiedWindow;
+
+    /**
+     * {@code copiedEvents} the currently open windows of the {@link PasswordEventType#COPIED} events, indexed by the
+     * identifier of the password
+     */
+    private final ConcurrentHashMap<String, CopiedEventsWindow> copiedEvents;
+
+    /**
+     * {@code coalescer} the executor which closes the expired windows of the copied events
+     */
+    private final ScheduledExecutorService coalescer;
+
     /**
      * Constructor used to init the service
      *
      * @param eventsRepository The instance used to manage the database operations for the events
+     * @param bulkRepository   The instance used to execute the batched inserts of the events
+     * @param eventsWriter     The writer which stores the single events out of the requests
+     * @param copiedWindow     The time in milliseconds in which the repeated copied events of the same password are
+     *                         coalesced, zero to disable the coalescing
      */
     @Autowired
-    public PasswordEventsService(PasswordEventsRepository eventsRepository) {
+    public PasswordEventsService(PasswordEventsRepository eventsRepository, PasswordsBulkRepository bulkRepository,
+                                 PasswordEventsWriter eventsWriter,
+                                 @Value("${glider.events.copied-window:60000}") long copiedWindow) {
         this.eventsRepository = eventsRepository;
+        this.bulkRepository = bulkRepository;
+        this.eventsWriter = eventsWriter;
+        this.copiedWindow = copiedWindow;
+        copiedEvents = new ConcurrentHashMap<>();
+        if (copiedWindow > 0) {
+            coalescer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread coalescerThread = new Thread(runnable, COALESCER_THREAD_NAME);
+                coalescerThread.setDaemon(true);
+                return coalescerThread;
+            });
+            long interval = Math.min(copiedWindow, MAX_COALESCER_INTERVAL);
+            coalescer.scheduleWithFixedDelay(() -> closeCopiedWindows(false), interval, interval, MILLISECONDS);
+        } else
+            coalescer = null;
+    }
+
+    /**
+     * Method used to retrieve the events of a password, from the most recent one. The pending events are stored
+     * before the retrieval, so the events registered by the previous requests are included
+     *
+     * @param passwordId The identifier of the password
+     * @param page The page requested
+     * @param pageSize The size of the items to insert in the page
+     *
+     * @return the events of the password as {@link PaginatedResponse} of {@link PasswordEvent}
+     */
+    public PaginatedResponse<PasswordEvent> getPasswordEvents(String passwordId, int page, int pageSize) {
+        if (page < 0)
+            page = DEFAULT_PAGE;
+        if (pageSize <= 0)
+            pageSize = DEFAULT_PAGE_SIZE;
+        eventsWriter.flushEvents();
+        long totalEvents = eventsRepository.countPasswordEvents(passwordId);
+        List<PasswordEvent> events = eventsRepository.getPasswordEvents(passwordId, PageRequest.of(page, pageSize));
+        return new PaginatedResponse<>(events, page, pageSize, totalEvents);
+    }
+
+    /**
+     * Method used to store all the pending events, so the queries executed after are up to date with the events
+     * registered by the previous requests
+     */
+    @Wrapper
+    public void flushEvents() {
+        eventsWriter.flushEvents();
     }
 
     /**
@@ -54,6 +155,61 @@ public class PasswordEventsService {
         registerPasswordEvent(password, insertionDate, INSERTED);
     }
 
+    /**
+     * Method used to register the {@link PasswordEventType#GENERATED} event of a batch of passwords with a single
+     * batched insert
+     *
+     * @param passwords The passwords owners of the events
+     * @param generationDate The date when the passwords have been generated
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    @Wrapper
+    public void registerGeneratedPasswordsEvents(List<Password> passwords, long generationDate, long changeSequence) {
+        registerPasswordsEvents(passwords, generationDate, GENERATED, changeSequence);
+    }
+
+    /**
+     * Method used to register the {@link PasswordEventType#INSERTED} event of a batch of passwords with a single
+     * batched insert
+     *
+     * @param passwords The passwords owners of the events
+     * @param insertionDate The date when the passwords have been inserted
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    @Wrapper
+    public void registerInsertedPasswordsEvents(List<Password> passwords, long insertionDate, long changeSequence) {
+        registerPasswordsEvents(passwords, insertionDate, INSERTED, changeSequence);
+    }
+
+    /**
+     * Method used to register the {@link PasswordEventType#EDITED} event of a batch of passwords with a single batched
+     * insert
+     *
+     * @param passwords The passwords owners of the events
+     * @param editDate The date when the passwords have been edited
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    @Wrapper
+    public void registerEditedPasswordsEvents(List<Password> passwords, long editDate, long changeSequence) {
+        registerPasswordsEvents(passwords, editDate, EDITED, changeSequence);
+    }
+
+    /**
+     * Method used to register the same event for a batch of passwords with a single batched insert
+     *
+     * @param passwords The passwords owners of the events
+     * @param eventDate The date of the events
+     * @param type The type of the events to register
+     * @param changeSequence The change sequence of the keychain of the user assigned to the events
+     */
+    private void registerPasswordsEvents(List<Password> passwords, long eventDate, PasswordEventType type,
+                                         long changeSequence) {
+        List<PasswordEvent> events = new ArrayList<>(passwords.size());
+        for (Password password : passwords)
+            events.add(new PasswordEvent(generateIdentifier(), eventDate, type, password));
+        bulkRepository.insertEvents(events, changeSequence);
+    }
+
     /**
      * Method used to register the {@link PasswordEventType#EDITED} event
      *
@@ -65,13 +221,55 @@ public class PasswordEventsService {
     }
 
     /**
-     * Method used to register the {@link PasswordEventType#COPIED} event
+     * Method used to register the {@link PasswordEventType#COPIED} event. When the coalescing is enabled the copies of
+     * the same password inside the {@link #copiedWindow} are stored as a single event with their occurrences
      *
      * @param password The password owner of the event
      */
-    @Wrapper
     public void registerCopiedPasswordEvent(Password password) {
-        registerPasswordEvent(password, COPIED);
+        long copyDate = System.currentTimeMillis();
+        if (coalescer == null) {
+            registerPasswordEvent(password, copyDate, COPIED);
+            return;
+        }
+        copiedEvents.compute(password.getId(), (passwordId, window) -> {
+            if (window == null)
+                return new CopiedEventsWindow(password, copyDate);
+            window.occurrences++;
+            return window;
+        });
+    }
+
+    /**
+     * Method used to close the windows of the copied events, submitting their coalesced events
+     *
+     * @param closeAll Whether close all the windows, also the not expired ones
+     */
+    private void closeCopiedWindows(boolean closeAll) {
+        long currentDate = System.currentTimeMillis();
+        List<PasswordEvent> coalescedEvents = new ArrayList<>();
+        for (String passwordId : copiedEvents.keySet()) {
+            copiedEvents.computeIfPresent(passwordId, (id, window) -> {
+                if (!closeAll && currentDate - window.firstCopyDate < copiedWindow)
+                    return window;
+                coalescedEvents.add(new PasswordEvent(generateIdentifier(), window.firstCopyDate, COPIED,
+                        window.occurrences, window.password));
+                return null;
+            });
+        }
+        for (PasswordEvent coalescedEvent : coalescedEvents)
+            eventsWriter.submit(coalescedEvent);
+    }
+
+    /**
+     * Method used to submit the pending copied events when the application stops, before the writer is drained
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (coalescer == null)
+            return;
+        coalescer.shutdownNow();
+        closeCopiedWindows(true);
     }
 
     /**
@@ -96,14 +294,50 @@ public class PasswordEventsService {
     }
 
     /**
-     * Method used to register an event of a password
+     * Method used to register an event of a password, the event is stored asynchronously by the {@link #eventsWriter}
      *
      * @param password The password owner of the event
      * @param eventDate The date of the event
      * @param type The type of the event to register
      */
     private void registerPasswordEvent(Password password, long eventDate, PasswordEventType type) {
-        eventsRepository.save(new PasswordEvent(generateIdentifier(), eventDate, type, password));
+        eventsWriter.submit(new PasswordEvent(generateIdentifier(), eventDate, type, password));
+    }
+
+    /**
+     * The {@code CopiedEventsWindow} class is used to count the copies of a password inside an open window
+     *
+     * @author N7ghtm4r3 - Tecknobit
+     */
+    private static final class CopiedEventsWindow {
+
+        /**
+         * {@code password} the copied password
+         */
+        private final Password password;
+
+        /**
+         * {@code firstCopyDate} the date of the first copy of the window
+         */
+        private final long firstCopyDate;
+
+        /**
+         * {@code occurrences} the copies counted in the window, updated only while the window is locked by the map
+         */
+        private int occurrences;
+
+        /**
+         * Constructor to init the window
+         *
+         * @param password      The copied password
+         * @param firstCopyDate The date of the first copy of the window
+         */
+        private CopiedEventsWindow(Password password, long firstCopyDate) {
+            this.password = password;
+            this.firstCopyDate = firstCopyDate;
+            occurrences = 1;
+        }
+
     }
 
 }
@@ -0,0 +1,279 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code PasswordEventsWriter} class is useful to store the {@link PasswordEvent}s out of the requests, the events
+ * are buffered in a bounded queue and flushed with batched inserts by a background writer. The events of each user are
+ * stored in their own transaction together with the next change sequence of the keychain of the user, so the events
+ * stored late are still returned by the next delta sync of the devices
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Component
+public class PasswordEventsWriter {
+
+    /**
+     * {@code WRITER_THREAD_NAME} the name of the thread of the background writer
+     */
+    private static final String WRITER_THREAD_NAME = "password-events-writer";
+
+    /**
+     * {@code SHUTDOWN_TIMEOUT} the time in milliseconds to wait the running flush when the application stops
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10 * 1000;
+
+    /**
+     * {@code LOGGER} the logger used to report the failed flushes
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEventsWriter.class);
+
+    /**
+     * {@code bulkRepository} instance used to execute the batched inserts of the events
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * {@code transactionTemplate} the template used to store the events of each user in their own transaction
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * {@code queue} the bounded queue of the events waiting to be stored
+     */
+    private final ArrayBlockingQueue<PasswordEvent> queue;
+
+    /**
+     * {@code batchSize} the max number of the events stored with a single batched insert
+     */
+    private final int batchSize;
+
+    /**
+     * {@code writer} the executor of the background writer
+     */
+    private final ScheduledExecutorService writer;
+
+    /**
+     * {@code flushLock} the lock which serializes the flushes of the background writer and of the callers
+     */
+    private final ReentrantLock flushLock;
+
+    /**
+     * {@code failedEvents} the events of the last failed flush, retried before the queued ones, accessed just while
+     * holding the {@link #flushLock}
+     */
+    private final List<PasswordEvent> failedEvents;
+
+    /**
+     * {@code flushRequested} whether a flush of the background writer has been already requested because the queue
+     * reached the {@link #batchSize}
+     */
+    private final AtomicBoolean flushRequested;
+
+    /**
+     * Constructor used to init the writer
+     *
+     * @param bulkRepository     The instance used to execute the batched inserts of the events
+     * @param transactionManager The manager of the transactions of the events of each user
+     * @param queueCapacity      The max number of the events waiting to be stored
+     * @param batchSize          The max number of the events stored with a single batched insert
+     * @param flushInterval      The interval in milliseconds between the periodic flushes
+     */
+    @Autowired
+    public PasswordEventsWriter(PasswordsBulkRepository bulkRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${glider.events.queue-capacity:10000}") int queueCapacity,
+                                @Value("${glider.events.batch-size:500}") int batchSize,
+                                @Value("${glider.events.flush-interval:1000}") long flushInterval) {
+        this.bulkRepository = bulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        flushLock = new ReentrantLock();
+        failedEvents = new ArrayList<>();
+        flushRequested = new AtomicBoolean();
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread writerThread = new Thread(runnable, WRITER_THREAD_NAME);
+            writerThread.setDaemon(true);
+            return writerThread;
+        });
+        writer.scheduleWithFixedDelay(this::flushEvents, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method used to submit an event to store. When the queue is full the caller stores a batch of the pending events
+     * by itself, so the producers are slowed down instead of losing the events. When the background writer has been
+     * stopped the events are stored directly by the caller
+     *
+     * @param event The event to store
+     */
+    public void submit(PasswordEvent event) {
+        while (!queue.offer(event))
+            if (!flushBatch())
+                throw new IllegalStateException("Unable to store the pending password events");
+        if (writer.isShutdown())
+            flushEvents();
+        else if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> {
+                    flushRequested.set(false);
+                    flushEvents();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+                flushEvents();
+            }
+        }
+    }
+
+    /**
+     * Method used to store all the pending events, waiting also the batch which is being stored by the background
+     * writer, so when the method returns all the events submitted before have been stored, unless a flush failed: in
+     * that case the failed events are kept and retried by the next flush
+     */
+    public void flushEvents() {
+        do {
+            if (!flushBatch())
+                return;
+        } while (!queue.isEmpty());
+    }
+
+    /**
+     * Method used to store a batch of the pending events, starting from the events of a previous failed flush. The
+     * events are grouped by their user and the events of each user are stored in their own transaction, when the
+     * events of a user cannot be stored they are kept to be retried together with the events of the users not stored
+     * yet
+     *
+     * @return whether the batch has been stored as {@code boolean}
+     */
+    private boolean flushBatch() {
+        flushLock.lock();
+        try {
+            List<PasswordEvent> events = new ArrayList<>(batchSize);
+            if (failedEvents.isEmpty())
+                queue.drainTo(events, batchSize);
+            else {
+                events.addAll(failedEvents);
+                failedEvents.clear();
+            }
+            if (events.isEmpty())
+                return true;
+            Map<String, List<PasswordEvent>> usersEvents = new LinkedHashMap<>();
+            for (PasswordEvent event : events) {
+                usersEvents.computeIfAbsent(event.getPassword().getUser().getId(), userId -> new ArrayList<>())
+                        .add(event);
+            }
+            List<Map.Entry<String, List<PasswordEvent>>> pendingEvents = new ArrayList<>(usersEvents.entrySet());
+            for (int j = 0; j < pendingEvents.size(); j++) {
+                Map.Entry<String, List<PasswordEvent>> userEvents = pendingEvents.get(j);
+                if (!storeUserEvents(userEvents.getKey(), userEvents.getValue())) {
+                    for (Map.Entry<String, List<PasswordEvent>> notStoredEvents : pendingEvents.subList(j + 1,
+                            pendingEvents.size())) {
+                        failedEvents.addAll(notStoredEvents.getValue());
+                    }
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Method used to store the events of a user with a single batched insert. When the batched insert is rejected by
+     * the database the events are stored one by one, so just the invalid events are discarded, while the events not
+     * stored for any other error are kept to be retried
+     *
+     * @param userId The identifier of the user owner of the events
+     * @param events The events to store
+     * @return whether the events have been stored as {@code boolean}
+     */
+    private boolean storeUserEvents(String userId, List<PasswordEvent> events) {
+        try {
+            insertEvents(userId, events);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return storeEvents(userId, events);
+        } catch (Exception e) {
+            LOGGER.error("Unable to store {} password events, they will be retried by the next flush",
+                    events.size(), e);
+            failedEvents.addAll(events);
+            return false;
+        }
+    }
+
+    /**
+     * Method used to store a batch of events one by one, discarding just the events rejected by the database, such as
+     * the events already stored by a batch partially executed
+     *
+     * @param userId The identifier of the user owner of the events
+     * @param events The events to store
+     * @return whether all the events have been stored or discarded as {@code boolean}
+     */
+    private boolean storeEvents(String userId, List<PasswordEvent> events) {
+        for (int j = 0; j < events.size(); j++) {
+            PasswordEvent event = events.get(j);
+            try {
+                insertEvents(userId, List.of(event));
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.error("Unable to store the password event {}, it has been discarded", event.getId(), e);
+            } catch (Exception e) {
+                LOGGER.error("Unable to store {} password events, they will be retried by the next flush",
+                        events.size() - j, e);
+                failedEvents.addAll(events.subList(j, events.size()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method used to insert the events of a user in a single transaction, assigning them the next change sequence of
+     * the keychain of the user
+     *
+     * @param userId The identifier of the user owner of the events
+     * @param events The events to insert
+     */
+    private void insertEvents(String userId, List<PasswordEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long changeSequence = bulkRepository.nextChangeSequence(userId);
+            bulkRepository.insertExistingPasswordsEvents(events, changeSequence);
+        });
+    }
+
+    /**
+     * Method used to stop the background writer and to store the pending events when the application stops
+     *
+     * @throws InterruptedException when the wait of the running flush is interrupted
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+        flushEvents();
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.tecknobit.glider.services.passwords.services;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.passwords.helpers.KeywordsTokenizer;
+import com.tecknobit.glider.services.passwords.repositories.PasswordKeywordsRepository;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
+import com.tecknobit.glidercore.enums.KeychainView;
+import jakarta.transaction.Transactional;
+import kotlin.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
+
+/**
+ * The {@code PasswordKeywordsService} class is useful to manage the blind keywords index of the passwords, used to
+ * resolve the keyword searches before decrypting any password
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@Service
+public class PasswordKeywordsService {
+
+    /**
+     * {@code keywordsRepository} instance used to manage the database operations for the keywords index
+     */
+    private final PasswordKeywordsRepository keywordsRepository;
+
+    /**
+     * {@code bulkRepository} instance used to read the passwords to index and to execute the batched inserts of the
+     * tokens
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
+    /**
+     * Constructor used to init the service
+     *
+     * @param keywordsRepository  The instance used to manage the database operations for the keywords index
+     * @param bulkRepository      The instance used to read the passwords to index and to execute the batched inserts
+     *                            of the tokens
+     */
+    @Autowired
+    public PasswordKeywordsService(PasswordKeywordsRepository keywordsRepository,
+                                   PasswordsBulkRepository bulkRepository) {
+        this.keywordsRepository = keywordsRepository;
+        this.bulkRepository = bulkRepository;
+    }
+
+    /**
+     * Method used to index a password
+     *
+     * @param userId     The identifier of the user
+     * @param token      The token of the user
+     * @param passwordId The identifier of the password
+     * @param tail       The plain tail of the password
+     * @param scopes     The plain scopes of the password
+     * @throws Exception when an error occurred during the indexing
+     */
+    public void indexPassword(String userId, String token, String passwordId, String tail,
+                              String scopes) throws Exception {
+        List<Object[]> keywords = new ArrayList<>();
+        loadPasswordKeywords(keywords, userId, token, passwordId, tail, scopes);
+        bulkRepository.insertKeywords(keywords);
+    }
+
+    /**
+     * Method used to index a batch of passwords with a single batched insert
+     *
+     * @param userId    The identifier of the user
+     * @param token     The token of the user
+     * @param passwords The passwords to index, each one with its plain data
+     * @throws Exception when an error occurred during the indexing
+     */
+    public void indexPasswords(String userId, String token, List<Password> passwords) throws Exception {
+        List<Object[]> keywords = new ArrayList<>();
+        for (Password password : passwords) {
+            loadPasswordKeywords(keywords, userId, token, password.getId(), password.getTail(),
+                    password.getScopes());
+        }
+        bulkRepository.insertKeywords(keywords);
+    }
+
+    /**
+     * Method used to load the tokens of a password to insert in the keywords index
+     *
+     * @param keywords   The tokens to insert
+     * @param userId     The identifier of the user
+     * @param token      The token of the user
+     * @param passwordId The identifier of the password
+     * @param tail       The plain tail of the password
+     * @param scopes     The plain scopes of the password
+     * @throws Exception when an error occurred during the tokenization
+     */
+    private void loadPasswordKeywords(List<Object[]> keywords, String userId, String token, String passwordId,
+                                      String tail, String scopes) throws Exception {
+        KeywordsTokenizer tokenizer = KeywordsTokenizer.getInstance();
+        ServerVault vault = ServerVault.getInstance();
+        Pair<Integer, Set<String>> keywordTokens = vault.computeKeywordTokens(token,
+                tokenizer.getIndexFragments(tail, scopes));
+        int keywordGeneration = keywordTokens.getFirst();
+        for (String keywordToken : keywordTokens.getSecond())
+            keywords.add(new Object[]{generateIdentifier(), userId, passwordId, keywordToken, keywordGeneration});
+    }
+
+    /**
+     * Method used to replace the index of an edited password
+     *
+     * @param userId     The identifier of the user
+     * @param token      The token of the user
+     * @param passwordId The identifier of the password
+     * @param tail       The plain tail of the password
+     * @param scopes     The plain scopes of the password
+     * @throws Exception when an error occurred during the indexing
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public void reindexPassword(String userId, String token, String passwordId, String tail,
+                                String scopes) throws Exception {
+        keywordsRepository.deletePasswordKeywords(passwordId);
+        indexPassword(userId, token, passwordId, tail, scopes);
+    }
+
+    /**
+     * Method used to replace the index of a batch of edited passwords
+     *
+     * @param userId    The identifier of the user
+     * @param token     The token of the user
+     * @param passwords The edited passwords to index, each one with its plain data
+     * @throws Exception when an error occurred during the indexing
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public void reindexPasswords(String userId, String token, List<Password> passwords) throws Exception {
+        if (passwords.isEmpty())
+            return;
+        List<String> passwordsIds = new ArrayList<>(passwords.size());
+        for (Password password : passwords)
+            passwordsIds.add(password.getId());
+        keywordsRepository.deletePasswordsKeywords(passwordsIds);
+        indexPasswords(userId, token, passwords);
+    }
+
+    /**
+     * Method used to index the passwords of the user stored before the keywords index was available and to rebuild
+     * the index of the passwords whose tokens have been computed with a key generation no longer used by the index,
+     * such as the tokens computed with the previous key and stored after a key rotation has been completed. The
+     * passwords are read detached, so the instances decrypted here are never returned again or stored back by the
+     * persistence context
+     *
+     * @param userId The identifier of the user
+     * @param token  The token of the user
+     * @throws Exception when an error occurred during the indexing
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public void indexMissingPasswords(String userId, String token) throws Exception {
+        ServerVault vault = ServerVault.getInstance();
+        List<Password> notIndexedPasswords = bulkRepository.getNotIndexedPasswords(userId,
+                vault.getKeywordsGeneration(token));
+        if (notIndexedPasswords.isEmpty())
+            return;
+        vault.decryptPasswords(token, notIndexedPasswords, KeychainView.LIST);
+        List<String> passwordsIds = new ArrayList<>(notIndexedPasswords.size());
+        for (Password password : notIndexedPasswords)
+            passwordsIds.add(password.getId());
+        keywordsRepository.deletePasswordsKeywords(passwordsIds);
+        indexPasswords(userId, token, notIndexedPasswords);
+    }
+
+    /**
+     * Method used to retrieve the identifiers of the candidate passwords which could match with any of the filter
+     * keywords. The candidates must be decrypted and verified because different fragments may lead to false positives
+     *
+     * @param userId   The identifier of the user
+     * @param token    The token of the user
+     * @param keywords The filter keywords
+     * @return the identifiers of the candidate passwords as {@link Set} of {@link String}
+     * @throws Exception when an error occurred during the lookup
+     */
+    public Set<String> getCandidatePasswords(String userId, String token, Set<String> keywords) throws Exception {
+        KeywordsTokenizer tokenizer = KeywordsTokenizer.getInstance();
+        ServerVault vault = ServerVault.getInstance();
+        Set<String> candidates = new HashSet<>();
+        for (String keyword : keywords) {
+            if (keyword.isBlank())
+                continue;
+            Pair<Integer, Set<String>> keywordTokens = vault.computeKeywordTokens(token,
+                    tokenizer.getKeywordFragments(keyword));
+            Set<String> tokens = keywordTokens.getSecond();
+            candidates.addAll(keywordsRepository.getMatchingPasswords(userId, tokens, keywordTokens.getFirst(),
+                    tokens.size()));
+        }
+        return candidates;
+    }
+
+}
@@ -1,27 +1,44 @@
 package com.tecknobit.glider.services.passwords.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tecknobit.apimanager.formatters.JsonHelper;
 import com.tecknobit.equinoxcore.annotations.Returner;
 import com.tecknobit.equinoxcore.annotations.Validator;
 import com.tecknobit.equinoxcore.annotations.Wrapper;
 import com.tecknobit.equinoxcore.pagination.PaginatedResponse;
+import com.tecknobit.glider.helpers.RandomnessProvider;
 import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.dtos.KeychainDelta;
+import com.tecknobit.glider.services.passwords.dtos.PasswordGenerationEntry;
+import com.tecknobit.glider.services.passwords.dtos.PasswordImportEntry;
 import com.tecknobit.glider.services.passwords.dtos.PasswordMask;
+import com.tecknobit.glider.services.passwords.dtos.PasswordScopesEntry;
 import com.tecknobit.glider.services.passwords.entities.Password;
 import com.tecknobit.glider.services.passwords.entities.PasswordConfiguration;
+import com.tecknobit.glider.services.passwords.entities.PasswordEvent;
+import com.tecknobit.glider.services.passwords.helpers.KeywordsFilter;
 import com.tecknobit.glider.services.passwords.helpers.PasswordGenerator;
+import com.tecknobit.glider.services.passwords.repositories.PasswordTombstonesRepository;
+import com.tecknobit.glider.services.passwords.repositories.PasswordsBulkRepository;
 import com.tecknobit.glider.services.passwords.repositories.PasswordsRepository;
+import com.tecknobit.glider.services.passwords.services.KeychainCache.KeychainPage;
+import com.tecknobit.glider.services.shared.dtos.BulkOperationReport;
+import com.tecknobit.glider.services.shared.dtos.BulkOperationReport.ItemFailure;
 import com.tecknobit.glider.services.users.entities.GliderUser;
+import com.tecknobit.glidercore.enums.KeychainView;
 import com.tecknobit.glidercore.enums.PasswordType;
 import kotlin.Pair;
 import kotlin.Triple;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.*;
 
 import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
 import static com.tecknobit.equinoxcore.helpers.InputsValidator.Companion;
@@ -39,26 +56,100 @@ import static com.tecknobit.glidercore.enums.PasswordType.INSERTED;
 @Service
 public class PasswordsService {
 
+    /**
+     * {@code TAIL_ALREADY_EXISTS_MESSAGE} message to use when the tail of a password is already used
+     */
+    public static final String TAIL_ALREADY_EXISTS_MESSAGE = "tail_already_exists";
+
+    /**
+     * {@code DUPLICATED_PASSWORD_MESSAGE} message to use when the same password is specified more times in a bulk
+     * request
+     */
+    public static final String DUPLICATED_PASSWORD_MESSAGE = "duplicated_password";
+
+    /**
+     * {@code EXPORT_CHUNK_SIZE} the number of the passwords decrypted together during the export of the keychain
+     */
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
+    /**
+     * {@code EXPORT_LINES_SEPARATOR} the separator of the passwords exported as newline-delimited JSON
+     */
+    private static final byte EXPORT_LINES_SEPARATOR = '\n';
+
     /**
      * {@code passwordsRepository} instance used to manage the database operations for the passwords
      */
     private final PasswordsRepository passwordsRepository;
 
+    /**
+     * {@code bulkRepository} instance used to manage the database operations on a large number of passwords
+     */
+    private final PasswordsBulkRepository bulkRepository;
+
     /**
      * {@code eventsService} instance used to manage the events related to a password
      */
     private final PasswordEventsService eventsService;
 
+    /**
+     * {@code keywordsService} instance used to manage the keywords index of the passwords
+     */
+    private final PasswordKeywordsService keywordsService;
+
+    /**
+     * {@code mapper} instance used to serialize the exported passwords
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * {@code keychainCache} instance used to cache the decrypted pages of the keychains
+     */
+    private final KeychainCache keychainCache;
+
+    /**
+     * {@code keychainVersions} instance used to track the versions of the keychains
+     */
+    private final KeychainVersions keychainVersions;
+
+    /**
+     * {@code tombstonesRepository} instance used to retrieve the tombstones of the deleted passwords
+     */
+    private final PasswordTombstonesRepository tombstonesRepository;
+
+    /**
+     * {@code retentionService} instance used to know the retention horizon of the events
+     */
+    private final PasswordEventsRetentionService retentionService;
+
     /**
      * Constructor used to init the service
      *
      * @param passwordsRepository The instance used to manage the database operations for the passwords
+     * @param bulkRepository      The instance used to manage the database operations on a large number of passwords
      * @param eventsService       The instance used to manage the events related to a password
+     * @param keywordsService     The instance used to manage the keywords index of the passwords
+     * @param mapper              The instance used to serialize the exported passwords
+     * @param keychainCache       The instance used to cache the decrypted pages of the keychains
+     * @param keychainVersions    The instance used to track the versions of the keychains
+     * @param tombstonesRepository The instance used to retrieve the tombstones of the deleted passwords
+     * @param retentionService    The instance used to know the retention horizon of the events
      */
     @Autowired
-    public PasswordsService(PasswordsRepository passwordsRepository, PasswordEventsService eventsService) {
+    public PasswordsService(PasswordsRepository passwordsRepository, PasswordsBulkRepository bulkRepository,
+                            PasswordEventsService eventsService, PasswordKeywordsService keywordsService,
+                            ObjectMapper mapper, KeychainCache keychainCache,
+                            KeychainVersions keychainVersions, PasswordTombstonesRepository tombstonesRepository,
+                            PasswordEventsRetentionService retentionService) {
         this.passwordsRepository = passwordsRepository;
+        this.bulkRepository = bulkRepository;
         this.eventsService = eventsService;
+        this.keywordsService = keywordsService;
+        this.mapper = mapper;
+        this.keychainCache = keychainCache;
+        this.keychainVersions = keychainVersions;
+        this.tombstonesRepository = tombstonesRepository;
+        this.retentionService = retentionService;
     }
 
     /**
@@ -88,10 +179,13 @@ public class PasswordsService {
                 includeUppercaseLetters,
                 includeSpecialCharacters
         );
+        checkPreviousTail(token, tail, null);
         long generationDate = System.currentTimeMillis();
         Password generatedPassword = loadPasswordEntity(token, tail, scopes, password, generationDate, GENERATED,
                 configuration, user);
         passwordsRepository.save(generatedPassword);
+        keychainChanged(user.getId());
+        keywordsService.indexPassword(user.getId(), token, generatedPassword.getId(), tail, scopes);
         eventsService.registerGeneratedPasswordEvent(generatedPassword, generationDate);
         return password;
     }
@@ -108,12 +202,181 @@ public class PasswordsService {
      * @throws Exception when an error occurred during the password insertion
      */
     public void insertPassword(GliderUser user, String token, String tail, String scopes, String password) throws Exception {
+        checkPreviousTail(token, tail, null);
         long insertionDate = System.currentTimeMillis();
         Password insertedPassword = loadPasswordEntity(token, tail, scopes, password, insertionDate, INSERTED, null, user);
         passwordsRepository.save(insertedPassword);
+        keychainChanged(user.getId());
+        keywordsService.indexPassword(user.getId(), token, insertedPassword.getId(), tail, scopes);
         eventsService.registerInsertedPasswordEvent(insertedPassword, insertionDate);
     }
 
+    /**
+     * Method used to import a list of {@link PasswordType#INSERTED} passwords. The entries are encrypted with the same
+     * cipher instance and the passwords, their events and their keywords index are stored with batched inserts in a
+     * single transaction
+     *
+     * @param user The user owner of the imported passwords
+     * @param token The token of the user
+     * @param entries The validated entries to import
+     *
+     * @return the report of the import as {@link BulkOperationReport} with the identifiers of the imported passwords
+     *
+     * @throws Exception when an error occurred during the passwords import
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public BulkOperationReport<String> importPasswords(GliderUser user, String token,
+                                                       List<PasswordImportEntry> entries) throws Exception {
+        List<Triple<String, String, String>> passwordsData = new ArrayList<>(entries.size());
+        for (PasswordImportEntry entry : entries)
+            passwordsData.add(new Triple<>(entry.tail(), entry.password(), entry.scopes()));
+        ServerVault vault = ServerVault.getInstance();
+        List<Triple<byte[], byte[], byte[]>> encryptedData = vault.encryptPasswordsData(token, passwordsData);
+        List<byte[]> previousTails = vault.encryptPreviousTails(token,
+                passwordsData.stream().map(Triple::getFirst).toList());
+        Set<String> usedTails = getUsedTails(encryptedData, previousTails);
+        long insertionDate = System.currentTimeMillis();
+        List<Password> passwords = new ArrayList<>();
+        List<String> importedPasswords = new ArrayList<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int j = 0; j < entries.size(); j++) {
+            PasswordImportEntry entry = entries.get(j);
+            Triple<byte[], byte[], byte[]> passwordData = encryptedData.get(j);
+            if (isTailAlreadyUsed(usedTails, passwordData.getFirst(), previousTails, j)) {
+                failures.add(new ItemFailure(entry.index(), TAIL_ALREADY_EXISTS_MESSAGE));
+                continue;
+            }
+            String passwordId = generateIdentifier();
+            Password password = new Password(passwordId, insertionDate, entry.tail(), null, entry.scopes(), INSERTED,
+                    null, user);
+            password.setEncryptedData(passwordData);
+            passwords.add(password);
+            importedPasswords.add(passwordId);
+        }
+        long changeSequence = bulkRepository.nextChangeSequence(user.getId());
+        bulkRepository.insertPasswords(passwords);
+        keychainChanged(user.getId());
+        eventsService.registerInsertedPasswordsEvents(passwords, insertionDate, changeSequence);
+        keywordsService.indexPasswords(user.getId(), token, passwords);
+        return new BulkOperationReport<>(importedPasswords, failures);
+    }
+
+    /**
+     * Method used to generate a batch of {@link PasswordType#GENERATED} passwords. The passwords are generated with the
+     * same secure random instance, encrypted with the same cipher instance and the passwords, their configurations,
+     * their events and their keywords index are stored with batched inserts in a single transaction
+     *
+     * @param user The user owner of the generated passwords
+     * @param token The token of the user
+     * @param entries The validated entries to generate
+     *
+     * @return the report of the generation as {@link BulkOperationReport} with the generated passwords
+     *
+     * @throws Exception when an error occurred during the passwords generation
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public BulkOperationReport<PasswordMask> generatePasswords(GliderUser user, String token,
+                                                               List<PasswordGenerationEntry> entries) throws Exception {
+        PasswordGenerator generator = PasswordGenerator.getInstance();
+        SecureRandom secureRandom = RandomnessProvider.getInstance().getSecureRandom();
+        List<Triple<String, String, String>> passwordsData = new ArrayList<>(entries.size());
+        for (PasswordGenerationEntry entry : entries) {
+            String password = generator.generatePassword(entry.length(), entry.includeNumbers(),
+                    entry.includeUppercaseLetters(), entry.includeSpecialCharacters(), secureRandom);
+            passwordsData.add(new Triple<>(entry.tail(), password, entry.scopes()));
+        }
+        ServerVault vault = ServerVault.getInstance();
+        List<Triple<byte[], byte[], byte[]>> encryptedData = vault.encryptPasswordsData(token, passwordsData);
+        List<byte[]> previousTails = vault.encryptPreviousTails(token,
+                passwordsData.stream().map(Triple::getFirst).toList());
+        Set<String> usedTails = getUsedTails(encryptedData, previousTails);
+        long generationDate = System.currentTimeMillis();
+        List<Password> passwords = new ArrayList<>();
+        List<PasswordConfiguration> configurations = new ArrayList<>();
+        List<PasswordMask> generatedPasswords = new ArrayList<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int j = 0; j < entries.size(); j++) {
+            PasswordGenerationEntry entry = entries.get(j);
+            Triple<byte[], byte[], byte[]> passwordData = encryptedData.get(j);
+            if (isTailAlreadyUsed(usedTails, passwordData.getFirst(), previousTails, j)) {
+                failures.add(new ItemFailure(entry.index(), TAIL_ALREADY_EXISTS_MESSAGE));
+                continue;
+            }
+            PasswordConfiguration configuration = new PasswordConfiguration(
+                    generateIdentifier(),
+                    entry.length(),
+                    entry.includeNumbers(),
+                    entry.includeUppercaseLetters(),
+                    entry.includeSpecialCharacters()
+            );
+            Password password = new Password(generateIdentifier(), generationDate, entry.tail(),
+                    passwordsData.get(j).getSecond(), entry.scopes(), GENERATED, configuration, user);
+            password.setEncryptedData(passwordData);
+            configuration.setPassword(password);
+            passwords.add(password);
+            configurations.add(configuration);
+            generatedPasswords.add(new PasswordMask(password));
+        }
+        long changeSequence = bulkRepository.nextChangeSequence(user.getId());
+        bulkRepository.insertPasswords(passwords);
+        bulkRepository.insertConfigurations(configurations);
+        keychainChanged(user.getId());
+        eventsService.registerGeneratedPasswordsEvents(passwords, generationDate, changeSequence);
+        keywordsService.indexPasswords(user.getId(), token, passwords);
+        return new BulkOperationReport<>(generatedPasswords, failures);
+    }
+
+    /**
+     * Method used to check whether a tail is already used by a password not re-encrypted yet during the rotation of
+     * the key of the user, the unique index of the tails matches just the tails encrypted with the same key
+     *
+     * @param token The token of the user
+     * @param tail The tail to check
+     * @param passwordId The identifier of the password which is being edited, {@code null} for a new password
+     *
+     * @throws Exception when an error occurred during the encryption of the tail
+     * @throws IllegalStateException when the tail is already used
+     */
+    private void checkPreviousTail(String token, String tail, String passwordId) throws Exception {
+        List<byte[]> previousTails = ServerVault.getInstance().encryptPreviousTails(token, List.of(tail));
+        if (!previousTails.isEmpty() && bulkRepository.isTailUsed(previousTails.get(0), passwordId))
+            throw new IllegalStateException(TAIL_ALREADY_EXISTS_MESSAGE);
+    }
+
+    /**
+     * Method used to get the tails already used by the stored passwords between the tails of a batch. During the
+     * rotation of the key of the user the tails are checked also encrypted with the previous key, so the passwords not
+     * re-encrypted yet are considered
+     *
+     * @param encryptedData The data of the batch encrypted with the current key
+     * @param previousTails The tails of the batch encrypted with the previous key, empty if no rotation is in progress
+     *
+     * @return the keys of the used tails as {@link Set} of {@link String}
+     */
+    private Set<String> getUsedTails(List<Triple<byte[], byte[], byte[]>> encryptedData, List<byte[]> previousTails) {
+        List<byte[]> tails = new ArrayList<>(encryptedData.size() + previousTails.size());
+        for (Triple<byte[], byte[], byte[]> passwordData : encryptedData)
+            tails.add(passwordData.getFirst());
+        tails.addAll(previousTails);
+        return new HashSet<>(bulkRepository.getExistingTails(tails));
+    }
+
+    /**
+     * Method used to check whether the tail of an entry of a batch is already used, registering it as used otherwise
+     *
+     * @param usedTails The keys of the tails already used
+     * @param tail The tail of the entry encrypted with the current key
+     * @param previousTails The tails of the batch encrypted with the previous key, empty if no rotation is in progress
+     * @param index The index of the entry in the batch
+     *
+     * @return whether the tail is already used as {@code boolean}
+     */
+    private boolean isTailAlreadyUsed(Set<String> usedTails, byte[] tail, List<byte[]> previousTails, int index) {
+        if (!previousTails.isEmpty() && !usedTails.add(ServerVault.getCiphertextKey(previousTails.get(index))))
+            return true;
+        return !usedTails.add(ServerVault.getCiphertextKey(tail));
+    }
+
     /**
      * Method to load a {@link Password} entity with the password data
      *
@@ -135,17 +398,18 @@ public class PasswordsService {
                                         PasswordType type, PasswordConfiguration configuration,
                                         GliderUser user) throws Exception {
         ServerVault vault = ServerVault.getInstance();
-        Triple<String, String, String> passwordData = vault.encryptPasswordData(token, tail, password, scopes);
+        Triple<byte[], byte[], byte[]> passwordData = vault.encryptPasswordData(token, tail, password, scopes);
         Password passwordEntity = new Password(
                 generateIdentifier(),
                 currentDate,
-                passwordData.getFirst(),
-                passwordData.getSecond(),
-                passwordData.getThird(),
+                tail,
+                password,
+                scopes,
                 type,
                 configuration,
                 user
         );
+        passwordEntity.setEncryptedData(passwordData);
         if (configuration != null)
             configuration.setPassword(passwordEntity);
         return passwordEntity;
@@ -165,6 +429,7 @@ public class PasswordsService {
     @Wrapper
     public void editPassword(String token, String passwordId, String tail, String scopes, String password) throws Exception {
         Password storedPassword = findPasswordById(passwordId);
+        checkPreviousTail(token, tail, passwordId);
         if (storedPassword.getType() == GENERATED)
             editGeneratedPassword(token, passwordId, tail, scopes);
         else {
@@ -172,6 +437,9 @@ public class PasswordsService {
                 throw new IllegalStateException("Wrong password value");
             editInsertedPassword(token, passwordId, tail, scopes, password);
         }
+        String userId = storedPassword.getUser().getId();
+        keychainChanged(userId);
+        keywordsService.reindexPassword(userId, token, passwordId, tail, scopes);
         eventsService.registerEditPasswordEvent(storedPassword);
     }
 
@@ -187,7 +455,7 @@ public class PasswordsService {
      */
     private void editGeneratedPassword(String token, String passwordId, String tail, String scopes) throws Exception {
         ServerVault vault = ServerVault.getInstance();
-        Pair<String, String> encryptedData = vault.encryptPasswordData(token, tail, scopes);
+        Pair<byte[], byte[]> encryptedData = vault.encryptPasswordData(token, tail, scopes);
         passwordsRepository.editGeneratedPassword(encryptedData.getFirst(), encryptedData.getSecond(), passwordId);
     }
 
@@ -205,13 +473,62 @@ public class PasswordsService {
     private void editInsertedPassword(String token, String passwordId, String tail, String scopes,
                                       String password) throws Exception {
         ServerVault vault = ServerVault.getInstance();
-        Triple<String, String, String> encryptedData = vault.encryptPasswordData(token, tail, scopes, password);
+        Triple<byte[], byte[], byte[]> encryptedData = vault.encryptPasswordData(token, tail, scopes, password);
         passwordsRepository.editInsertedPassword(encryptedData.getFirst(), encryptedData.getSecond(),
                 encryptedData.getThird(), passwordId);
     }
 
     /**
-     * Method used to get a password details
+     * Method used to edit the scopes of a list of passwords of the user. The passwords are read with a single query,
+     * the new scopes are encrypted with the same cipher instance and the scopes, the keywords index and the events are
+     * stored with batched statements in a single transaction. Just the tails and the scopes are decrypted, the values are
+     * never needed to edit the scopes
+     *
+     * @param userId The identifier of the user owner of the passwords
+     * @param token The token of the user
+     * @param entries The validated entries to edit, the passwords must be already authorized
+     *
+     * @return the report of the edit as {@link BulkOperationReport} with the identifiers of the edited passwords
+     *
+     * @throws Exception when an error occurred during the passwords editing
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public BulkOperationReport<String> editPasswordsScopes(String userId, String token,
+                                                           List<PasswordScopesEntry> entries) throws Exception {
+        Map<String, PasswordScopesEntry> editedEntries = new LinkedHashMap<>();
+        List<ItemFailure> failures = new ArrayList<>();
+        for (PasswordScopesEntry entry : entries) {
+            if (editedEntries.putIfAbsent(entry.passwordId(), entry) != null)
+                failures.add(new ItemFailure(entry.index(), DUPLICATED_PASSWORD_MESSAGE));
+        }
+        List<Password> passwords = bulkRepository.getPasswords(userId, editedEntries.keySet());
+        ServerVault vault = ServerVault.getInstance();
+        vault.decryptPasswords(token, passwords, KeychainView.LIST);
+        List<String> scopes = new ArrayList<>(passwords.size());
+        for (Password password : passwords)
+            scopes.add(editedEntries.get(password.getId()).scopes());
+        List<byte[]> encryptedScopes = vault.encryptScopes(token, scopes);
+        long editDate = System.currentTimeMillis();
+        List<Object[]> passwordsScopes = new ArrayList<>(passwords.size());
+        List<Password> plainPasswords = new ArrayList<>(passwords.size());
+        List<String> editedPasswords = new ArrayList<>(passwords.size());
+        for (int j = 0; j < passwords.size(); j++) {
+            Password password = passwords.get(j);
+            passwordsScopes.add(new Object[]{encryptedScopes.get(j), password.getId()});
+            plainPasswords.add(new Password(password.getId(), password.getCreationDate(), password.getTail(), null,
+                    scopes.get(j), password.getType(), null, null));
+            editedPasswords.add(password.getId());
+        }
+        long changeSequence = bulkRepository.nextChangeSequence(userId);
+        bulkRepository.updatePasswordsScopes(passwordsScopes);
+        keywordsService.reindexPasswords(userId, token, plainPasswords);
+        eventsService.registerEditedPasswordsEvents(plainPasswords, editDate, changeSequence);
+        keychainChanged(userId);
+        return new BulkOperationReport<>(editedPasswords, failures);
+    }
+
+    /**
+     * Method used to get a password details, including its value which is decrypted on demand
      *
      * @param token The token of the user
      * @param passwordId The identifier of the password
@@ -227,6 +544,20 @@ public class PasswordsService {
         return new PasswordMask(password);
     }
 
+    /**
+     * Method used to retrieve the events of a password, from the most recent one
+     *
+     * @param passwordId The identifier of the password
+     * @param page The page requested
+     * @param pageSize The size of the items to insert in the page
+     *
+     * @return the events of the password as {@link PaginatedResponse} of {@link PasswordEvent}
+     */
+    @Wrapper
+    public PaginatedResponse<PasswordEvent> getPasswordEvents(String passwordId, int page, int pageSize) {
+        return eventsService.getPasswordEvents(passwordId, page, pageSize);
+    }
+
     /**
      * Method used to get the keychain of the user
      *
@@ -236,39 +567,168 @@ public class PasswordsService {
      * @param pageSize  The size of the items to insert in the page
      * @param keywords The filter keywords
      * @param types The types of the passwords to retrieve
+     * @param view The view of the keychain requested
      *
      * @return the password owned by the user as {@link PaginatedResponse} of {@link Password}
+     *
+     * @apiNote when no keywords are specified the pagination is demanded to the database and are decrypted just the
+     * passwords of the requested page, otherwise the keywords index is used to decrypt just the candidate passwords.
+     * With the {@link KeychainView#LIST} view the values of the passwords are not decrypted. When the
+     * {@link KeychainCache} is enabled the same page requested again is served without decrypting it
      */
     public PaginatedResponse<Password> getKeychain(String userId, String token, int page, int pageSize,
-                                                   Set<String> keywords, Set<String> types) throws Exception {
-        List<Password> passwords = passwordsRepository.getPasswords(userId, types);
-        ServerVault vault = ServerVault.getInstance();
-        vault.decryptPasswords(token, passwords);
-        passwords = filterPasswords(passwords, keywords);
+                                                   Set<String> keywords, Set<String> types,
+                                                   KeychainView view) throws Exception {
+        int requestedPage = page < 0 ? DEFAULT_PAGE : page;
+        int requestedPageSize = pageSize < 0 ? DEFAULT_PAGE_SIZE : pageSize;
+        return keychainCache.getKeychain(userId, requestedPage, requestedPageSize, keywords, types, view,
+                () -> loadKeychain(userId, token, requestedPage, requestedPageSize, keywords, types, view));
+    }
+
+    /**
+     * Method used to retrieve the changes of the keychain of the user since the last sync of a device, resolved with the
+     * events of the passwords and with the tombstones of the deleted ones, so just the changed passwords are decrypted.
+     * The changes are resolved with the change sequences of the keychain, which are committed in order, so the
+     * changes committed after the last change sequence returned, also the events stored late by the background writer,
+     * are returned by the next sync
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param since The date of the last sync of the device
+     * @param changeSequence The last change sequence returned by the previous sync of the device
+     *
+     * @return the changes of the keychain as {@link KeychainDelta}
+     *
+     * @throws Exception when an error occurred during the passwords decryption
+     *
+     * @apiNote when the last sync date or the last change sequence are not specified, or the date is older than the
+     * retention horizon of the events, the changes cannot be resolved and the device is asked to download the whole
+     * keychain again
+     */
+    public KeychainDelta syncKeychain(String userId, String token, long since, long changeSequence) throws Exception {
+        long syncDate = System.currentTimeMillis();
+        eventsService.flushEvents();
+        long lastChangeSequence = bulkRepository.getChangeSequence(userId);
+        if (since <= 0 || since < retentionService.getRetentionHorizon() || changeSequence < 0 ||
+                changeSequence > lastChangeSequence) {
+            return new KeychainDelta(Collections.EMPTY_LIST, Collections.EMPTY_LIST, syncDate, lastChangeSequence,
+                    true);
+        }
+        List<Password> passwords = passwordsRepository.getChangedPasswords(userId, changeSequence, lastChangeSequence);
+        if (!passwords.isEmpty()) {
+            ServerVault vault = ServerVault.getInstance();
+            vault.decryptPasswords(token, passwords);
+        }
+        List<String> deletedPasswords = tombstonesRepository.getDeletedPasswords(userId, changeSequence,
+                lastChangeSequence);
+        return new KeychainDelta(passwords, deletedPasswords, syncDate, lastChangeSequence, false);
+    }
+
+    /**
+     * Method used to get the entity tag of a keychain response, computed from the current version of the keychain of
+     * the user without any query
+     *
+     * @param userId The identifier of the user
+     * @param page      The page requested
+     * @param pageSize  The size of the items to insert in the page
+     * @param keywords The filter keywords
+     * @param types The types of the passwords to retrieve
+     * @param view The view of the keychain requested
+     *
+     * @return the entity tag as {@link String}
+     */
+    @Wrapper
+    public String getKeychainETag(String userId, int page, int pageSize, Set<String> keywords, Set<String> types,
+                                  KeychainView view) {
+        return keychainVersions.getKeychainETag(userId, page, pageSize, keywords, types, view);
+    }
+
+    /**
+     * Method used to check whether the {@code If-None-Match} header of a keychain request matches with the current
+     * entity tag
+     *
+     * @param ifNoneMatch The value of the header
+     * @param eTag The current entity tag
+     *
+     * @return whether the header matches with the entity tag as {@code boolean}
+     */
+    @Wrapper
+    @Validator
+    public boolean keychainETagMatches(String ifNoneMatch, String eTag) {
+        return keychainVersions.eTagMatches(ifNoneMatch, eTag);
+    }
+
+    /**
+     * Method used to load a page of the keychain of the user
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param page      The page requested
+     * @param pageSize  The size of the items to insert in the page
+     * @param keywords The filter keywords
+     * @param types The types of the passwords to retrieve
+     * @param view The view of the keychain requested
+     *
+     * @return the page of the keychain as {@link KeychainPage}
+     */
+    private KeychainPage loadKeychain(String userId, String token, int page, int pageSize, Set<String> keywords,
+                                      Set<String> types, KeychainView view) throws Exception {
+        if (!hasKeywords(keywords))
+            return getPagedKeychain(userId, token, page, pageSize, types, view);
+        keywordsService.indexMissingPasswords(userId, token);
+        Set<String> candidates = keywordsService.getCandidatePasswords(userId, token, keywords);
+        List<Password> passwords = Collections.EMPTY_LIST;
+        if (!candidates.isEmpty()) {
+            passwords = passwordsRepository.getPasswords(userId, types, candidates);
+            ServerVault vault = ServerVault.getInstance();
+            vault.decryptPasswords(token, passwords, view);
+            passwords = KeywordsFilter.getInstance().filterPasswords(passwords, keywords);
+        }
         long totalPasswords = passwords.size();
-        if (page < 0)
-            page = DEFAULT_PAGE;
-        if (pageSize < 0)
-            pageSize = DEFAULT_PAGE_SIZE;
         passwords = pagePasswords(passwords, page, pageSize);
-        return new PaginatedResponse<>(passwords, page, pageSize, totalPasswords);
+        return new KeychainPage(passwords, totalPasswords);
     }
 
     /**
-     * Method used to apply the keywords filter to the result list
+     * Method used to get the keychain of the user paginating it directly with the database
+     *
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param page      The page requested
+     * @param pageSize  The size of the items to insert in the page
+     * @param types The types of the passwords to retrieve
+     * @param view The view of the keychain requested
      *
-     * @param passwords The passwords list to filter
-     * @param keywords The filter keywords to apply
-     * @return the passwords list filtered as {@link List} of {@link Password}
+     * @return the page of the keychain as {@link KeychainPage}
      */
-    private List<Password> filterPasswords(List<Password> passwords, Set<String> keywords) {
-        List<Password> filteredPasswords = new ArrayList<>();
-        for (Password password : passwords) {
-            String tail = password.getTail().toLowerCase();
-            if (keywords.isEmpty() || (tailMatches(keywords, tail) || password.scopesMatch(keywords)))
-                filteredPasswords.add(password);
+    private KeychainPage getPagedKeychain(String userId, String token, int page, int pageSize,
+                                          Set<String> types, KeychainView view) throws Exception {
+        long totalPasswords = passwordsRepository.countPasswords(userId, types);
+        List<Password> passwords;
+        if (pageSize == 0 || (long) page * pageSize >= totalPasswords)
+            passwords = Collections.EMPTY_LIST;
+        else {
+            passwords = passwordsRepository.getPasswords(userId, types, PageRequest.of(page, pageSize));
+            ServerVault vault = ServerVault.getInstance();
+            vault.decryptPasswords(token, passwords, view);
         }
-        return filteredPasswords;
+        return new KeychainPage(passwords, totalPasswords);
+    }
+
+    /**
+     * Method used to check whether any valid keywords have been specified to filter the keychain
+     *
+     * @param keywords The filter keywords
+     * @return whether any valid keywords have been specified as {@code boolean}
+     */
+    @Validator
+    private boolean hasKeywords(Set<String> keywords) {
+        if (keywords == null)
+            return false;
+        for (String keyword : keywords)
+            if (keyword != null && !keyword.isBlank())
+                return true;
+        return false;
     }
 
     /**
@@ -292,15 +752,48 @@ public class PasswordsService {
     }
 
     /**
-     * Method used to check whether the tail of the password matches with any keywords
+     * Method used to export the whole keychain of the user as newline-delimited JSON. The passwords are streamed from
+     * the database and decrypted in small chunks, so the memory used does not depend on the size of the keychain
      *
-     * @param keywords The filter keywords
-     * @param tail     The tail of the password
-     * @return whether the tail of the password matches with any keywords as {@code boolean}
+     * @param userId The identifier of the user
+     * @param token The token of the user
+     * @param outputStream The stream where write the exported passwords
      */
-    @Validator
-    private boolean tailMatches(Set<String> keywords, String tail) {
-        return !keywords.stream().filter(keyword -> tail.contains(keyword.toLowerCase())).toList().isEmpty();
+    public void exportKeychain(String userId, String token, OutputStream outputStream) {
+        List<Password> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        bulkRepository.streamPasswords(userId, password -> {
+            chunk.add(password);
+            if (chunk.size() == EXPORT_CHUNK_SIZE)
+                writeExportChunk(token, chunk, outputStream);
+        });
+        writeExportChunk(token, chunk, outputStream);
+    }
+
+    /**
+     * Method used to decrypt and write a chunk of exported passwords, the chunk is cleared after being written
+     *
+     * @param token The token of the user
+     * @param chunk The chunk of passwords to write
+     * @param outputStream The stream where write the exported passwords
+     */
+    private void writeExportChunk(String token, List<Password> chunk, OutputStream outputStream) {
+        if (chunk.isEmpty())
+            return;
+        try {
+            ServerVault vault = ServerVault.getInstance();
+            vault.decryptPasswords(token, chunk);
+            for (Password password : chunk) {
+                outputStream.write(mapper.writeValueAsBytes(password));
+                outputStream.write(EXPORT_LINES_SEPARATOR);
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            chunk.clear();
+        }
     }
 
     /**
@@ -328,12 +821,26 @@ public class PasswordsService {
         PasswordGenerator generator = PasswordGenerator.getInstance();
         String refreshedPassword = generator.generatePassword(password.getConfiguration());
         ServerVault vault = ServerVault.getInstance();
-        String encryptedPassword = vault.encryptPassword(token, refreshedPassword);
+        byte[] encryptedPassword = vault.encryptPassword(token, refreshedPassword);
         passwordsRepository.refreshPassword(encryptedPassword, passwordId);
+        keychainChanged(password.getUser().getId());
         eventsService.registerRefreshedPasswordEvent(password);
         return refreshedPassword;
     }
 
+    /**
+     * Method used to check whether a password is owned by the user, without loading the keychain of the user
+     *
+     * @param userId The identifier of the user
+     * @param passwordId The identifier of the password
+     *
+     * @return whether the password is owned by the user as {@code boolean}
+     */
+    @Validator
+    public boolean passwordBelongsToUser(String userId, String passwordId) {
+        return passwordsRepository.countUserPassword(passwordId, userId) > 0;
+    }
+
     /**
      * Method used to find a password by its identifier
      *
@@ -346,12 +853,57 @@ public class PasswordsService {
     }
 
     /**
-     * Method used to delete a password
+     * Method used to check whether a list of passwords is owned by the user with a single query
+     *
+     * @param userId The identifier of the user
+     * @param passwordsIds The identifiers of the passwords
+     *
+     * @return whether all the passwords are owned by the user as {@code boolean}
+     */
+    @Validator
+    public boolean passwordsBelongToUser(String userId, Set<String> passwordsIds) {
+        if (passwordsIds.isEmpty())
+            return false;
+        return passwordsRepository.countUserPasswords(passwordsIds, userId) == passwordsIds.size();
+    }
+
+    /**
+     * Method used to notify a change of the keychain of the user, bumping its version and invalidating its cached pages
+     *
+     * @param userId The identifier of the user
+     */
+    private void keychainChanged(String userId) {
+        keychainVersions.bumpVersion(userId);
+        keychainCache.invalidateKeychain(userId);
+    }
+
+    /**
+     * Method used to delete a password, leaving its tombstone for the delta sync of the devices
      *
+     * @param userId The identifier of the user owner of the password
      * @param passwordId The identifier of the password
      */
-    public void deletePassword(String passwordId) {
+    @Transactional
+    public void deletePassword(String userId, String passwordId) {
+        long changeSequence = bulkRepository.nextChangeSequence(userId);
         passwordsRepository.deletePassword(passwordId);
+        bulkRepository.insertTombstones(userId, List.of(passwordId), System.currentTimeMillis(), changeSequence);
+        keychainChanged(userId);
+    }
+
+    /**
+     * Method used to delete a list of passwords of the user with a single statement, leaving their tombstones for the
+     * delta sync of the devices
+     *
+     * @param userId The identifier of the user owner of the passwords
+     * @param passwordsIds The identifiers of the passwords, already authorized
+     */
+    @Transactional
+    public void deletePasswords(String userId, Set<String> passwordsIds) {
+        long changeSequence = bulkRepository.nextChangeSequence(userId);
+        passwordsRepository.deletePasswords(passwordsIds, userId);
+        bulkRepository.insertTombstones(userId, passwordsIds, System.currentTimeMillis(), changeSequence);
+        keychainChanged(userId);
     }
 
 }
@@ -5,7 +5,9 @@ import com.tecknobit.equinoxcore.annotations.Structure;
 import com.tecknobit.equinoxcore.annotations.Validator;
 import com.tecknobit.glider.services.users.entities.GliderUser;
 import com.tecknobit.glider.services.users.repositories.GliderUsersRepository;
+import com.tecknobit.glider.services.users.services.DevicesService;
 import com.tecknobit.glider.services.users.services.GliderUsersService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -18,6 +20,12 @@ import org.springframework.web.bind.annotation.RestController;
 public abstract class DefaultGliderController extends EquinoxController<GliderUser, GliderUsersRepository,
         GliderUsersService> {
 
+    /**
+     * {@code devicesService} helper to check the devices connected to the sessions of the users
+     */
+    @Autowired
+    protected DevicesService devicesService;
+
     /**
      * Method used to validate the requester's identifier, token and the device id from requested an operation
      *
@@ -28,7 +36,7 @@ public abstract class DefaultGliderController extends EquinoxController<GliderUs
      */
     @Validator
     protected boolean validRequester(String userId, String token, String deviceId) {
-        return isMe(userId, token) && me.deviceBelongsToMe(deviceId);
+        return isMe(userId, token) && devicesService.deviceBelongsToUser(userId, deviceId);
     }
 
 }
@@ -0,0 +1,29 @@
+package com.tecknobit.glider.services.shared.dtos;
+
+import com.tecknobit.equinoxcore.annotations.DTO;
+
+import java.util.List;
+
+/**
+ * The {@code BulkOperationReport} record class is the {@link DTO} used to share the outcome of an operation executed on
+ * a list of items, reporting the items completed and the ones failed
+ *
+ * @param completed The items correctly completed
+ * @param failures  The items failed with the related error
+ * @param <T>       The type of the completed items
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@DTO
+public record BulkOperationReport<T>(List<T> completed, List<ItemFailure> failures) {
+
+    /**
+     * The {@code ItemFailure} record class is the {@link DTO} used to share the failure of a single item
+     *
+     * @param index The position of the item in the requested list
+     * @param error The key of the error occurred
+     */
+    @DTO
+    public record ItemFailure(int index, String error) {
+    }
+
+}
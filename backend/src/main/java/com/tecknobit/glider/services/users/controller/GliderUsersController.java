@@ -162,7 +162,7 @@ public class GliderUsersController extends EquinoxUsersController<GliderUser, Gl
             @RequestHeader(TOKEN_KEY) String token,
             @RequestHeader(DEVICE_IDENTIFIER_KEY) String deviceId
     ) {
-        if (!isMe(id, token) || !me.deviceBelongsToMe(deviceId))
+        if (!isMe(id, token) || !usersService.deviceBelongsToUser(id, deviceId))
             return failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
         return successResponse(usersService.getDynamicAccountData(id, deviceId));
     }
@@ -201,7 +201,7 @@ public class GliderUsersController extends EquinoxUsersController<GliderUser, Gl
             @RequestParam(name = PAGE_KEY, defaultValue = DEFAULT_PAGE_HEADER_VALUE, required = false) int page,
             @RequestParam(name = PAGE_SIZE_KEY, defaultValue = DEFAULT_PAGE_SIZE_HEADER_VALUE, required = false) int pageSize
     ) {
-        if (!isMe(userId, token) || !me.deviceBelongsToMe(deviceId))
+        if (!isMe(userId, token) || !usersService.deviceBelongsToUser(userId, deviceId))
             return (T) failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
         return (T) successResponse(usersService.getPagedDevices(page, pageSize, userId));
     }
@@ -230,8 +230,10 @@ public class GliderUsersController extends EquinoxUsersController<GliderUser, Gl
     ) {
         loadJsonHelper(payload);
         String disconnectingDeviceId = jsonHelper.getString(DEVICE_IDENTIFIER_KEY);
-        if (!isMe(userId, token) || !me.deviceBelongsToMe(deviceId) || !me.deviceBelongsToMe(disconnectingDeviceId))
+        if (!isMe(userId, token) || !usersService.deviceBelongsToUser(userId, deviceId)
+                || !usersService.deviceBelongsToUser(userId, disconnectingDeviceId)) {
             return failedResponse(NOT_AUTHORIZED_OR_WRONG_DETAILS_MESSAGE);
+        }
         usersService.disconnectDevice(userId, disconnectingDeviceId);
         return successResponse();
     }
@@ -92,6 +92,21 @@ public interface DevicesRepository extends JpaRepository<ConnectedDevice, String
             @Param(LAST_LOGIN_KEY) long lastLogin
     );
 
+    /**
+     * Query used to retrieve the identifiers of the devices connected to the sessions of a user
+     *
+     * @param userId The identifier of the user
+     * @return the identifiers of the devices as {@link List} of {@link String}
+     */
+    @Query(
+            value = "SELECT " + DEVICE_IDENTIFIER_KEY + " FROM " + USER_DEVICES_KEY +
+                    _WHERE_ + USER_IDENTIFIER_KEY + "=:" + USER_IDENTIFIER_KEY,
+            nativeQuery = true
+    )
+    List<String> getDevicesIdentifiers(
+            @Param(USER_IDENTIFIER_KEY) String userId
+    );
+
     /**
      * Query used to count the total devices owned by a user
      *
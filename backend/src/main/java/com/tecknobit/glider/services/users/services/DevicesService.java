@@ -1,8 +1,10 @@
 package com.tecknobit.glider.services.users.services;
 
 import com.tecknobit.equinoxcore.annotations.CustomParametersOrder;
+import com.tecknobit.equinoxcore.annotations.Validator;
 import com.tecknobit.equinoxcore.annotations.Wrapper;
 import com.tecknobit.equinoxcore.pagination.PaginatedResponse;
+import com.tecknobit.glider.helpers.BoundedCache;
 import com.tecknobit.glider.services.users.dtos.DeviceLastLogin;
 import com.tecknobit.glider.services.users.entities.ConnectedDevice;
 import com.tecknobit.glider.services.users.repositories.DevicesRepository;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.tecknobit.equinoxbackend.environment.services.builtin.controller.EquinoxController.generateIdentifier;
 import static com.tecknobit.glidercore.ConstantsKt.DEVICE_KEY;
@@ -25,11 +29,33 @@ import static com.tecknobit.glidercore.ConstantsKt.DEVICE_KEY;
 @Service
 public class DevicesService {
 
+    /**
+     * {@code DEVICES_CACHE_SIZE} the max number of the users whose devices are kept in memory
+     */
+    private static final int DEVICES_CACHE_SIZE = 10000;
+
+    /**
+     * {@code DEVICES_CACHE_TTL} the time in milliseconds the devices of a user are kept in memory
+     */
+    private static final long DEVICES_CACHE_TTL = 5 * 60 * 1000;
+
     /**
      * {@code devicesRepository} instance used to manage the database operations for the devices
      */
     private final DevicesRepository devicesRepository;
 
+    /**
+     * {@code devicesCache} the identifiers of the devices connected to the sessions of each user, used to authorize
+     * the requests without walking the sessions of the user
+     */
+    private final BoundedCache<String, Set<String>> devicesCache;
+
+    /**
+     * {@code devicesInvalidations} the number of the invalidations of the {@link #devicesCache}, used to discard the
+     * devices loaded while a concurrent invalidation occurred
+     */
+    private final AtomicLong devicesInvalidations;
+
     /**
      * Constructor used to init the service
      *
@@ -38,6 +64,8 @@ public class DevicesService {
     @Autowired
     public DevicesService(DevicesRepository devicesRepository) {
         this.devicesRepository = devicesRepository;
+        devicesCache = new BoundedCache<>(DEVICES_CACHE_SIZE, DEVICES_CACHE_TTL);
+        devicesInvalidations = new AtomicLong();
     }
 
     /**
@@ -53,9 +81,41 @@ public class DevicesService {
         String deviceId = connectedDevice.getId();
         devicesRepository.save(connectedDevice);
         devicesRepository.attachDeviceToUser(generateIdentifier(), userId, deviceId);
+        invalidateUserDevices(userId);
         updateLastLogin(userId, deviceId);
     }
 
+    /**
+     * Method used to check whether a device is connected to any session of the user
+     *
+     * @param userId   The identifier of the user
+     * @param deviceId The identifier of the device to check
+     * @return whether the device belongs to the user as {@code boolean}
+     */
+    @Validator
+    public boolean deviceBelongsToUser(String userId, String deviceId) {
+        if (userId == null || deviceId == null)
+            return false;
+        Set<String> devices = devicesCache.get(userId);
+        if (devices == null) {
+            long invalidations = devicesInvalidations.get();
+            devices = Set.copyOf(devicesRepository.getDevicesIdentifiers(userId));
+            if (invalidations == devicesInvalidations.get())
+                devicesCache.put(userId, devices);
+        }
+        return devices.contains(deviceId);
+    }
+
+    /**
+     * Method used to discard the cached devices of the user, must be invoked after any change of its sessions
+     *
+     * @param userId The identifier of the user
+     */
+    public void invalidateUserDevices(String userId) {
+        devicesInvalidations.incrementAndGet();
+        devicesCache.invalidate(userId);
+    }
+
     /**
      * Method used to update the last login by a device in the specified session
      *
@@ -95,6 +155,7 @@ public class DevicesService {
      */
     public void disconnectDevice(String userId, String deviceId) {
         devicesRepository.disconnectDevice(userId, deviceId);
+        invalidateUserDevices(userId);
         deleteDeviceIfNotReferenced(deviceId);
     }
 
@@ -3,8 +3,10 @@ package com.tecknobit.glider.services.users.services;
 import com.tecknobit.equinoxbackend.environment.services.users.entity.EquinoxUser;
 import com.tecknobit.equinoxbackend.environment.services.users.service.EquinoxUsersService;
 import com.tecknobit.equinoxbackend.resourcesutils.ResourcesManager;
+import com.tecknobit.equinoxcore.annotations.Validator;
 import com.tecknobit.equinoxcore.pagination.PaginatedResponse;
 import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.services.KeychainCache;
 import com.tecknobit.glider.services.users.entities.ConnectedDevice;
 import com.tecknobit.glider.services.users.entities.GliderUser;
 import com.tecknobit.glider.services.users.repositories.GliderUsersRepository;
@@ -31,16 +33,24 @@ public class GliderUsersService extends EquinoxUsersService<GliderUser, GliderUs
      */
     private final DevicesService devicesService;
 
+    /**
+     * {@code keychainCache} instance used to cache the decrypted pages of the keychains
+     */
+    private final KeychainCache keychainCache;
+
     /**
      * Constructor to init the {@link EquinoxUsersService} service
      *
      * @param usersRepository The instance for the users repository
      * @param devicesService  The instance used to manage the database operations for the devices
+     * @param keychainCache   The instance used to cache the decrypted pages of the keychains
      */
     @Autowired
-    public GliderUsersService(GliderUsersRepository usersRepository, DevicesService devicesService) {
+    public GliderUsersService(GliderUsersRepository usersRepository, DevicesService devicesService,
+                              KeychainCache keychainCache) {
         super(usersRepository);
         this.devicesService = devicesService;
+        this.keychainCache = keychainCache;
     }
 
     /**
@@ -107,6 +117,18 @@ public class GliderUsersService extends EquinoxUsersService<GliderUser, GliderUs
         return deviceData;
     }
 
+    /**
+     * Method used to check whether a device is connected to any session of the user
+     *
+     * @param userId   The identifier of the user
+     * @param deviceId The identifier of the device to check
+     * @return whether the device belongs to the user as {@code boolean}
+     */
+    @Validator
+    public boolean deviceBelongsToUser(String userId, String deviceId) {
+        return devicesService.deviceBelongsToUser(userId, deviceId);
+    }
+
     /**
      * Method used to retrieve the devices owned by the user
      *
@@ -140,6 +162,8 @@ public class GliderUsersService extends EquinoxUsersService<GliderUser, GliderUs
         super.deleteUser(id);
         ServerVault vault = ServerVault.getInstance();
         vault.deleteLockBox(user.getToken());
+        devicesService.invalidateUserDevices(id);
+        keychainCache.invalidateKeychain(id);
         for (ConnectedDevice device : user.getDevices())
             devicesService.deleteDeviceIfNotReferenced(device);
     }
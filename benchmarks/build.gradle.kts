@@ -0,0 +1,38 @@
+plugins {
+    id("java")
+    alias(libs.plugins.jmh)
+}
+
+group = "com.tecknobit.glider"
+version = "2.0.2"
+
+repositories {
+    mavenCentral()
+    maven("https://jitpack.io")
+    maven("https://repo.clojars.org")
+}
+
+dependencies {
+    jmh(project(":backend"))
+    jmh(project(":core"))
+    jmh(libs.apimanager)
+    jmh(libs.equinox.backend)
+    jmh(libs.equinox.core)
+    jmh(libs.spring.boot.starter.data.jpa)
+    jmh(libs.jackson.databind)
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.generator.annprocess)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_18
+    targetCompatibility = JavaVersion.VERSION_18
+}
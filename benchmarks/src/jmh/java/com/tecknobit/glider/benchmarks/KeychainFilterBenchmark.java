@@ -0,0 +1,81 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.passwords.helpers.KeywordsFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code KeychainFilterBenchmark} class is used to measure the keywords filter applied on large decrypted
+ * keychains by {@link KeywordsFilter#filterPasswords(List, Set)} and {@link Password#scopesMatch(Set)}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeychainFilterBenchmark {
+
+    /**
+     * {@code keychainSize} the number of the passwords in the keychain
+     */
+    @Param({"1000", "10000", "100000"})
+    private int keychainSize;
+
+    /**
+     * {@code keywords} the filter keywords, separated by a pipe
+     */
+    @Param({"bank", "mail|travel|service42"})
+    private String keywords;
+
+    /**
+     * {@code keywordsFilter} the filter applied to the keychain
+     */
+    private KeywordsFilter keywordsFilter;
+
+    /**
+     * {@code keychain} the synthetic decrypted keychain
+     */
+    private List<Password> keychain;
+
+    /**
+     * {@code filterKeywords} the filter keywords to apply
+     */
+    private Set<String> filterKeywords;
+
+    /**
+     * Method used to set up the state of the benchmark
+     */
+    @Setup
+    public void setUp() {
+        keywordsFilter = KeywordsFilter.getInstance();
+        keychain = SyntheticKeychain.createKeychain(keychainSize);
+        filterKeywords = Set.of(keywords.split("\\|"));
+    }
+
+    /**
+     * Method used to measure the filter of the whole keychain
+     *
+     * @return the filtered passwords as {@link List} of {@link Password}
+     */
+    @Benchmark
+    public List<Password> filterPasswords() {
+        return keywordsFilter.filterPasswords(keychain, filterKeywords);
+    }
+
+    /**
+     * Method used to measure the scopes match of each password of the keychain
+     *
+     * @param blackhole The blackhole used to consume the results
+     */
+    @Benchmark
+    public void scopesMatch(Blackhole blackhole) {
+        for (Password password : keychain)
+            blackhole.consume(password.scopesMatch(filterKeywords));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.apimanager.apis.encryption.aes.AESServerCipher;
+import com.tecknobit.glider.helpers.FileLockBoxStore;
+import com.tecknobit.glider.helpers.LockBoxStore;
+import com.tecknobit.glider.helpers.LockBoxStore.StoreType;
+import com.tecknobit.glider.helpers.MappedLockBoxStore;
+import kotlin.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.apimanager.apis.encryption.aes.AESServerCipher.AESKeySize.k128;
+
+/**
+ * The {@code LockBoxStoreBenchmark} class is used to compare the retrieving of the lock boxes, bypassing the cache of
+ * the private keys, from the {@link FileLockBoxStore} and from the {@link MappedLockBoxStore}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockBoxStoreBenchmark {
+
+    /**
+     * {@code LOCK_BOX_NAME_PREFIX} the prefix of the names of the synthetic lock boxes
+     */
+    private static final String LOCK_BOX_NAME_PREFIX = "lockbox";
+
+    /**
+     * {@code lockBoxesCount} the number of the stored lock boxes
+     */
+    @Param({"1000", "100000"})
+    private int lockBoxesCount;
+
+    /**
+     * {@code storeType} the type of the store to measure
+     */
+    @Param({"FILE", "MAPPED"})
+    private StoreType storeType;
+
+    /**
+     * {@code storeFolder} the temporary folder of the store
+     */
+    private File storeFolder;
+
+    /**
+     * {@code store} the store to measure
+     */
+    private LockBoxStore store;
+
+    /**
+     * Method used to set up the state of the benchmark
+     *
+     * @throws Exception when an error occurred during the creation of the lock boxes
+     */
+    @Setup
+    public void setUp() throws Exception {
+        storeFolder = Files.createTempDirectory("glider-vault").toFile();
+        if (storeType == StoreType.MAPPED)
+            store = new MappedLockBoxStore(new File(storeFolder, "lockboxes.store"));
+        else
+            store = new FileLockBoxStore(storeFolder);
+        String secretKey = AESServerCipher.createBase64SecretKey(k128);
+        String ivSpec = AESServerCipher.createBase64IvParameterSpec();
+        for (int j = 0; j < lockBoxesCount; j++)
+            store.storeLockBox(LOCK_BOX_NAME_PREFIX + j, secretKey, ivSpec);
+    }
+
+    /**
+     * Method used to measure the retrieving of a random lock box
+     *
+     * @return the private key retrieved as {@link Pair} of {@link String}
+     * @throws IOException when an error occurred during the retrieving
+     */
+    @Benchmark
+    public Pair<String, String> retrieveLockBox() throws IOException {
+        int lockBox = ThreadLocalRandom.current().nextInt(lockBoxesCount);
+        return store.retrieveLockBox(LOCK_BOX_NAME_PREFIX + lockBox);
+    }
+
+    /**
+     * Method used to close the store and remove its temporary folder
+     *
+     * @throws IOException when an error occurred during the closing
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        File[] storeFiles = storeFolder.listFiles();
+        if (storeFiles != null)
+            for (File storeFile : storeFiles)
+                storeFile.delete();
+        storeFolder.delete();
+    }
+
+}
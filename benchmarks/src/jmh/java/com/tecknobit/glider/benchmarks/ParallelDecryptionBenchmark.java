@@ -0,0 +1,125 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import kotlin.Triple;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.equinoxbackend.resourcesutils.ResourcesManager.RESOURCES_PATH;
+import static com.tecknobit.glider.helpers.ServerVault.*;
+import static com.tecknobit.glidercore.enums.PasswordType.INSERTED;
+
+/**
+ * The {@code ParallelDecryptionBenchmark} class is used to compare the sequential and the parallel decryption of a
+ * keychain made by the {@link ServerVault}, so the keychain size from which the parallel decryption pays off can be
+ * used as {@code glider.vault.decryption.parallel-threshold} on the target hardware
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelDecryptionBenchmark {
+
+    /**
+     * {@code DecryptionMode} the decryption modes compared by the benchmark
+     */
+    public enum DecryptionMode {
+
+        /**
+         * {@code SEQUENTIAL} the keychain is decrypted by the calling thread
+         */
+        SEQUENTIAL,
+
+        /**
+         * {@code PARALLEL} the keychain is split between the calling thread and the decryption pool
+         */
+        PARALLEL
+
+    }
+
+    /**
+     * {@code keychainSize} the number of the passwords in the keychain
+     */
+    @Param({"128", "256", "512", "1024", "2048", "4096", "16384"})
+    private int keychainSize;
+
+    /**
+     * {@code mode} the decryption mode to measure
+     */
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    private DecryptionMode mode;
+
+    /**
+     * {@code requestParallelism} the max number of the threads used to decrypt the keychain in the
+     * {@link DecryptionMode#PARALLEL} mode
+     */
+    @Param({"" + DEFAULT_REQUEST_PARALLELISM})
+    private int requestParallelism;
+
+    /**
+     * {@code token} the token of the synthetic user owner of the keychain
+     */
+    private String token;
+
+    /**
+     * {@code encryptedData} the encrypted data of the passwords of the keychain
+     */
+    private List<Triple<byte[], byte[], byte[]>> encryptedData;
+
+    /**
+     * Method used to set up the state of the benchmark
+     *
+     * @throws Exception when an error occurred during the creation of the private key
+     */
+    @Setup
+    public void setUp() throws Exception {
+        new File(RESOURCES_PATH + VAULT_FOLDER).mkdirs();
+        SyntheticKeychain.configureMasterKey();
+        token = UUID.randomUUID().toString();
+        ServerVault vault = ServerVault.getInstance();
+        vault.createUserPrivateKey(token);
+        encryptedData = vault.encryptPasswordsData(token, SyntheticKeychain.createPasswordsData(keychainSize));
+        if (mode == DecryptionMode.SEQUENTIAL)
+            vault.configureParallelDecryption(Integer.MAX_VALUE, DEFAULT_DECRYPTION_POOL_SIZE, 1);
+        else
+            vault.configureParallelDecryption(0, DEFAULT_DECRYPTION_POOL_SIZE, requestParallelism);
+    }
+
+    /**
+     * Method used to measure the decryption of the keychain, the passwords are rebuilt at each invocation because
+     * the decryption fills their plain data
+     *
+     * @return the decrypted passwords as {@link List} of {@link Password}
+     * @throws Exception when an error occurred during the decryption
+     */
+    @Benchmark
+    public List<Password> decryptKeychain() throws Exception {
+        List<Password> passwords = new ArrayList<>(encryptedData.size());
+        for (int j = 0; j < encryptedData.size(); j++) {
+            Password password = new Password(String.valueOf(j), j, null, null, null, INSERTED, null, null);
+            password.setEncryptedData(encryptedData.get(j));
+            passwords.add(password);
+        }
+        ServerVault.getInstance().decryptPasswords(token, passwords);
+        return passwords;
+    }
+
+    /**
+     * Method used to remove the private key of the synthetic user and restore the default decryption configuration
+     */
+    @TearDown
+    public void tearDown() {
+        ServerVault vault = ServerVault.getInstance();
+        vault.deleteLockBox(token);
+        vault.configureParallelDecryption(DEFAULT_PARALLEL_DECRYPTION_THRESHOLD, DEFAULT_DECRYPTION_POOL_SIZE,
+                DEFAULT_REQUEST_PARALLELISM);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.benchmarks.legacy.LegacyPasswordGenerator;
+import com.tecknobit.glider.services.passwords.helpers.PasswordGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PasswordGeneratorBenchmark} class is used to compare the {@link PasswordGenerator} with the boxed
+ * {@link LegacyPasswordGenerator} implementation. Run it with the {@code gc} profiler
+ * ({@code ./gradlew :benchmarks:jmh -Pjmh.profilers=gc}) to compare also the allocation rate of each generation
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordGeneratorBenchmark {
+
+    /**
+     * {@code length} the length of the generated passwords
+     */
+    @Param({"8", "16", "32", "64", "128"})
+    private int length;
+
+    /**
+     * {@code includeNumbers} whether the generated passwords must include the numbers
+     */
+    @Param({"true", "false"})
+    private boolean includeNumbers;
+
+    /**
+     * {@code includeUppercaseLetters} whether the generated passwords must include the uppercase letters
+     */
+    @Param({"true", "false"})
+    private boolean includeUppercaseLetters;
+
+    /**
+     * {@code includeSpecialCharacters} whether the generated passwords must include the special characters
+     */
+    @Param({"true", "false"})
+    private boolean includeSpecialCharacters;
+
+    /**
+     * {@code secureRandom} the secure random instance shared by the generations of the same thread
+     */
+    private SecureRandom secureRandom;
+
+    /**
+     * Method used to set up the state of the benchmark
+     */
+    @Setup
+    public void setUp() {
+        secureRandom = new SecureRandom();
+    }
+
+    /**
+     * Method used to measure the {@link PasswordGenerator} generation
+     *
+     * @return the generated password as {@link String}
+     */
+    @Benchmark
+    public String generatePassword() {
+        return PasswordGenerator.getInstance().generatePassword(length, includeNumbers, includeUppercaseLetters,
+                includeSpecialCharacters, secureRandom);
+    }
+
+    /**
+     * Method used to measure the {@link LegacyPasswordGenerator} generation
+     *
+     * @return the generated password as {@link String}
+     */
+    @Benchmark
+    public String legacyGeneratePassword() {
+        return LegacyPasswordGenerator.getInstance().generatePassword(length, includeNumbers, includeUppercaseLetters,
+                includeSpecialCharacters, secureRandom);
+    }
+
+}
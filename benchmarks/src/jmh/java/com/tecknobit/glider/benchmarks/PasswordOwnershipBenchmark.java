@@ -0,0 +1,67 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glider.services.users.entities.GliderUser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code PasswordOwnershipBenchmark} class is used to measure the ownership check of a password made by
+ * {@link GliderUser#passwordBelongsToMe(String)} with large keychains
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordOwnershipBenchmark {
+
+    /**
+     * {@code keychainSize} the number of the passwords owned by the user
+     */
+    @Param({"100", "1000", "10000", "100000"})
+    private int keychainSize;
+
+    /**
+     * {@code user} the synthetic user owner of the keychain
+     */
+    private GliderUser user;
+
+    /**
+     * {@code lastPasswordId} the identifier of the last password of the keychain
+     */
+    private String lastPasswordId;
+
+    /**
+     * Method used to set up the state of the benchmark
+     */
+    @Setup
+    public void setUp() {
+        List<Password> keychain = SyntheticKeychain.createKeychain(keychainSize);
+        user = new GliderUser("user", "token", "name", "surname", "email", "password", "en", List.of(), keychain);
+        lastPasswordId = keychain.get(keychainSize - 1).getId();
+    }
+
+    /**
+     * Method used to measure the check of a password owned by the user, placed at the end of the keychain
+     *
+     * @return whether the password belongs to the user as {@code boolean}
+     */
+    @Benchmark
+    public boolean ownedPassword() {
+        return user.passwordBelongsToMe(lastPasswordId);
+    }
+
+    /**
+     * Method used to measure the check of a password not owned by the user
+     *
+     * @return whether the password belongs to the user as {@code boolean}
+     */
+    @Benchmark
+    public boolean notOwnedPassword() {
+        return user.passwordBelongsToMe("not-owned");
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.helpers.RandomnessProvider;
+import com.tecknobit.glider.helpers.RandomnessProvider.RandomnessMode;
+import com.tecknobit.glider.services.passwords.helpers.PasswordGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.glider.helpers.RandomnessProvider.DEFAULT_POOL_SIZE;
+import static com.tecknobit.glider.helpers.RandomnessProvider.DEFAULT_RESEED_INTERVAL;
+
+/**
+ * The {@code RandomnessProviderBenchmark} class is used to measure the throughput of the password generations with
+ * each {@link RandomnessMode} under concurrent traffic
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class RandomnessProviderBenchmark {
+
+    /**
+     * {@code PASSWORD_LENGTH} the length of the generated passwords
+     */
+    private static final int PASSWORD_LENGTH = 32;
+
+    /**
+     * {@code mode} the mode used to provide the random instances
+     */
+    @Param({"PLATFORM", "THREAD_LOCAL", "POOLED_DRBG"})
+    private RandomnessMode mode;
+
+    /**
+     * Method used to set up the state of the benchmark
+     */
+    @Setup
+    public void setUp() {
+        RandomnessProvider.getInstance().configure(mode, DEFAULT_POOL_SIZE, DEFAULT_RESEED_INTERVAL);
+    }
+
+    /**
+     * Method used to measure a password generation with the configured mode
+     *
+     * @return the generated password as {@link String}
+     */
+    @Benchmark
+    public String generatePassword() {
+        return PasswordGenerator.getInstance().generatePassword(PASSWORD_LENGTH, true, true, true);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import com.tecknobit.glidercore.enums.KeychainView;
+import kotlin.Triple;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.equinoxbackend.resourcesutils.ResourcesManager.RESOURCES_PATH;
+import static com.tecknobit.glider.helpers.ServerVault.VAULT_FOLDER;
+import static com.tecknobit.glidercore.enums.KeychainView.FULL;
+import static com.tecknobit.glidercore.enums.KeychainView.LIST;
+import static com.tecknobit.glidercore.enums.PasswordType.INSERTED;
+
+/**
+ * The {@code ServerVaultBenchmark} class is used to measure the encryption and the decryption of a whole keychain
+ * made by the {@link ServerVault}
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServerVaultBenchmark {
+
+    /**
+     * {@code keychainSize} the number of the passwords in the keychain
+     */
+    @Param({"100", "1000", "10000"})
+    private int keychainSize;
+
+    /**
+     * {@code token} the token of the synthetic user owner of the keychain
+     */
+    private String token;
+
+    /**
+     * {@code passwordsData} the plain data of the passwords of the keychain
+     */
+    private List<Triple<String, String, String>> passwordsData;
+
+    /**
+     * {@code encryptedData} the encrypted data of the passwords of the keychain
+     */
+    private List<Triple<byte[], byte[], byte[]>> encryptedData;
+
+    /**
+     * Method used to set up the state of the benchmark
+     *
+     * @throws Exception when an error occurred during the creation of the private key
+     */
+    @Setup
+    public void setUp() throws Exception {
+        new File(RESOURCES_PATH + VAULT_FOLDER).mkdirs();
+        SyntheticKeychain.configureMasterKey();
+        token = UUID.randomUUID().toString();
+        ServerVault vault = ServerVault.getInstance();
+        vault.createUserPrivateKey(token);
+        passwordsData = SyntheticKeychain.createPasswordsData(keychainSize);
+        encryptedData = vault.encryptPasswordsData(token, passwordsData);
+    }
+
+    /**
+     * Method used to measure the encryption of the keychain
+     *
+     * @return the encrypted data as {@link List} of {@link Triple}
+     * @throws Exception when an error occurred during the encryption
+     */
+    @Benchmark
+    public List<Triple<byte[], byte[], byte[]>> encryptKeychain() throws Exception {
+        return ServerVault.getInstance().encryptPasswordsData(token, passwordsData);
+    }
+
+    /**
+     * Method used to measure the decryption of the keychain with the {@link KeychainView#FULL} view
+     *
+     * @return the decrypted passwords as {@link List} of {@link Password}
+     * @throws Exception when an error occurred during the decryption
+     */
+    @Benchmark
+    public List<Password> decryptKeychain() throws Exception {
+        List<Password> passwords = loadKeychain();
+        ServerVault.getInstance().decryptPasswords(token, passwords, FULL);
+        return passwords;
+    }
+
+    /**
+     * Method used to measure the decryption of the keychain with the {@link KeychainView#LIST} view, so without the
+     * values of the passwords
+     *
+     * @return the decrypted passwords as {@link List} of {@link Password}
+     * @throws Exception when an error occurred during the decryption
+     */
+    @Benchmark
+    public List<Password> decryptKeychainList() throws Exception {
+        List<Password> passwords = loadKeychain();
+        ServerVault.getInstance().decryptPasswords(token, passwords, LIST);
+        return passwords;
+    }
+
+    /**
+     * Method used to load the encrypted keychain, the passwords are rebuilt at each invocation because the decryption
+     * fills their plain data
+     *
+     * @return the encrypted passwords as {@link List} of {@link Password}
+     */
+    private List<Password> loadKeychain() {
+        List<Password> passwords = new ArrayList<>(encryptedData.size());
+        for (int j = 0; j < encryptedData.size(); j++) {
+            Password password = new Password(String.valueOf(j), j, null, null, null, INSERTED, null, null);
+            password.setEncryptedData(encryptedData.get(j));
+            passwords.add(password);
+        }
+        return passwords;
+    }
+
+    /**
+     * Method used to remove the private key of the synthetic user
+     */
+    @TearDown
+    public void tearDown() {
+        ServerVault.getInstance().deleteLockBox(token);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.tecknobit.glider.benchmarks;
+
+import com.tecknobit.glider.helpers.ServerVault;
+import com.tecknobit.glider.services.passwords.entities.Password;
+import kotlin.Triple;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.tecknobit.glidercore.enums.PasswordType.INSERTED;
+
+/**
+ * The {@code SyntheticKeychain} class is used to create the synthetic keychains used by the benchmarks
+ *
+ * @author N7ghtm4r3 - Tecknobit
+ */
+public class SyntheticKeychain {
+
+    /**
+     * {@code SEED} the seed used to create always the same keychains
+     */
+    private static final long SEED = 1758;
+
+    /**
+     * {@code SCOPES} the scopes assigned to the synthetic passwords
+     */
+    private static final String[] SCOPES = {
+            "mail", "bank", "social", "work", "games", "shopping", "travel", "cloud", "dev", "streaming"
+    };
+
+    /**
+     * {@code MASTER_KEYSTORE_PASSWORD} the password of the temporary keystore of the master key of the vault
+     */
+    private static final char[] MASTER_KEYSTORE_PASSWORD = "glider-benchmarks".toCharArray();
+
+    /**
+     * Constructor to instantiate the object
+     */
+    private SyntheticKeychain() {
+    }
+
+    /**
+     * Method used to create the plain data of a synthetic keychain
+     *
+     * @param keychainSize The number of the passwords of the keychain
+     * @return the data of the passwords, each one as tail, password value and scopes, as {@link List} of {@link Triple}
+     */
+    public static List<Triple<String, String, String>> createPasswordsData(int keychainSize) {
+        Random random = new Random(SEED);
+        List<Triple<String, String, String>> passwordsData = new ArrayList<>(keychainSize);
+        for (int j = 0; j < keychainSize; j++) {
+            String scopes = SCOPES[random.nextInt(SCOPES.length)] + "," + SCOPES[random.nextInt(SCOPES.length)];
+            passwordsData.add(new Triple<>("account-" + j + "@service" + random.nextInt(100) + ".com",
+                    Long.toHexString(random.nextLong()), scopes));
+        }
+        return passwordsData;
+    }
+
+    /**
+     * Method used to create a synthetic keychain of already decrypted passwords
+     *
+     * @param keychainSize The number of the passwords of the keychain
+     * @return the passwords as {@link List} of {@link Password}
+     */
+    public static List<Password> createKeychain(int keychainSize) {
+        List<Password> keychain = new ArrayList<>(keychainSize);
+        List<Triple<String, String, String>> passwordsData = createPasswordsData(keychainSize);
+        for (int j = 0; j < keychainSize; j++) {
+            Triple<String, String, String> passwordData = passwordsData.get(j);
+            keychain.add(new Password("password-" + j, j, passwordData.getFirst(), passwordData.getSecond(),
+                    passwordData.getThird(), INSERTED, null, null));
+        }
+        return keychain;
+    }
+
+    /**
+     * Method used to configure the vault with a new master key stored in a temporary keystore
+     *
+     * @throws Exception when an error occurred during the creation of the master key
+     */
+    public static void configureMasterKey() throws Exception {
+        File keystore = new File(Files.createTempDirectory("glider-benchmarks").toFile(), "master-key.p12");
+        keystore.deleteOnExit();
+        ServerVault.getInstance().configureMasterKey(keystore, MASTER_KEYSTORE_PASSWORD,
+                ServerVault.DEFAULT_MASTER_KEY_ALIAS, true);
+    }
+
+}
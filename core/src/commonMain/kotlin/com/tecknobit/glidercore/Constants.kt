@@ -85,6 +85,21 @@ const val PASSWORD_EVENTS_KEY = "password_events"
  */
 const val EVENT_DATE_KEY = "event_date"
 
+/**
+ * `PASSWORD_EVENT_AGGREGATES_KEY` the key for the **"password_event_aggregates"** field
+ */
+const val PASSWORD_EVENT_AGGREGATES_KEY = "password_event_aggregates"
+
+/**
+ * `EVENT_DAY_KEY` the key for the **"event_day"** field
+ */
+const val EVENT_DAY_KEY = "event_day"
+
+/**
+ * `OCCURRENCES_KEY` the key for the **"occurrences"** field
+ */
+const val OCCURRENCES_KEY = "occurrences"
+
 /**
  * `INCLUDE_NUMBERS_KEY` the key for the **"include_numbers"** field
  */
@@ -108,4 +123,49 @@ const val LAST_LOGIN_KEY = "last_login"
 /**
  * `EVENTS_KEY` the key for the **"events"** field
  */
-const val EVENTS_KEY = "events"
\ No newline at end of file
+const val EVENTS_KEY = "events"
+
+/**
+ * `PASSWORD_KEYWORDS_KEY` the key for the **"password_keywords"** field
+ */
+const val PASSWORD_KEYWORDS_KEY = "password_keywords"
+
+/**
+ * `KEYWORD_TOKEN_KEY` the key for the **"keyword_token"** field
+ */
+const val KEYWORD_TOKEN_KEY = "keyword_token"
+
+/**
+ * `KEYWORD_GENERATION_KEY` the key for the **"keyword_generation"** field
+ */
+const val KEYWORD_GENERATION_KEY = "keyword_generation"
+
+/**
+ * `PASSWORD_TOMBSTONES_KEY` the key for the **"password_tombstones"** field
+ */
+const val PASSWORD_TOMBSTONES_KEY = "password_tombstones"
+
+/**
+ * `DELETION_DATE_KEY` the key for the **"deletion_date"** field
+ */
+const val DELETION_DATE_KEY = "deletion_date"
+
+/**
+ * `SINCE_KEY` the key for the **"since"** field
+ */
+const val SINCE_KEY = "since"
+
+/**
+ * `KEYCHAIN_SEQUENCES_KEY` the key for the **"keychain_sequences"** field
+ */
+const val KEYCHAIN_SEQUENCES_KEY = "keychain_sequences"
+
+/**
+ * `CHANGE_SEQUENCE_KEY` the key for the **"change_sequence"** field
+ */
+const val CHANGE_SEQUENCE_KEY = "change_sequence"
+
+/**
+ * `VIEW_KEY` the key for the **"view"** field
+ */
+const val VIEW_KEY = "view"
@@ -0,0 +1,22 @@
+package com.tecknobit.glidercore.enums
+
+import kotlinx.serialization.Serializable
+
+/**
+ * The `KeychainView` are the available views of the keychain, each one with the fields of the passwords to decrypt
+ */
+@Serializable
+enum class KeychainView {
+
+    /**
+     * `LIST` the passwords have just the tail and the scopes, the value is retrieved on demand with the details of
+     * the single password
+     */
+    LIST,
+
+    /**
+     * `FULL` the passwords have the tail, the scopes and the value
+     */
+    FULL
+
+}
\ No newline at end of file
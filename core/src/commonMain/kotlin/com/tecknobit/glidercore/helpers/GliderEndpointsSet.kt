@@ -21,4 +21,24 @@ object GliderEndpointsSet : EquinoxBaseEndpointsSet() {
      */
     const val REFRESH_ENDPOINT = "/refresh"
 
+    /**
+     * `EXPORT_ENDPOINT` the endpoint used to export the keychain of the user
+     */
+    const val EXPORT_ENDPOINT = "/export"
+
+    /**
+     * `IMPORT_ENDPOINT` the endpoint used to import a list of passwords of the user
+     */
+    const val IMPORT_ENDPOINT = "/import"
+
+    /**
+     * `BATCH_ENDPOINT` the endpoint used to generate a batch of passwords of the user
+     */
+    const val BATCH_ENDPOINT = "/batch"
+
+    /**
+     * `SYNC_ENDPOINT` the endpoint used to retrieve the changes of the keychain of the user since the last sync
+     */
+    const val SYNC_ENDPOINT = "/sync"
+
 }
\ No newline at end of file